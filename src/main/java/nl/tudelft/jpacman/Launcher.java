@@ -4,26 +4,41 @@ import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.CodeSource;
 import java.util.*;
 
 import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.game.GameFactory;
 import nl.tudelft.jpacman.level.Level;
 import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelPipeline;
+import nl.tudelft.jpacman.level.LevelTemplateCache;
+import nl.tudelft.jpacman.level.MapAnalysis;
 import nl.tudelft.jpacman.level.MapParser;
 import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.level.PlayerFactory;
 import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.replay.GameRecorder;
+import nl.tudelft.jpacman.replay.GameReplayer;
+import nl.tudelft.jpacman.score.HighScoreStore;
+import nl.tudelft.jpacman.sprite.AnimationClock;
 import nl.tudelft.jpacman.sprite.PacManSprites;
 import nl.tudelft.jpacman.ui.Action;
+import nl.tudelft.jpacman.ui.FrameRecorder;
+import nl.tudelft.jpacman.ui.HeadlessRenderer;
 import nl.tudelft.jpacman.ui.PacManUI;
 import nl.tudelft.jpacman.ui.PacManUiBuilder;
+
+import com.google.common.collect.ImmutableList;
 import org.apache.commons.cli.*;
 import org.checkerframework.checker.nullness.qual.EnsuresNonNull;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.nullness.qual.RequiresNonNull;
 /**
  * Creates and launches the JPacMan UI.
@@ -38,6 +53,60 @@ public class Launcher {
     public static final String DEFAULT_MAP = "/board.txt";
     private String levelMap = DEFAULT_MAP;
 
+    /**
+     * The file in which high scores are kept when launched from the
+     * command line.
+     */
+    public static final String HIGH_SCORE_FILE = "highscores.log";
+
+    /**
+     * The store in which the results of levels are recorded, if any.
+     */
+    private @Nullable HighScoreStore highScoreStore;
+
+    /**
+     * The file the game is recorded to, if any.
+     */
+    private @Nullable Path recordingFile;
+
+    /**
+     * The frame rate of the active render loop, or <code>0</code> to have
+     * Swing paint the board.
+     */
+    private int targetFps;
+
+    /**
+     * The time between two captured frames in milliseconds, and between two
+     * frames drawn by the passive painter.
+     */
+    private static final int CAPTURE_INTERVAL = 40;
+
+    /**
+     * The size of a cell in captured frames, in pixels.
+     */
+    private static final int CAPTURE_CELL_SIZE = 16;
+
+    /**
+     * The file the game is captured to as an animated GIF, if any.
+     */
+    private @Nullable Path captureFile;
+
+    /**
+     * The cache the levels are created from, if any.
+     */
+    private @Nullable LevelTemplateCache templateCache;
+
+    /**
+     * The sprites used instead of the default ones, if any.
+     */
+    private @Nullable PacManSprites spriteStore;
+
+    /**
+     * The maps of the levels played one after the other, if more than the
+     * single level map.
+     */
+    private @Nullable List<String> levelMaps;
+
     @MonotonicNonNull private PacManUI pacManUI;
     @MonotonicNonNull private Game game;
 
@@ -72,35 +141,268 @@ public class Launcher {
     }
 
     /**
-     * Creates a new game using the level from {@link #makeLevel()}.
+     * Set the store in which the results of the levels are recorded.
+     *
+     * @param store
+     *            The high-score store to be used.
+     * @return This launcher.
+     */
+    public Launcher withHighScoreStore(HighScoreStore store) {
+        highScoreStore = store;
+        return this;
+    }
+
+    /**
+     * Record the games made by this launcher, so they can be replayed later.
+     * Games of several levels cannot be recorded.
+     *
+     * @param file
+     *            The file the event log is written to.
+     * @return This launcher.
+     */
+    public Launcher withRecording(Path file) {
+        recordingFile = file;
+        return this;
+    }
+
+    /**
+     * Render the board actively at the given frame rate instead of having
+     * Swing paint it.
+     *
+     * @param fps
+     *            The number of frames to draw per second, or <code>0</code>
+     *            for passive painting.
+     * @return This launcher.
+     */
+    public Launcher withActiveRendering(int fps) {
+        targetFps = fps;
+        return this;
+    }
+
+    /**
+     * Capture the frames of the launched game to an animated GIF. Frames
+     * are dropped rather than slow down the game when the encoder cannot
+     * keep up. Games of several levels cannot be captured.
+     *
+     * @param file
+     *            The GIF file the frames are written to.
+     * @return This launcher.
+     */
+    public Launcher withCapture(Path file) {
+        captureFile = file;
+        return this;
+    }
+
+    /**
+     * Create the levels from a cache of map templates instead of parsing the
+     * map for every game.
+     *
+     * @param cache
+     *            The cache, which creates levels with its own factories.
+     * @return This launcher.
+     */
+    public Launcher withLevelTemplateCache(LevelTemplateCache cache) {
+        templateCache = cache;
+        return this;
+    }
+
+    /**
+     * Use the given sprites instead of the default ones, e.g. to animate
+     * them on a clock of their own.
+     *
+     * @param sprites
+     *            The sprites to be used.
+     * @return This launcher.
+     */
+    public Launcher withSpriteStore(PacManSprites sprites) {
+        spriteStore = sprites;
+        return this;
+    }
+
+    /**
+     * Play the levels of the given maps one after the other, the next level
+     * being prepared in the background while the current one is played.
+     * Recordings and captures cover a single level, so they cannot be
+     * combined with this.
+     *
+     * @param maps
+     *            The names of the map resources, in the order in which they
+     *            are played.
+     * @return This launcher.
+     */
+    public Launcher withLevels(List<String> maps) {
+        assert !maps.isEmpty();
+        levelMaps = ImmutableList.copyOf(maps);
+        return this;
+    }
+
+    /**
+     * Creates a new game using the level from {@link #makeLevel()}, or the
+     * levels given to {@link #withLevels(List)}.
      *
      * @param playerId
      *              The player's name
      * @return a new Game.
+     * @throws PacmanConfigurationException
+     *             If a game of several levels is to be recorded.
      */
     @EnsuresNonNull("game")
     public Game makeGame(String playerId) {
         GameFactory gf = getGameFactory();
-        Level level = makeLevel();
-        game = gf.createSinglePlayerGame(level, playerId);
+        List<String> maps = levelMaps;
+        if (maps != null && recordingFile != null) {
+            throw new PacmanConfigurationException(
+                "A game of several levels cannot be recorded.");
+        }
+        if (maps == null) {
+            game = gf.createSinglePlayerGame(makeLevel(), playerId);
+        } else {
+            game = gf.createMultiLevelGame(
+                new LevelPipeline(maps, this::makeLevel, PacManUI.SQUARE_SIZE), playerId);
+        }
+        Path file = recordingFile;
+        if (file != null) {
+            startRecording(game.getLevel(), file);
+        }
         return game;
     }
 
+    /**
+     * Starts recording a level, and makes sure the recording is completed
+     * when the JVM exits.
+     *
+     * @param level
+     *            The level to record, with its players registered.
+     * @param file
+     *            The file the event log is written to.
+     */
+    private static void startRecording(Level level, Path file) {
+        try {
+            GameRecorder recorder = GameRecorder.record(level, file);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    System.err.println("Unable to close recording: " + e.getMessage());
+                }
+            }));
+        } catch (IOException e) {
+            throw new PacmanConfigurationException("Unable to record to " + file, e);
+        }
+    }
+
+    /**
+     * Replays a recorded game without user interface.
+     *
+     * @param playerId
+     *            The player's name.
+     * @param file
+     *            The event log of the recorded game.
+     * @param speed
+     *            The replay speed relative to the recording, or zero to replay
+     *            as fast as possible.
+     * @return The game in the state in which the recording ended.
+     * @throws IOException
+     *             When the recording could not be read.
+     */
+    public Game replay(String playerId, Path file, double speed) throws IOException {
+        Game replayed = makeGame(playerId);
+        try (GameReplayer replayer = GameReplayer.open(file)) {
+            int events = replayer.replay(replayed, speed);
+            System.out.println("replayed " + events + " events"
+                + (replayer.isCrashed() ? ", ending in a crash" : ""));
+        }
+        return replayed;
+    }
+
+    /**
+     * Replays a recorded game as fast as possible, and renders it to an
+     * animated GIF. Frames are taken at regular intervals of the recording's
+     * time line, with the sprites animated on that same time line, so the
+     * result does not depend on how fast the replay or the encoder runs.
+     *
+     * @param playerId
+     *            The player's name.
+     * @param file
+     *            The event log of the recorded game.
+     * @param gif
+     *            The GIF file the frames are written to.
+     * @return The game in the state in which the recording ended.
+     * @throws IOException
+     *             When the recording could not be read, or the frames could
+     *             not be written.
+     */
+    public Game replayToGif(String playerId, Path file, Path gif) throws IOException {
+        AnimationClock clock = AnimationClock.manual();
+        withSpriteStore(new PacManSprites(clock));
+        Game replayed = makeGame(playerId);
+        HeadlessRenderer renderer =
+            new HeadlessRenderer(replayed.getLevel(), CAPTURE_CELL_SIZE, clock);
+        try (GameReplayer replayer = GameReplayer.open(file);
+             FrameRecorder recorder = FrameRecorder.open(gif, renderer.getWidth(),
+                 renderer.getHeight(), CAPTURE_INTERVAL, FrameRecorder.DEFAULT_CAPACITY)) {
+            long[] nextFrame = {0};
+            int events = replayer.replay(replayed, 0, tick -> {
+                while (nextFrame[0] <= tick) {
+                    clock.setTime(nextFrame[0]);
+                    recorder.record(renderer.render());
+                    nextFrame[0] += CAPTURE_INTERVAL;
+                }
+            });
+            clock.setTime(nextFrame[0]);
+            recorder.record(renderer.render());
+            System.out.println("replayed " + events + " events into "
+                + recorder.getFramesEncoded() + " frames");
+        }
+        return replayed;
+    }
+
     /**
      * Creates a new level. By default this method will use the map parser to
-     * parse the default board stored in the <code>board.txt</code> resource.
+     * parse the default board stored in the <code>board.txt</code> resource,
+     * or the template cache if one was given.
      *
      * @return A new level.
      */
     public Level makeLevel() {
         try {
-            return getMapParser().parseMap(getLevelMap());
+            return makeLevel(getLevelMap());
         } catch (IOException e) {
             throw new PacmanConfigurationException(
                     "Unable to create level, name = " + getLevelMap(), e);
         }
     }
 
+    /**
+     * Creates a new level from the given map, with the template cache if one
+     * was given, and checks it can be played to the end. Without a cache the
+     * level the map parser built is analysed, so the squares and units of a
+     * custom parser count; with one the analysis is made once, along with
+     * the template.
+     *
+     * @param mapName
+     *            The name of the map resource.
+     * @return A new level.
+     * @throws IOException
+     *             When the map could not be read.
+     * @throws PacmanConfigurationException
+     *             If the map is not valid, or cannot be played to the end.
+     */
+    private Level makeLevel(String mapName) throws IOException {
+        LevelTemplateCache cache = templateCache;
+        Level level;
+        if (cache == null) {
+            level = getMapParser().parseMap(mapName);
+            MapAnalysis.analyse(level, getPlayerFactory().createPacMan("probe"))
+                .validate(mapName);
+        } else {
+            cache.getAnalysis(mapName).validate(mapName);
+            level = cache.makeLevel(mapName);
+        }
+        level.setHighScoreStore(highScoreStore);
+        return level;
+    }
+
     /**
      * @return A new map parser object using the factories from
      *         {@link #getLevelFactory()} and {@link #getBoardFactory()}.
@@ -121,7 +423,8 @@ public class Launcher {
      * @return The default {@link PacManSprites}.
      */
     protected PacManSprites getSpriteStore() {
-        return SPRITE_STORE;
+        PacManSprites sprites = spriteStore;
+        return sprites == null ? SPRITE_STORE : sprites;
     }
 
     /**
@@ -167,9 +470,34 @@ public class Launcher {
     }
 
     private Action moveTowardsDirection(Direction direction) {
-        return () -> {
-            assert game != null;
-            getGame().move(getSinglePlayer(getGame()), direction);
+        return new Action() {
+            @Override
+            public void doAction() {
+                assert game != null;
+                getGame().move(getSinglePlayer(getGame()), direction);
+            }
+
+            /**
+             * Moves the player only if the game is in progress and the
+             * square in the direction is accessible, so retrying a blocked
+             * move does not go through {@link Game#move} with its side
+             * effects every tick.
+             */
+            @Override
+            public boolean attempt() {
+                assert game != null;
+                Game current = getGame();
+                Player player = getSinglePlayer(current);
+                if (!current.isInProgress() || !player.hasSquare()) {
+                    return false;
+                }
+                Square before = player.getSquare();
+                if (!before.getSquareAt(direction).isAccessibleTo(player)) {
+                    return false;
+                }
+                current.move(player, direction);
+                return player.getSquare() != before;
+            }
         };
     }
 
@@ -186,18 +514,59 @@ public class Launcher {
      *
      * @param playerId
      *                  The player's name
-     *
+     * @throws PacmanConfigurationException
+     *             If a game of several levels is to be recorded or
+     *             captured.
      */
     @EnsuresNonNull("game")
     public void launch(String playerId) {
+        if (levelMaps != null && captureFile != null) {
+            throw new PacmanConfigurationException(
+                "A game of several levels cannot be captured.");
+        }
         makeGame(playerId);
 
-        PacManUiBuilder builder = new PacManUiBuilder().withDefaultButtons();
+        PacManUiBuilder builder = new PacManUiBuilder().withDefaultButtons()
+            .withActiveRendering(targetFps);
         addSinglePlayerKeys(builder);
         pacManUI = builder.build(getGame());
+        Path file = captureFile;
+        if (file != null) {
+            startCapture(pacManUI, getGame().getLevel(), file);
+        }
         pacManUI.start();
     }
 
+    /**
+     * Starts capturing the frames of the UI, and makes sure the capture is
+     * completed when the JVM exits.
+     *
+     * @param ui
+     *            The UI to capture.
+     * @param level
+     *            The level shown by the UI.
+     * @param file
+     *            The GIF file the frames are written to.
+     */
+    private void startCapture(PacManUI ui, Level level, Path file) {
+        HeadlessRenderer renderer = new HeadlessRenderer(level, CAPTURE_CELL_SIZE);
+        int frameDelay = targetFps > 0 ? Math.max(1, 1000 / targetFps) : CAPTURE_INTERVAL;
+        try {
+            FrameRecorder recorder = FrameRecorder.open(file, renderer.getWidth(),
+                renderer.getHeight(), frameDelay, FrameRecorder.DEFAULT_CAPACITY);
+            ui.capture(renderer, recorder);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    System.err.println("Unable to close capture: " + e.getMessage());
+                }
+            }));
+        } catch (IOException e) {
+            throw new PacmanConfigurationException("Unable to capture to " + file, e);
+        }
+    }
+
     /**
      * Disposes of the UI. For more information see
      * {@link javax.swing.JFrame#dispose()}.
@@ -241,6 +610,39 @@ public class Launcher {
         bugMode.setRequired(false);
         options.addOption(bugMode);
 
+        Option record = new Option("r", "record", true, "record the game to a file");
+        record.setRequired(false);
+        options.addOption(record);
+
+        Option replay = new Option("rp", "replay", true, "replay a recorded game");
+        replay.setRequired(false);
+        options.addOption(replay);
+
+        Option replaySpeed = new Option("rs", "replay-speed", true,
+            "replay speed relative to real time, 0 for as fast as possible");
+        replaySpeed.setRequired(false);
+        options.addOption(replaySpeed);
+
+        Option fps = new Option("fps", "fps", true,
+            "render the board actively at the given frame rate");
+        fps.setRequired(false);
+        options.addOption(fps);
+
+        Option capture = new Option("c", "capture", true,
+            "capture the game to an animated GIF");
+        capture.setRequired(false);
+        options.addOption(capture);
+
+        Option replayGif = new Option("rg", "replay-gif", true,
+            "render a replayed game to an animated GIF");
+        replayGif.setRequired(false);
+        options.addOption(replayGif);
+
+        Option levels = new Option("l", "levels", true,
+            "play the comma separated map resources one after the other");
+        levels.setRequired(false);
+        options.addOption(levels);
+
         CommandLineParser parser = new BasicParser();
         CommandLine cmd;
 
@@ -282,6 +684,14 @@ public class Launcher {
             commandLineArguments.put("buggy", "");
         }
 
+        for (String option : new String[] {"record", "replay", "replay-speed", "fps",
+            "capture", "replay-gif", "levels"}) {
+            value = cmd.getOptionValue(option);
+            if (value != null && !value.isEmpty()) {
+                commandLineArguments.put(option, value);
+            }
+        }
+
         return commandLineArguments;
     }
 
@@ -383,6 +793,7 @@ public class Launcher {
      *             When a resource could not be read.
      */
     public static void main(String[] args) {
+        SPRITE_STORE.preload();
 
         Map<String,String> commandLine = parseCommandLine(args);
         Map<String,String> propertiesFile = readFromPropertiesFile();
@@ -420,6 +831,114 @@ public class Launcher {
         OpenKitSingleton.getInstance().initialize(openKitConfig, player);
         GameModeSingleton.getInstance().setDisableNPCs(commandLine.containsKey("disable-npc"));
         GameModeSingleton.getInstance().setBuggyMode(commandLine.containsKey("buggy"));
-        new Launcher().launch(player);
+
+        String replayFile = commandLine.get("replay");
+        if (replayFile != null) {
+            String gif = commandLine.get("replay-gif");
+            if (gif != null) {
+                replayToGifFromCommandLine(player, replayFile, gif);
+            } else {
+                replayFromCommandLine(player, replayFile, commandLine.get("replay-speed"));
+            }
+            return;
+        }
+
+        String levelMaps = commandLine.get("levels");
+        if (levelMaps != null
+            && (commandLine.containsKey("record") || commandLine.containsKey("capture"))) {
+            System.err.println("--levels cannot be combined with --record or --capture.");
+            return;
+        }
+        Launcher launcher = new Launcher();
+        String recordFile = commandLine.get("record");
+        if (recordFile != null) {
+            launcher.withRecording(Paths.get(recordFile));
+        }
+        String captureFile = commandLine.get("capture");
+        if (captureFile != null) {
+            launcher.withCapture(Paths.get(captureFile));
+        }
+        if (levelMaps != null) {
+            launcher.withLevels(Arrays.asList(levelMaps.split(",")));
+        }
+        String fps = commandLine.get("fps");
+        if (fps != null) {
+            try {
+                launcher.withActiveRendering(Math.max(0, Integer.parseInt(fps)));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid frame rate " + fps + ", painting passively.");
+            }
+        }
+        HighScoreStore store = openHighScoreStore();
+        if (store != null) {
+            launcher.withHighScoreStore(store);
+        }
+        launcher.launch(player);
+    }
+
+    /**
+     * Replays a recorded game and prints the outcome.
+     *
+     * @param player
+     *            The player's name.
+     * @param file
+     *            The name of the event log.
+     * @param speed
+     *            The replay speed as given on the command line, if any.
+     */
+    private static void replayFromCommandLine(String player, String file,
+                                              @Nullable String speed) {
+        try {
+            double replaySpeed = speed == null ? 0 : Double.parseDouble(speed);
+            Game replayed = new Launcher().replay(player, Paths.get(file), replaySpeed);
+            for (Player p : replayed.getPlayers()) {
+                System.out.println(p.getID() + ": score " + p.getScore()
+                    + (p.isAlive() ? "" : ", dead"));
+            }
+            System.out.println("pellets remaining: " + replayed.getLevel().remainingPellets());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Unable to replay " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Renders a recorded game to an animated GIF.
+     *
+     * @param player
+     *            The player's name.
+     * @param file
+     *            The name of the event log.
+     * @param gif
+     *            The name of the GIF file.
+     */
+    private static void replayToGifFromCommandLine(String player, String file, String gif) {
+        try {
+            new Launcher().replayToGif(player, Paths.get(file), Paths.get(gif));
+        } catch (IOException e) {
+            System.err.println("Unable to render " + file + " to " + gif + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the high-score store in the working directory, and makes sure
+     * pending results are written when the JVM exits.
+     *
+     * @return The store, or <code>null</code> if it could not be opened.
+     */
+    private static @Nullable HighScoreStore openHighScoreStore() {
+        try {
+            HighScoreStore store = HighScoreStore.open(Paths.get(HIGH_SCORE_FILE));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    System.err.println("Unable to close high scores: " + e.getMessage());
+                }
+            }));
+            return store;
+        } catch (IOException | PacmanConfigurationException e) {
+            System.err.println("Unable to open high scores: " + e.getMessage());
+            return null;
+        }
     }
 }
@@ -1,5 +1,10 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+
 import org.checkerframework.checker.initialization.qual.UnderInitialization;
 
 /**
@@ -22,9 +27,38 @@ public class Board {
      *            x, row y.
      */
     Board(Square[][] grid) {
+        this(grid, true);
+    }
+
+    /**
+     * Creates a new board.
+     *
+     * @param grid
+     *            The grid of squares with grid[x][y] being the square at column
+     *            x, row y.
+     * @param position
+     *            <code>false</code> if the squares already know their
+     *            position on the board.
+     */
+    Board(Square[][] grid, boolean position) {
         assert grid != null;
         this.board = grid;
         assert invariant() : "Initial grid cannot contain null squares";
+        if (position) {
+            for (int x = 0; x < grid.length; x++) {
+                for (int y = 0; y < grid[x].length; y++) {
+                    grid[x][y].setPosition(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new board that keeps its squares elsewhere, for subclasses
+     * that create them on demand.
+     */
+    Board() {
+        this.board = new Square[0][];
     }
 
     /**
@@ -83,6 +117,36 @@ public class Board {
         return result;
     }
 
+    /**
+     * Returns the background of the square at the given position. Boards
+     * that create their squares on demand answer this without creating the
+     * square.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return The background of the square.
+     */
+    public Sprite spriteAt(int x, int y) {
+        return squareAt(x, y).getSprite();
+    }
+
+    /**
+     * Returns the units on the square at the given position. Boards that
+     * create their squares on demand answer this without creating the
+     * square, as a square that does not exist yet has no units.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return The units on the square, oldest first.
+     */
+    public List<Unit> occupantsAt(int x, int y) {
+        return squareAt(x, y).getOccupants();
+    }
+
     /**
      * Determines whether the given <code>x,y</code> position is on this board.
      *
@@ -95,4 +159,34 @@ public class Board {
     public boolean withinBorders(int x, int y) {
         return x >= 0 && x < getWidth() && y >= 0 && y < getHeight();
     }
+
+    /**
+     * Returns the squares of this board that currently exist, column by
+     * column. For a board that creates its squares on demand, this is only
+     * the part that has been requested so far, which is where any units
+     * placed on it are.
+     *
+     * @return The squares of this board that exist.
+     */
+    public List<Square> getMaterialisedSquares() {
+        List<Square> squares = new ArrayList<>();
+        for (Square[] column : board) {
+            for (Square square : column) {
+                squares.add(square);
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Keeps the given square on this board for as long as the board exists,
+     * for squares that are held on to by others, such as start positions.
+     * Boards that keep all of their squares ignore this.
+     *
+     * @param square
+     *            A square of this board.
+     */
+    public void retain(Square square) {
+        assert square != null;
+    }
 }
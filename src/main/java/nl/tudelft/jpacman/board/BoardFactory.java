@@ -1,12 +1,22 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
 import nl.tudelft.jpacman.sprite.PacManSprites;
 import nl.tudelft.jpacman.sprite.Sprite;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A factory that creates {@link Board} objects from 2-dimensional arrays of
  * {@link Square}s.
  *
+ * Boards of at least {@value #PARALLEL_THRESHOLD} squares are built in
+ * parallel: the grid is split into bands of columns, which are created and
+ * linked on a fork-join pool. Every square is only written by the task
+ * handling its column, so the result is identical to building it serially.
+ *
  * @author Jeroen Roosen 
  */
 public class BoardFactory {
@@ -16,6 +26,17 @@ public class BoardFactory {
      */
     private final PacManSprites sprites;
 
+    /**
+     * The minimum number of squares for which a board is built in parallel
+     * by default.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The maximum number of squares handled by a task without splitting it.
+     */
+    private static final int BAND_SQUARES = 1 << 13;
+
     /**
      * Creates a new BoardFactory that will create a board with the provided
      * background sprites.
@@ -28,7 +49,9 @@ public class BoardFactory {
     }
 
     /**
-     * Creates a new board from a grid of cells and connects it.
+     * Creates a new board from a grid of cells and connects it, in parallel
+     * on the common pool if the grid has at least
+     * {@value #PARALLEL_THRESHOLD} cells.
      *
      * @param grid
      *            The square grid of cells, in which grid[x][y] corresponds to
@@ -37,12 +60,43 @@ public class BoardFactory {
      */
     public Board createBoard(Square[][] grid) {
         assert grid != null;
+        return createBoard(grid, defaultPool(grid.length, grid[0].length));
+    }
+
+    /**
+     * Creates a new board from a grid of cells and connects it.
+     *
+     * @param grid
+     *            The square grid of cells, in which grid[x][y] corresponds to
+     *            the square at position x,y.
+     * @param pool
+     *            The pool the board is connected on, or <code>null</code> to
+     *            connect it on the calling thread.
+     * @return A new board, wrapping a grid of connected cells.
+     */
+    public Board createBoard(Square[][] grid, @Nullable ForkJoinPool pool) {
+        assert grid != null;
 
-        Board board = new Board(grid);
+        if (pool == null) {
+            Board board = new Board(grid);
+            link(grid, 0, grid.length);
+            return board;
+        }
+        pool.invoke(new ColumnBands(0, grid.length, grid[0].length, (from, to) -> {
+            for (int x = from; x < to; x++) {
+                for (int y = 0; y < grid[x].length; y++) {
+                    grid[x][y].setPosition(x, y);
+                }
+            }
+            link(grid, from, to);
+        }));
+        return new Board(grid, false);
+    }
 
-        int width = board.getWidth();
-        int height = board.getHeight();
-        for (int x = 0; x < width; x++) {
+    private static void link(Square[][] grid, int fromX, int toX) {
+        int width = grid.length;
+        int height = grid[0].length;
+        for (int x = fromX; x < toX; x++) {
             for (int y = 0; y < height; y++) {
                 Square square = grid[x][y];
                 for (Direction dir : Direction.values()) {
@@ -53,12 +107,159 @@ public class BoardFactory {
                 }
             }
         }
+    }
+
+    /**
+     * Creates a grid of ground and wall squares, in parallel on the common
+     * pool if the grid has at least {@value #PARALLEL_THRESHOLD} cells. The
+     * squares are made by {@link #createGround()} and {@link #createWall()}.
+     *
+     * @param width
+     *            The number of columns of the grid.
+     * @param height
+     *            The number of rows of the grid.
+     * @param wall
+     *            Tells whether the cell <code>y * width + x</code> is a
+     *            wall. It may be called from several threads at once.
+     * @return A new grid, in which grid[x][y] is the square at position x,y.
+     */
+    public Square[][] createGrid(int width, int height, IntPredicate wall) {
+        return createGrid(width, height, wall, defaultPool(width, height));
+    }
+
+    /**
+     * Creates a grid of ground and wall squares, made by
+     * {@link #createGround()} and {@link #createWall()}, which are called
+     * from the threads of the pool if one is given.
+     *
+     * @param width
+     *            The number of columns of the grid.
+     * @param height
+     *            The number of rows of the grid.
+     * @param wall
+     *            Tells whether the cell <code>y * width + x</code> is a
+     *            wall. It may be called from several threads at once.
+     * @param pool
+     *            The pool the squares are created on, or <code>null</code>
+     *            to create them on the calling thread.
+     * @return A new grid, in which grid[x][y] is the square at position x,y.
+     */
+    public Square[][] createGrid(int width, int height, IntPredicate wall,
+                                 @Nullable ForkJoinPool pool) {
+        assert width > 0 && height > 0;
+        Square[][] grid = new Square[width][height];
+        ColumnRange create = (from, to) -> {
+            for (int x = from; x < to; x++) {
+                for (int y = 0; y < height; y++) {
+                    if (wall.test(y * width + x)) {
+                        grid[x][y] = createWall();
+                    } else {
+                        grid[x][y] = createGround();
+                    }
+                }
+            }
+        };
+        if (pool == null) {
+            create.apply(0, width);
+        } else {
+            pool.invoke(new ColumnBands(0, width, height, create));
+        }
+        return grid;
+    }
 
-        return board;
+    /**
+     * Creates a board of ground and wall squares that keeps its cells in
+     * compact form and only creates the squares that are asked for, for
+     * worlds too large to hold a square for every cell.
+     *
+     * @param width
+     *            The number of columns of the board.
+     * @param height
+     *            The number of rows of the board.
+     * @param wall
+     *            Tells whether the cell <code>y * width + x</code> is a
+     *            wall.
+     * @return A new chunked board.
+     */
+    public ChunkedBoard createChunkedBoard(int width, int height, IntPredicate wall) {
+        return new ChunkedBoard(width, height, wall,
+            sprites.getGroundSprite(), sprites.getWallSprite());
+    }
+
+    private static @Nullable ForkJoinPool defaultPool(int width, int height) {
+        if ((long) width * height < PARALLEL_THRESHOLD) {
+            return null;
+        }
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Work on a range of columns of a grid.
+     */
+    private interface ColumnRange {
+
+        /**
+         * Does the work for the given columns.
+         *
+         * @param fromX
+         *            The first column, inclusive.
+         * @param toX
+         *            The last column, exclusive.
+         */
+        void apply(int fromX, int toX);
+    }
+
+    /**
+     * Splits a range of columns into bands of at most
+     * {@value #BAND_SQUARES} squares, which are worked on in parallel.
+     */
+    private static final class ColumnBands extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first column, inclusive.
+         */
+        private final int fromX;
+
+        /**
+         * The last column, exclusive.
+         */
+        private final int toX;
+
+        /**
+         * The number of squares in a column.
+         */
+        private final int height;
+
+        /**
+         * The work for every band.
+         */
+        private final transient ColumnRange work;
+
+        ColumnBands(int fromX, int toX, int height, ColumnRange work) {
+            this.fromX = fromX;
+            this.toX = toX;
+            this.height = height;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (toX - fromX <= 1 || (long) (toX - fromX) * height <= BAND_SQUARES) {
+                work.apply(fromX, toX);
+                return;
+            }
+            int middle = (fromX + toX) >>> 1;
+            invokeAll(new ColumnBands(fromX, middle, height, work),
+                new ColumnBands(middle, toX, height, work));
+        }
     }
 
     /**
-     * Creates a new square that can be occupied by any unit.
+     * Creates a new square that can be occupied by any unit. Overriding
+     * methods must be safe to call from several threads at once, as grids
+     * may be created in parallel.
      *
      * @return A new square that can be occupied by any unit.
      */
@@ -67,7 +268,9 @@ public class BoardFactory {
     }
 
     /**
-     * Creates a new square that cannot be occupied by any unit.
+     * Creates a new square that cannot be occupied by any unit. Overriding
+     * methods must be safe to call from several threads at once, as grids
+     * may be created in parallel.
      *
      * @return A new square that cannot be occupied by any unit.
      */
@@ -0,0 +1,375 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A board for huge worlds, which keeps its cells in compact form and only
+ * creates {@link Square}s for the cells that are asked for.
+ *
+ * The board is divided into chunks of {@value #CHUNK_SIZE} by
+ * {@value #CHUNK_SIZE} cells. Each chunk stores whether its cells are walls
+ * in a bitmap, and creates the squares of a cell the first time it is
+ * requested through {@link #squareAt(int, int)} or a neighbouring square.
+ * Squares look up their neighbours through the board instead of linking to
+ * them, so requesting one square never forces its surroundings into
+ * existence.
+ *
+ * Calling {@link #evictIdle()} periodically turns chunks that were not
+ * asked for since the previous call back into compact form, unless one of
+ * their squares is occupied or {@link #retain(Square) retained}. All
+ * methods may be called from several threads at once.
+ */
+public class ChunkedBoard extends Board {
+
+    /**
+     * The number of columns and rows in a chunk.
+     */
+    public static final int CHUNK_SIZE = 32;
+
+    private static final int CHUNK_BITS = 5;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The number of chunks in a row of chunks.
+     */
+    private final int chunksX;
+
+    /**
+     * The chunks, row by row.
+     */
+    private final Chunk[] chunks;
+
+    /**
+     * The background of ground squares.
+     */
+    private final Sprite groundSprite;
+
+    /**
+     * The background of wall squares.
+     */
+    private final Sprite wallSprite;
+
+    /**
+     * Creates a new board.
+     *
+     * @param width
+     *            The number of columns of the board.
+     * @param height
+     *            The number of rows of the board.
+     * @param wall
+     *            Tells whether the cell <code>y * width + x</code> is a
+     *            wall. It is only called while the board is created.
+     * @param ground
+     *            The background of ground squares.
+     * @param wallSprite
+     *            The background of wall squares.
+     */
+    ChunkedBoard(int width, int height, IntPredicate wall, Sprite ground, Sprite wallSprite) {
+        assert width > 0 && height > 0;
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_BITS;
+        int chunksY = (height + CHUNK_MASK) >> CHUNK_BITS;
+        this.chunks = new Chunk[chunksX * chunksY];
+        this.groundSprite = ground;
+        this.wallSprite = wallSprite;
+        for (int chunkY = 0; chunkY < chunksY; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+                long[] walls = new long[CHUNK_CELLS / Long.SIZE];
+                int toX = Math.min(width, (chunkX + 1) << CHUNK_BITS);
+                int toY = Math.min(height, (chunkY + 1) << CHUNK_BITS);
+                for (int y = chunkY << CHUNK_BITS; y < toY; y++) {
+                    for (int x = chunkX << CHUNK_BITS; x < toX; x++) {
+                        if (wall.test(y * width + x)) {
+                            int index = cellIndex(x, y);
+                            walls[index >>> 6] |= 1L << index;
+                        }
+                    }
+                }
+                chunks[chunkY * chunksX + chunkX] = new Chunk(walls);
+            }
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Square squareAt(int x, int y) {
+        assert withinBorders(x, y);
+        Chunk chunk = chunkAt(x, y);
+        int index = cellIndex(x, y);
+        synchronized (chunk) {
+            chunk.touched = true;
+            @Nullable Square[] squares = chunk.squares;
+            if (squares == null) {
+                squares = new Square[CHUNK_CELLS];
+                chunk.squares = squares;
+            }
+            @Nullable Square square = squares[index];
+            if (square == null) {
+                boolean wall = (chunk.walls[index >>> 6] & (1L << index)) != 0;
+                square = new Cell(this, wall, wall ? wallSprite : groundSprite);
+                square.setPosition(x, y);
+                squares[index] = square;
+                chunk.materialised++;
+            }
+            return square;
+        }
+    }
+
+    /**
+     * Tells whether a cell is a wall without creating its square.
+     *
+     * @param x
+     *            The column of the cell.
+     * @param y
+     *            The row of the cell.
+     * @return <code>true</code> iff the cell is a wall.
+     */
+    public boolean isWall(int x, int y) {
+        assert withinBorders(x, y);
+        int index = cellIndex(x, y);
+        return (chunkAt(x, y).walls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public Sprite spriteAt(int x, int y) {
+        return isWall(x, y) ? wallSprite : groundSprite;
+    }
+
+    @Override
+    public List<Unit> occupantsAt(int x, int y) {
+        assert withinBorders(x, y);
+        Chunk chunk = chunkAt(x, y);
+        @Nullable Square square = null;
+        synchronized (chunk) {
+            @Nullable Square[] squares = chunk.squares;
+            if (squares != null) {
+                square = squares[cellIndex(x, y)];
+            }
+        }
+        return square == null ? Collections.emptyList() : square.getOccupants();
+    }
+
+    @Override
+    public List<Square> getMaterialisedSquares() {
+        List<Square> result = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            synchronized (chunk) {
+                @Nullable Square[] squares = chunk.squares;
+                if (squares != null) {
+                    for (Square square : squares) {
+                        if (square != null) {
+                            result.add(square);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void retain(Square square) {
+        assert square instanceof Cell && ((Cell) square).board == this;
+        Chunk chunk = chunkAt(square.getX(), square.getY());
+        synchronized (chunk) {
+            chunk.retained = true;
+        }
+    }
+
+    /**
+     * Turns the chunks that were not asked for since the previous call back
+     * into compact form, unless any of their squares is occupied or
+     * retained. Squares of evicted chunks must no longer be used; asking
+     * for the same cell again creates a new square.
+     *
+     * @return The number of chunks evicted.
+     */
+    public int evictIdle() {
+        int evicted = 0;
+        for (Chunk chunk : chunks) {
+            synchronized (chunk) {
+                @Nullable Square[] squares = chunk.squares;
+                if (squares == null || chunk.retained) {
+                    continue;
+                }
+                if (chunk.touched) {
+                    chunk.touched = false;
+                    continue;
+                }
+                if (!isOccupied(squares)) {
+                    chunk.squares = null;
+                    chunk.materialised = 0;
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private static boolean isOccupied(@Nullable Square[] squares) {
+        for (Square square : squares) {
+            if (square != null && square.isOccupied()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of chunks that currently have squares.
+     */
+    public int getMaterialisedChunks() {
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            synchronized (chunk) {
+                if (chunk.squares != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of squares that currently exist.
+     */
+    public long getMaterialisedSquareCount() {
+        long count = 0;
+        for (Chunk chunk : chunks) {
+            synchronized (chunk) {
+                count += chunk.materialised;
+            }
+        }
+        return count;
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        return chunks[(y >> CHUNK_BITS) * chunksX + (x >> CHUNK_BITS)];
+    }
+
+    private static int cellIndex(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+    }
+
+    /**
+     * A block of cells, in compact form and, once asked for, as squares.
+     * All fields but the walls are guarded by the chunk itself.
+     */
+    private static final class Chunk {
+
+        /**
+         * One bit per cell, set for walls.
+         */
+        private final long[] walls;
+
+        /**
+         * The squares of the cells that were asked for, or <code>null</code>
+         * if the chunk is in compact form.
+         */
+        private @Nullable Square @Nullable [] squares;
+
+        /**
+         * The number of squares created since the chunk was last evicted.
+         */
+        private int materialised;
+
+        /**
+         * Whether any cell was asked for since the previous eviction pass.
+         */
+        private boolean touched;
+
+        /**
+         * Whether any of the squares is retained.
+         */
+        private boolean retained;
+
+        Chunk(long[] walls) {
+            this.walls = walls;
+        }
+    }
+
+    /**
+     * A square of a chunked board, which finds its neighbours through the
+     * board.
+     */
+    private static final class Cell extends Square {
+
+        /**
+         * The board this square is on.
+         */
+        private final ChunkedBoard board;
+
+        /**
+         * Whether this square is a wall.
+         */
+        private final boolean wall;
+
+        /**
+         * The background for this square.
+         */
+        private final Sprite background;
+
+        Cell(ChunkedBoard board, boolean wall, Sprite background) {
+            super(false);
+            this.board = board;
+            this.wall = wall;
+            this.background = background;
+        }
+
+        @Override
+        public Square getSquareAt(Direction direction) {
+            int x = (board.width + getX() + direction.getDeltaX()) % board.width;
+            int y = (board.height + getY() + direction.getDeltaY()) % board.height;
+            return board.squareAt(x, y);
+        }
+
+        /**
+         * Does nothing: the board creates its own squares, so they are never
+         * linked by a {@link BoardFactory}, and they find their neighbours
+         * through the board.
+         */
+        @Override
+        public void link(Square neighbour, Direction direction) {
+            assert false : "Squares of a chunked board find their own neighbours.";
+        }
+
+        @Override
+        public boolean isAccessibleTo(Unit unit) {
+            return !wall;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return background;
+        }
+    }
+}
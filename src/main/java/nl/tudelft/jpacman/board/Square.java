@@ -1,43 +1,127 @@
 package nl.tudelft.jpacman.board;
 
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
 import com.google.common.collect.ImmutableList;
 
 import nl.tudelft.jpacman.sprite.Sprite;
 
 import org.checkerframework.checker.initialization.qual.UnknownInitialization;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A square on a {@link Board}, which can (or cannot, depending on the type) be
  * occupied by units.
  *
+ * Since nearly every square has at most one occupant and exactly four
+ * neighbours, a single occupant is kept in a field of its own, and only a
+ * second one makes the square allocate a list. The neighbours are kept in
+ * an array indexed by {@link Direction#ordinal()}.
+ *
  * @author Jeroen Roosen 
  */
 public abstract class Square {
 
     /**
-     * The units occupying this square, in order of appearance.
+     * The number of directions, and so of neighbours.
+     */
+    private static final int DIRECTIONS = Direction.values().length;
+
+    /**
+     * The neighbours of squares that find their neighbours themselves.
+     */
+    private static final Square[] UNLINKED = new Square[0];
+
+    /**
+     * The initial capacity of the occupant list of a square holding more
+     * than one unit: rarely more than a player, a ghost and a pellet or
+     * two meet on one square.
+     */
+    private static final int SHARED_OCCUPANTS = 4;
+
+    /**
+     * The only unit occupying this square, or <code>null</code> if there is
+     * none or there are several.
+     */
+    private @Nullable Unit occupant;
+
+    /**
+     * The units occupying this square, in order of appearance, when there
+     * are several, or <code>null</code> otherwise.
      */
-    private final List<Unit> occupants;
+    private @Nullable List<Unit> occupants;
 
     /**
-     * The collection of squares adjacent to this square.
+     * The squares adjacent to this square, indexed by the ordinal of the
+     * direction they are in.
      */
-    private final Map<Direction, Square> neighbours;
+    private final Square[] neighbours;
+
+    /**
+     * The column of this square on its board, or <code>-1</code> if it is not
+     * on a board.
+     */
+    private int x;
+
+    /**
+     * The row of this square on its board, or <code>-1</code> if it is not
+     * on a board.
+     */
+    private int y;
 
     /**
      * Creates a new, empty square.
      */
     protected Square() {
-        this.occupants = new ArrayList<>();
-        this.neighbours = new EnumMap<>(Direction.class);
+        this(true);
+    }
+
+    /**
+     * Creates a new, empty square.
+     *
+     * @param linked
+     *            <code>false</code> for squares that override
+     *            {@link #getSquareAt(Direction)} and
+     *            {@link #link(Square, Direction)}, and so have no need to
+     *            store their neighbours.
+     */
+    Square(boolean linked) {
+        this.neighbours = linked ? new Square[DIRECTIONS] : UNLINKED;
+        this.x = -1;
+        this.y = -1;
         assert invariant();
     }
 
+    /**
+     * @return The column of this square on its board, or <code>-1</code> if
+     *         it has not been placed on a board.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return The row of this square on its board, or <code>-1</code> if it
+     *         has not been placed on a board.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Records the position of this square on its board.
+     *
+     * @param column
+     *            The column of this square.
+     * @param row
+     *            The row of this square.
+     */
+    void setPosition(int column, int row) {
+        this.x = column;
+        this.y = row;
+    }
+
     /**
      * Returns the square adjacent to this square.
      *
@@ -46,7 +130,7 @@ public abstract class Square {
      * @return The adjacent square in the given direction.
      */
     public Square getSquareAt(Direction direction) {
-        return neighbours.get(direction);
+        return neighbours[direction.ordinal()];
     }
 
     /**
@@ -59,7 +143,7 @@ public abstract class Square {
      *            The direction the new neighbour is in, as seen from this cell.
      */
     public void link(Square neighbour, Direction direction) {
-        neighbours.put(direction, neighbour);
+        neighbours[direction.ordinal()] = neighbour;
         assert invariant();
     }
 
@@ -71,31 +155,66 @@ public abstract class Square {
      *         which they occupied this square (i.e. oldest first.)
      */
     public List<Unit> getOccupants() {
-        return ImmutableList.copyOf(occupants);
+        List<Unit> all = occupants;
+        if (all != null) {
+            return ImmutableList.copyOf(all);
+        }
+        Unit only = occupant;
+        if (only != null) {
+            return ImmutableList.of(only);
+        }
+        return ImmutableList.of();
+    }
+
+    /**
+     * @return <code>true</code> iff any unit occupies this square.
+     */
+    boolean isOccupied() {
+        return occupant != null || occupants != null;
     }
 
     /**
      * Adds a new occupant to this square.
      *
-     * @param occupant
+     * @param unit
      *            The unit to occupy this square.
      */
-    void put(Unit occupant) {
-        assert occupant != null;
-        assert !occupants.contains(occupant);
+    void put(Unit unit) {
+        assert unit != null;
+        assert !getOccupants().contains(unit);
 
-        occupants.add(occupant);
+        List<Unit> all = occupants;
+        Unit only = occupant;
+        if (all != null) {
+            all.add(unit);
+        } else if (only == null) {
+            occupant = unit;
+        } else {
+            all = new ArrayList<>(SHARED_OCCUPANTS);
+            all.add(only);
+            all.add(unit);
+            occupants = all;
+            occupant = null;
+        }
     }
 
     /**
      * Removes the unit from this square if it was present.
      *
-     * @param occupant
+     * @param unit
      *            The unit to be removed from this square.
      */
-    void remove(Unit occupant) {
-        assert occupant != null;
-        occupants.remove(occupant);
+    void remove(Unit unit) {
+        assert unit != null;
+        List<Unit> all = occupants;
+        if (all == null) {
+            if (occupant == unit) {
+                occupant = null;
+            }
+        } else if (all.remove(unit) && all.size() == 1) {
+            occupant = all.get(0);
+            occupants = null;
+        }
     }
 
     /**
@@ -106,8 +225,13 @@ public abstract class Square {
      *         square listed as the square they are currently occupying.
      */
     protected final boolean invariant(@UnknownInitialization(Square.class) Square this) {
-        for (Unit occupant : occupants) {
-            if (occupant.hasSquare() && occupant.getSquare() != this) {
+        List<Unit> all = occupants;
+        if (all == null) {
+            Unit only = occupant;
+            return only == null || !only.hasSquare() || only.getSquare() == this;
+        }
+        for (Unit unit : all) {
+            if (unit.hasSquare() && unit.getSquare() != this) {
                 return false;
             }
         }
@@ -1,6 +1,7 @@
 package nl.tudelft.jpacman.game;
 
 import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelPipeline;
 import nl.tudelft.jpacman.level.PlayerFactory;
 
 /**
@@ -38,6 +39,19 @@ public class GameFactory {
         return new SinglePlayerGame(playerFactory.createPacMan(playerId), level);
     }
 
+    /**
+     * Creates a game for a sequence of levels with one player.
+     *
+     * @param pipeline
+     *            The pipeline preparing the levels.
+     * @param playerId
+     *            The player's name
+     * @return A new game, at the first level.
+     */
+    public MultiLevelGame createMultiLevelGame(LevelPipeline pipeline, String playerId) {
+        return new MultiLevelGame(playerFactory.createPacMan(playerId), pipeline);
+    }
+
     /**
      * Returns the player factory associated with this game factory.
      *
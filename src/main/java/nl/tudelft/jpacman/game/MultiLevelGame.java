@@ -0,0 +1,106 @@
+package nl.tudelft.jpacman.game;
+
+import java.util.List;
+
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelPipeline;
+import nl.tudelft.jpacman.level.Player;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A game with one player and a sequence of levels. When a level is won the
+ * next one, prepared in the background while the previous one was played,
+ * is started right away; the player keeps their score. Only the last level
+ * reports the result of the game when it is won.
+ */
+public class MultiLevelGame extends Game {
+
+    /**
+     * The player of this game.
+     */
+    private final Player player;
+
+    /**
+     * The pipeline preparing the levels.
+     */
+    private final LevelPipeline pipeline;
+
+    /**
+     * The level currently being played.
+     */
+    private volatile Level level;
+
+    /**
+     * The index of the level currently being played.
+     */
+    private volatile int levelIndex;
+
+    /**
+     * Create a new game for the provided levels and player, starting at the
+     * first level.
+     *
+     * @param player
+     *            The player.
+     * @param pipeline
+     *            The pipeline preparing the levels.
+     */
+    protected MultiLevelGame(Player player, LevelPipeline pipeline) {
+        assert player != null;
+        assert pipeline != null;
+
+        this.player = player;
+        this.pipeline = pipeline;
+        Level first = pipeline.take(0);
+        first.setEndsGame(pipeline.size() == 1);
+        first.registerPlayer(player);
+        this.level = first;
+        this.levelIndex = 0;
+    }
+
+    @Override
+    public List<Player> getPlayers() {
+        return ImmutableList.of(player);
+    }
+
+    @Override
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return The index of the level currently being played, from 0.
+     */
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    /**
+     * @return The pipeline preparing the levels.
+     */
+    public LevelPipeline getPipeline() {
+        return pipeline;
+    }
+
+    @Override
+    public void levelWon() {
+        super.levelWon();
+        int next = levelIndex + 1;
+        if (next >= pipeline.size() || !player.isAlive()) {
+            pipeline.close();
+            return;
+        }
+        Level nextLevel = pipeline.take(next);
+        nextLevel.setEndsGame(next == pipeline.size() - 1);
+        nextLevel.registerPlayer(player);
+        level = nextLevel;
+        levelIndex = next;
+        start();
+    }
+
+    @Override
+    public void levelLost() {
+        super.levelLost();
+        pipeline.close();
+    }
+}
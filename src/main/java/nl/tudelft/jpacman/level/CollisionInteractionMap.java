@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.nullness.qual.KeyFor;
@@ -136,6 +137,30 @@ public class CollisionInteractionMap implements CollisionMap {
         collisionHandler.handleCollision(collider, collidee);
     }
 
+    /**
+     * Handles a unit moving onto a pellet of the pellet layer as a collision
+     * with a {@link Pellet} of the same value, if a handler for that
+     * collision is listed. The pellet is removed from the layer before the
+     * handler is called.
+     *
+     * @param collider
+     *            The unit that moved onto the square.
+     * @param square
+     *            The square the unit moved onto.
+     * @param pellets
+     *            The pellet layer of the level.
+     */
+    @Override
+    public void collide(Unit collider, Square square, PelletLayer pellets) {
+        Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, collider.getClass());
+        if (colliderKey == null
+            || getMostSpecificClass(handlers.get(colliderKey), Pellet.class) == null) {
+            return;
+        }
+        int value = pellets.eat(square.getX(), square.getY());
+        collide(collider, new Pellet(value, pellets.getSprite()));
+    }
+
     /**
      * Figures out the most specific class that is listed in the map. I.e. if A
      * extends B and B is listed while requesting A, then B will be returned.
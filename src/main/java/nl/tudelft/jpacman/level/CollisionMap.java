@@ -1,5 +1,6 @@
 package nl.tudelft.jpacman.level;
 
+import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 
 /**
@@ -27,4 +28,20 @@ public interface CollisionMap {
      */
     <C1 extends Unit, C2 extends Unit> void collide(C1 collider, C2 collidee);
 
+    /**
+     * Handles a unit moving onto a square that has a regular pellet in the
+     * pellet layer. By default nothing happens; collision maps that let
+     * units eat pellets override this.
+     *
+     * @param collider
+     *            The unit that moved onto the square.
+     * @param square
+     *            The square the unit moved onto.
+     * @param pellets
+     *            The pellet layer of the level.
+     */
+    default void collide(Unit collider, Square square, PelletLayer pellets) {
+        // no interaction unless a collision map defines one.
+    }
+
 }
@@ -0,0 +1,88 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * The binary layout of a compiled map, see {@link MapCompiler}.
+ *
+ * <p>
+ * A compiled map starts with a header of {@value #HEADER_SIZE} bytes: the
+ * magic number, the format version, flags (reserved, always zero), the width
+ * and height of the map, and the number of player start squares and ghosts.
+ * It is followed by the cell types, packed two per byte with the even cells
+ * in the low nibble; the pellet bitmap, as big endian longs with bit
+ * <code>i % 64</code> of long <code>i / 64</code> set iff cell <code>i</code>
+ * holds a pellet; the cells of the player start squares; and the cells of
+ * the ghosts. The file ends with the CRC32 of everything before it. All
+ * values are big endian.
+ * </p>
+ *
+ * <p>
+ * Cells are indexed as <code>y * width + x</code>. Start squares and ghosts
+ * are listed in the order in which {@link MapParser} finds them, column by
+ * column, so a compiled map yields the same level as its text.
+ * </p>
+ */
+final class CompiledMapFormat {
+
+    /**
+     * The magic number at the start of every compiled map, "JPMC".
+     */
+    static final int MAGIC = 0x4A504D43;
+
+    /**
+     * The version of the format.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 4 + 2 + 2 + 4 + 4 + 4 + 4;
+
+    /**
+     * The size of the checksum at the end in bytes.
+     */
+    static final int CHECKSUM_SIZE = 4;
+
+    /**
+     * The type of a square units can walk on.
+     */
+    static final int GROUND = 0;
+
+    /**
+     * The type of a wall.
+     */
+    static final int WALL = 1;
+
+    private CompiledMapFormat() {
+    }
+
+    /**
+     * Computes the size of a compiled map.
+     *
+     * @param cells
+     *            The number of cells of the map.
+     * @param players
+     *            The number of player start squares.
+     * @param ghosts
+     *            The number of ghosts.
+     * @return The size of the compiled map in bytes.
+     */
+    static long size(int cells, int players, int ghosts) {
+        return HEADER_SIZE + cellBytes(cells) + pelletBytes(cells)
+            + 4L * players + 4L * ghosts + CHECKSUM_SIZE;
+    }
+
+    /**
+     * @return The number of bytes of the packed cell types.
+     */
+    static long cellBytes(int cells) {
+        return (cells + 1L) / 2;
+    }
+
+    /**
+     * @return The number of bytes of the pellet bitmap.
+     */
+    static long pelletBytes(int cells) {
+        return (cells + 63L) / 64 * 8;
+    }
+}
@@ -0,0 +1,181 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.zip.CRC32;
+
+import nl.tudelft.jpacman.GameModeSingleton;
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.ChunkedBoard;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.NPC;
+
+/**
+ * Creates new {@link Level}s from maps compiled by {@link MapCompiler}. The
+ * compiled map is memory-mapped and its checksum verified, after which the
+ * squares, pellets and units are created straight from the packed cells
+ * and lists, without parsing any text. Maps of at least
+ * {@value #CHUNKED_THRESHOLD} cells get a {@link ChunkedBoard}, which only
+ * creates the squares that are used.
+ */
+public class CompiledMapLoader {
+
+    /**
+     * The minimum number of cells for which a chunked board is used.
+     */
+    public static final int CHUNKED_THRESHOLD = 1 << 20;
+
+    /**
+     * The factory that creates the levels.
+     */
+    private final LevelFactory levelCreator;
+
+    /**
+     * The factory that creates the squares and board.
+     */
+    private final BoardFactory boardCreator;
+
+    /**
+     * Creates a new loader.
+     *
+     * @param levelFactory
+     *            The factory providing the NPC objects and the level.
+     * @param boardFactory
+     *            The factory providing the Square objects and the board.
+     */
+    public CompiledMapLoader(LevelFactory levelFactory, BoardFactory boardFactory) {
+        this.levelCreator = levelFactory;
+        this.boardCreator = boardFactory;
+    }
+
+    /**
+     * Loads a compiled map into a new level.
+     *
+     * @param file
+     *            The compiled map.
+     * @return The level as represented by the compiled map.
+     * @throws IOException
+     *             When the file could not be read.
+     * @throws PacmanConfigurationException
+     *             If the file is not a compiled map of a supported version,
+     *             or it is corrupt.
+     */
+    public Level load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw corrupt(file, "too large");
+            }
+            return load(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private Level load(Path file, ByteBuffer buffer) {
+        int size = buffer.limit();
+        if (size < CompiledMapFormat.HEADER_SIZE + CompiledMapFormat.CHECKSUM_SIZE) {
+            throw corrupt(file, "truncated");
+        }
+        if (buffer.getInt(0) != CompiledMapFormat.MAGIC) {
+            throw corrupt(file, "not a compiled map");
+        }
+        short version = buffer.getShort(4);
+        if (version != CompiledMapFormat.VERSION) {
+            throw corrupt(file, "unsupported version " + version);
+        }
+        ByteBuffer content = buffer.duplicate();
+        content.limit(size - CompiledMapFormat.CHECKSUM_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        if ((int) crc.getValue() != buffer.getInt(size - CompiledMapFormat.CHECKSUM_SIZE)) {
+            throw corrupt(file, "checksum mismatch");
+        }
+        return build(file.toString(), buffer);
+    }
+
+    /**
+     * Builds a level from a compiled map that is known to be intact, e.g.
+     * one compiled in memory.
+     *
+     * @param name
+     *            The name of the map, for error messages.
+     * @param compiled
+     *            The compiled map, which is read from a duplicate so it can
+     *            be shared.
+     * @return A new level as represented by the compiled map.
+     */
+    Level build(String name, ByteBuffer compiled) {
+        ByteBuffer buffer = compiled.duplicate();
+        int size = buffer.limit();
+        buffer.position(8);
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int players = buffer.getInt();
+        int ghosts = buffer.getInt();
+        if (width <= 0 || height <= 0 || players < 0 || ghosts < 0
+            || (long) width * height > Integer.MAX_VALUE
+            || CompiledMapFormat.size(width * height, players, ghosts) != size) {
+            throw corrupt(name, "inconsistent header");
+        }
+        int cells = width * height;
+
+        IntPredicate wall = cell -> ((buffer.get(CompiledMapFormat.HEADER_SIZE + (cell >>> 1))
+            >>> ((cell & 1) * 4)) & 0xF) == CompiledMapFormat.WALL;
+        Board board;
+        if (cells >= CHUNKED_THRESHOLD) {
+            board = boardCreator.createChunkedBoard(width, height, wall);
+        } else {
+            board = boardCreator.createBoard(boardCreator.createGrid(width, height, wall));
+        }
+
+        PelletLayer pellets = levelCreator.createPelletLayer(width, height);
+        int value = levelCreator.getPelletValue();
+        buffer.position(CompiledMapFormat.HEADER_SIZE + (int) CompiledMapFormat.cellBytes(cells));
+        for (int base = 0; base < cells; base += 64) {
+            long word = buffer.getLong();
+            while (word != 0) {
+                int cell = base + Long.numberOfTrailingZeros(word);
+                pellets.add(cell % width, cell / width, value);
+                word &= word - 1;
+            }
+        }
+
+        List<Square> startPositions = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            startPositions.add(square(name, board, buffer.getInt()));
+        }
+        List<NPC> npcs = new ArrayList<>();
+        boolean disabled = GameModeSingleton.getInstance().getDisableNPCs();
+        for (int i = 0; i < ghosts; i++) {
+            Square square = square(name, board, buffer.getInt());
+            if (!disabled) {
+                NPC ghost = levelCreator.createGhost();
+                npcs.add(ghost);
+                ghost.occupy(square);
+            }
+        }
+        return levelCreator.createLevel(board, npcs, startPositions, pellets);
+    }
+
+    private static Square square(String name, Board board, int cell) {
+        int width = board.getWidth();
+        if (cell < 0 || cell >= width * board.getHeight()) {
+            throw corrupt(name, "cell out of range");
+        }
+        return board.squareAt(cell % width, cell / width);
+    }
+
+    private static PacmanConfigurationException corrupt(Path file, String reason) {
+        return corrupt(file.toString(), reason);
+    }
+
+    private static PacmanConfigurationException corrupt(String name, String reason) {
+        return new PacmanConfigurationException("Invalid compiled map " + name + ": " + reason);
+    }
+}
@@ -1,5 +1,6 @@
 package nl.tudelft.jpacman.level;
 
+import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.npc.ghost.Ghost;
 
@@ -23,6 +24,13 @@ public class DefaultPlayerInteractionMap implements CollisionMap {
         collisions.collide(mover, movedInto);
     }
 
+    @Override
+    public void collide(Unit mover, Square square, PelletLayer pellets) {
+        if (mover instanceof Player) {
+            ((Player) mover).addPoints(pellets.eat(square.getX(), square.getY()));
+        }
+    }
+
     /**
      * Creates the default collisions Player-Ghost and Player-Pellet.
      *
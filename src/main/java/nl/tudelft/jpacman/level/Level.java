@@ -4,6 +4,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -21,8 +22,13 @@ import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.net.HttpRequestUtil;
 import nl.tudelft.jpacman.net.HttpResponse;
 import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.profiling.CollisionEvent;
+import nl.tudelft.jpacman.profiling.MoveEvent;
+import nl.tudelft.jpacman.score.HighScoreStore;
+import nl.tudelft.jpacman.sprite.EmptySprite;
 import nl.tudelft.jpacman.ui.PacManUI;
 
+import com.google.common.collect.ImmutableList;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 
@@ -91,7 +97,72 @@ public class Level {
     private final Set<LevelObserver> observers;
 
     /**
-     * Creates a new level for the board.
+     * The store in which the result of this level is recorded, if any.
+     */
+    private @Nullable HighScoreStore highScores;
+
+    /**
+     * The objects observing every move, start and stop of this level, which
+     * can be iterated while observers are added or removed.
+     */
+    private final List<EventObserver> eventObservers;
+
+    /**
+     * The seed of {@link #random}.
+     */
+    private long seed;
+
+    /**
+     * The source of the random crashes in buggy mode.
+     */
+    private final Random random;
+
+    /**
+     * <code>true</code> iff this level is driven without a user interface,
+     * see {@link #setHeadless(boolean)}.
+     */
+    private boolean headless;
+
+    /**
+     * <code>false</code> if winning this level leads on to another level,
+     * see {@link #setEndsGame(boolean)}.
+     */
+    private boolean endsGame;
+
+    /**
+     * The regular pellets of this level.
+     */
+    private final PelletLayer pelletLayer;
+
+    /**
+     * The pellet units, such as special items, that were on the board when
+     * this level was created.
+     */
+    private final Pellet[] pellets;
+
+    /**
+     * The square every pellet was created on.
+     */
+    private final Square[] pelletSquares;
+
+    /**
+     * The index of every pellet in {@link #pellets}.
+     */
+    private final Map<Pellet, Integer> pelletIndex;
+
+    /**
+     * Which of the {@link #pellets} are still on the board.
+     */
+    private final SharedBitmap pelletState;
+
+    /**
+     * The cells, indexed <code>y * width + x</code>, whose contents changed
+     * since they were last drained.
+     */
+    private final BitSet changedCells;
+
+    /**
+     * Creates a new level for the board without regular pellets.
      *
      * @param board
      *            The board for the level.
@@ -104,13 +175,36 @@ public class Level {
      */
     public Level(Board board, List<NPC> ghosts, List<Square> startPositions,
                  CollisionMap collisionMap) {
+        this(board, ghosts, startPositions, collisionMap,
+            new PelletLayer(board.getWidth(), board.getHeight(), new EmptySprite()));
+    }
+
+    /**
+     * Creates a new level for the board.
+     *
+     * @param board
+     *            The board for the level.
+     * @param ghosts
+     *            The ghosts on the board.
+     * @param startPositions
+     *            The squares on which players start on this board.
+     * @param collisionMap
+     *            The collection of collisions that should be handled.
+     * @param pelletLayer
+     *            The regular pellets on the board.
+     */
+    public Level(Board board, List<NPC> ghosts, List<Square> startPositions,
+                 CollisionMap collisionMap, PelletLayer pelletLayer) {
         assert board != null;
         assert ghosts != null;
         assert startPositions != null;
+        assert pelletLayer.getWidth() == board.getWidth()
+            && pelletLayer.getHeight() == board.getHeight();
 
         this.board = board;
+        this.pelletLayer = pelletLayer;
         this.inProgress = false;
-        this.npcs = new HashMap<>();
+        this.npcs = new LinkedHashMap<>();
         for (NPC ghost : ghosts) {
             npcs.put(ghost, null);
         }
@@ -119,6 +213,34 @@ public class Level {
         this.players = new ArrayList<>();
         this.collisions = collisionMap;
         this.observers = new HashSet<>();
+        this.eventObservers = new CopyOnWriteArrayList<>();
+        this.endsGame = true;
+        this.seed = System.nanoTime();
+        this.random = new Random(seed);
+        this.changedCells = new BitSet(board.getWidth() * board.getHeight());
+
+        List<Pellet> initialPellets = new ArrayList<>();
+        List<Square> initialSquares = new ArrayList<>();
+        for (Square square : board.getMaterialisedSquares()) {
+            for (Unit unit : square.getOccupants()) {
+                if (unit instanceof Pellet) {
+                    initialPellets.add((Pellet) unit);
+                    initialSquares.add(square);
+                    board.retain(square);
+                }
+            }
+        }
+        for (Square square : startPositions) {
+            board.retain(square);
+        }
+        this.pellets = initialPellets.toArray(new Pellet[0]);
+        this.pelletSquares = initialSquares.toArray(new Square[0]);
+        this.pelletIndex = new IdentityHashMap<>();
+        this.pelletState = new SharedBitmap(pellets.length);
+        for (int i = 0; i < pellets.length; i++) {
+            pelletIndex.put(pellets[i], i);
+            pelletState.set(i, true);
+        }
     }
 
     /**
@@ -141,6 +263,83 @@ public class Level {
         observers.remove(observer);
     }
 
+    /**
+     * Adds an observer that will be notified of every move, start and stop
+     * of this level.
+     *
+     * @param observer
+     *            The observer that will be notified.
+     */
+    public void addEventObserver(EventObserver observer) {
+        eventObservers.add(observer);
+    }
+
+    /**
+     * Removes an event observer if it was listed.
+     *
+     * @param observer
+     *            The observer to be removed.
+     */
+    public void removeEventObserver(EventObserver observer) {
+        eventObservers.remove(observer);
+    }
+
+    /**
+     * @return The seed of the random number generator of this level.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Reseeds the random number generator of this level.
+     *
+     * @param newSeed
+     *            The new seed.
+     */
+    public void setSeed(long newSeed) {
+        this.seed = newSeed;
+        random.setSeed(newSeed);
+    }
+
+    /**
+     * Marks this level as headless. A headless level does not schedule its
+     * NPCs when started and does not report its result when it ends; it is
+     * driven entirely through {@link #move(Unit, Direction)}, e.g. when a
+     * recorded game is replayed.
+     *
+     * @param isHeadless
+     *            <code>true</code> to drive this level without a user
+     *            interface.
+     */
+    public void setHeadless(boolean isHeadless) {
+        this.headless = isHeadless;
+    }
+
+    /**
+     * Sets whether winning this level ends the game. A level that leads on
+     * to another one does not report its result when it is won, so the
+     * next level can start right away; losing it still ends the game.
+     *
+     * @param last
+     *            <code>false</code> if another level follows this one.
+     */
+    public void setEndsGame(boolean last) {
+        this.endsGame = last;
+    }
+
+    /**
+     * Sets the store in which the final score is recorded when this level
+     * ends.
+     *
+     * @param store
+     *            The high-score store, or <code>null</code> to not record
+     *            scores.
+     */
+    public void setHighScoreStore(@Nullable HighScoreStore store) {
+        this.highScores = store;
+    }
+
     /**
      * Registers a player on this level, assigning him to a starting position. A
      * player can only be registered once, registering a player again will have
@@ -159,6 +358,7 @@ public class Level {
         players.add(player);
         Square square = startSquares.get(startSquareIndex);
         player.occupy(square);
+        markChanged(square);
         startSquareIndex++;
         startSquareIndex %= startSquares.size();
     }
@@ -172,6 +372,36 @@ public class Level {
         return board;
     }
 
+    /**
+     * @return The regular pellets of this level.
+     */
+    public PelletLayer getPellets() {
+        return pelletLayer;
+    }
+
+    /**
+     * @return The squares players start on, in the order in which they are
+     *         assigned.
+     */
+    List<Square> getStartSquares() {
+        return Collections.unmodifiableList(startSquares);
+    }
+
+    /**
+     * @return The players on this level, in order of registration.
+     */
+    public List<Player> getPlayers() {
+        return ImmutableList.copyOf(players);
+    }
+
+    /**
+     * @return The NPCs on this level, in the order in which they were placed
+     *         on the board.
+     */
+    public List<NPC> getNpcs() {
+        return ImmutableList.copyOf(npcs.keySet());
+    }
+
     /**
      * Moves the unit into the given direction if possible and handles all
      * collisions.
@@ -197,8 +427,7 @@ public class Level {
             return;
         }
 
-        Random ran = new Random();
-        if(ran.nextInt(10)==0 && GameModeSingleton.getInstance().getBuggyMode()){
+        if(!headless && random.nextInt(10)==0 && GameModeSingleton.getInstance().getBuggyMode()){
             int crashing = 0;
             try {
                 crashing = direction.getDeltaX() / (direction.getDeltaY() -1);
@@ -218,11 +447,21 @@ public class Level {
                     playerSession.reportCrash(errorName, detailMessage, sw.toString());
                 }
                 stop();
+                for (EventObserver observer : eventObservers) {
+                    observer.moveCrashed(unit, direction);
+                }
                 reportGameEnd("crash occured");
+                return;
             }
         }
 
+        MoveEvent moveEvent = new MoveEvent();
+        moveEvent.begin();
+
         synchronized (moveLock) {
+            for (EventObserver observer : eventObservers) {
+                observer.unitMoved(unit, direction);
+            }
             unit.setDirection(direction);
             Square location = unit.getSquare();
             Square destination = location.getSquareAt(direction);
@@ -232,8 +471,14 @@ public class Level {
                 unit.occupy(destination);
 
                 for (Unit occupant : occupants) {
-                    collisions.collide(unit, occupant);
+                    collide(unit, occupant);
                 }
+                trackPellets(occupants);
+                eatPellets(unit, destination);
+                markChanged(location);
+                markChanged(destination);
+                moveEvent.moved = true;
+                moveEvent.collisions = occupants.size();
             }
             updateObservers();
             if(moveAction != null) {
@@ -242,6 +487,190 @@ public class Level {
                           .leaveAction();
             }
         }
+
+        moveEvent.end();
+        if (moveEvent.shouldCommit()) {
+            moveEvent.unit = unit.getID();
+            moveEvent.unitType = unit.getClass().getSimpleName();
+            moveEvent.direction = direction.name();
+            moveEvent.commit();
+        }
+    }
+
+    /**
+     * Records that the contents of a square changed.
+     *
+     * @param square
+     *            The square that changed.
+     */
+    private void markChanged(Square square) {
+        if (square.getX() < 0) {
+            return;
+        }
+        synchronized (changedCells) {
+            changedCells.set(square.getY() * board.getWidth() + square.getX());
+        }
+    }
+
+    /**
+     * Returns the cells whose contents changed since the previous call,
+     * because a unit entered or left them or a pellet on them was eaten, and
+     * starts collecting changes anew.
+     *
+     * @return The changed cells, indexed <code>y * width + x</code>.
+     */
+    public BitSet drainChangedCells() {
+        synchronized (changedCells) {
+            BitSet changed = (BitSet) changedCells.clone();
+            changedCells.clear();
+            return changed;
+        }
+    }
+
+    /**
+     * Records which of the given units were pellets that have now been
+     * removed from the board.
+     *
+     * @param units
+     *            The units that were collided with.
+     */
+    private void trackPellets(List<Unit> units) {
+        for (Unit unit : units) {
+            if (unit instanceof Pellet && !unit.hasSquare()) {
+                Integer index = pelletIndex.get(unit);
+                if (index != null) {
+                    pelletState.set(index, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets the collision map handle a unit entering a cell of the pellet
+     * layer that has a pellet on it.
+     *
+     * @param unit
+     *            The unit that moved.
+     * @param destination
+     *            The square it moved onto.
+     */
+    private void eatPellets(Unit unit, Square destination) {
+        int x = destination.getX();
+        int y = destination.getY();
+        if (x < 0 || !pelletLayer.has(x, y)) {
+            return;
+        }
+        collisions.collide(unit, destination, pelletLayer);
+        if (!pelletLayer.has(x, y) && OpenKitSingleton.getInstance().isValid()) {
+            OpenKitSingleton.getInstance().getPlayerSession()
+                .enterAction("playerHasEatenPelletAction")
+                .reportEvent("player has eaten pellet")
+                .leaveAction();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the current state of this level. Taking successive
+     * snapshots only costs as much as what changed in between.
+     *
+     * @return A snapshot of the positions and directions of all units, the
+     *         scores and lives of the players and the remaining pellets.
+     */
+    public LevelSnapshot snapshot() {
+        synchronized (moveLock) {
+            List<Unit> units = units();
+            int[] positions = new int[units.size()];
+            byte[] directions = new byte[units.size()];
+            for (int i = 0; i < units.size(); i++) {
+                Unit unit = units.get(i);
+                positions[i] = -1;
+                if (unit.hasSquare()) {
+                    Square square = unit.getSquare();
+                    positions[i] = square.getY() * board.getWidth() + square.getX();
+                }
+                directions[i] = (byte) unit.getDirection().ordinal();
+            }
+            int[] scores = new int[players.size()];
+            boolean[] alive = new boolean[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                scores[i] = players.get(i).getScore();
+                alive[i] = players.get(i).isAlive();
+            }
+            return new LevelSnapshot(this, positions, directions, scores, alive,
+                pelletState.freeze(), pelletLayer.freeze(), remainingPellets());
+        }
+    }
+
+    /**
+     * Puts this level back into the state captured by a snapshot. Only the
+     * pellets that differ from the current state are touched.
+     *
+     * @param snapshot
+     *            A snapshot taken from this level.
+     */
+    public void restore(LevelSnapshot snapshot) {
+        assert snapshot.getLevel() == this;
+        synchronized (moveLock) {
+            List<Unit> units = units();
+            for (int i = 0; i < units.size(); i++) {
+                Unit unit = units.get(i);
+                int position = snapshot.getPosition(i);
+                if (position < 0) {
+                    unit.leaveSquare();
+                } else {
+                    Square target = board.squareAt(position % board.getWidth(),
+                        position / board.getWidth());
+                    if (!unit.hasSquare() || unit.getSquare() != target) {
+                        unit.occupy(target);
+                    }
+                }
+                unit.setDirection(snapshot.getDirection(i));
+            }
+            for (int i = 0; i < players.size(); i++) {
+                players.get(i).restore(snapshot.getScore(i), snapshot.isAlive(i));
+            }
+            pelletState.restore(snapshot.getPellets(), index -> {
+                if (pellets[index].hasSquare()) {
+                    pellets[index].leaveSquare();
+                } else {
+                    pellets[index].occupy(pelletSquares[index]);
+                }
+            });
+            pelletLayer.restore(snapshot.getLayerPellets());
+            synchronized (changedCells) {
+                changedCells.set(0, board.getWidth() * board.getHeight());
+            }
+        }
+    }
+
+    /**
+     * @return The players followed by the NPCs of this level.
+     */
+    private List<Unit> units() {
+        List<Unit> units = new ArrayList<>(players);
+        units.addAll(npcs.keySet());
+        return units;
+    }
+
+    /**
+     * Hands a collision to the collision map, recording it for the flight
+     * recorder if collision events are enabled.
+     *
+     * @param collider
+     *            The unit that moved onto the square.
+     * @param collidee
+     *            The unit that was already on the square.
+     */
+    private void collide(Unit collider, Unit collidee) {
+        CollisionEvent collisionEvent = new CollisionEvent();
+        collisionEvent.begin();
+        collisions.collide(collider, collidee);
+        collisionEvent.end();
+        if (collisionEvent.shouldCommit()) {
+            collisionEvent.collider = collider.getClass().getSimpleName();
+            collisionEvent.collidee = collidee.getClass().getSimpleName();
+            collisionEvent.commit();
+        }
     }
 
     /**
@@ -259,8 +688,13 @@ public class Level {
                 Session playerSession = OpenKitSingleton.getInstance().getPlayerSession();
                 startGameAction = playerSession.enterAction("startGameAction").reportEvent("start game");
             }
-            startNPCs();
+            if (!headless) {
+                startNPCs();
+            }
             inProgress = true;
+            for (EventObserver observer : eventObservers) {
+                observer.levelStarted();
+            }
             updateObservers();
 
             if(startGameAction != null){
@@ -281,6 +715,9 @@ public class Level {
             }
             stopNPCs();
             inProgress = false;
+            for (EventObserver observer : eventObservers) {
+                observer.levelStopped();
+            }
         }
     }
 
@@ -304,8 +741,9 @@ public class Level {
     private void stopNPCs() {
         for (Entry<NPC, @Nullable ScheduledExecutorService> entry : npcs.entrySet()) {
             ScheduledExecutorService schedule = entry.getValue();
-            assert schedule != null;
-            schedule.shutdownNow();
+            if (schedule != null) {
+                schedule.shutdownNow();
+            }
         }
     }
 
@@ -324,6 +762,10 @@ public class Level {
      * @param type message with the event when the game ended
      */
     void reportGameEnd(String type) {
+        if (headless) {
+            return;
+        }
+
         RootAction gameEndAction = null;
 
         if (OpenKitSingleton.getInstance().isValid()) {
@@ -377,7 +819,14 @@ public class Level {
             OpenKitSingleton.getInstance().clearSessions();
         }
 
-        PacManUI.displayScoreDialog(currentScore, currentScore);
+        int highscore = currentScore;
+        HighScoreStore store = highScores;
+        if (store != null) {
+            store.submit(playerID, currentScore);
+            highscore = store.highestScore();
+        }
+
+        PacManUI.displayScoreDialog(currentScore, highscore);
     }
 
 
@@ -396,7 +845,9 @@ public class Level {
             for (LevelObserver observer : observers) {
                 observer.levelWon();
 
-                reportGameEnd("level won");
+                if (endsGame) {
+                    reportGameEnd("level won");
+                }
             }
         }
     }
@@ -418,24 +869,15 @@ public class Level {
     }
 
     /**
-     * Counts the pellets remaining on the board.
+     * Counts the pellets remaining on the board: the regular pellets in the
+     * pellet layer and the pellet units this level was created with.
      *
      * @return The amount of pellets remaining on the board.
      */
     public int remainingPellets() {
-        Board board = getBoard();
-        int pellets = 0;
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                for (Unit unit : board.squareAt(x, y).getOccupants()) {
-                    if (unit instanceof Pellet) {
-                        pellets++;
-                    }
-                }
-            }
-        }
-        assert pellets >= 0;
-        return pellets;
+        int remaining = pelletLayer.remaining() + pelletState.cardinality();
+        assert remaining >= 0;
+        return remaining;
     }
 
     /**
@@ -493,6 +935,45 @@ public class Level {
         }
     }
 
+    /**
+     * An observer that will be notified of everything that happens on a
+     * level, in the order in which it happens. Moves are reported while the
+     * move lock is held, before the move is executed.
+     */
+    public interface EventObserver {
+
+        /**
+         * A unit is about to move.
+         *
+         * @param unit
+         *            The unit that moves.
+         * @param direction
+         *            The direction the unit attempts to move in.
+         */
+        void unitMoved(Unit unit, Direction direction);
+
+        /**
+         * A move triggered the simulated crash of the buggy mode, which
+         * stopped the level instead of moving the unit.
+         *
+         * @param unit
+         *            The unit that attempted to move.
+         * @param direction
+         *            The direction the unit attempted to move in.
+         */
+        void moveCrashed(Unit unit, Direction direction);
+
+        /**
+         * The level has been started or resumed.
+         */
+        void levelStarted();
+
+        /**
+         * The level has been stopped or paused.
+         */
+        void levelStopped();
+    }
+
     /**
      * An observer that will be notified when the level is won or lost.
      *
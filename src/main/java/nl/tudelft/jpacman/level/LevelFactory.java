@@ -76,11 +76,51 @@ public class LevelFactory {
      */
     public Level createLevel(Board board, List<NPC> ghosts,
                              List<Square> startPositions) {
+        return createLevel(board, ghosts, startPositions,
+            createPelletLayer(board.getWidth(), board.getHeight()));
+    }
+
+    /**
+     * Creates a new level from the provided data.
+     *
+     * @param board
+     *            The board with all ghosts and special items occupying their
+     *            squares.
+     * @param ghosts
+     *            A list of all ghosts on the board.
+     * @param startPositions
+     *            A list of squares from which players may start the game.
+     * @param pellets
+     *            The regular pellets on the board.
+     * @return A new level for the board.
+     */
+    public Level createLevel(Board board, List<NPC> ghosts,
+                             List<Square> startPositions, PelletLayer pellets) {
 
         // We'll adopt the simple collision map for now.
         CollisionMap collisionMap = new PlayerCollisions();
 
-        return new Level(board, ghosts, startPositions, collisionMap);
+        return new Level(board, ghosts, startPositions, collisionMap, pellets);
+    }
+
+    /**
+     * Creates a new pellet layer without pellets.
+     *
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     * @return The new pellet layer.
+     */
+    public PelletLayer createPelletLayer(int width, int height) {
+        return new PelletLayer(width, height, sprites.getPelletSprite());
+    }
+
+    /**
+     * @return The value of a regular pellet.
+     */
+    public int getPelletValue() {
+        return PELLET_VALUE;
     }
 
     /**
@@ -106,7 +146,8 @@ public class LevelFactory {
     }
 
     /**
-     * Creates a new pellet.
+     * Creates a new pellet unit, for special items that do not fit in the
+     * pellet layer.
      *
      * @return The new pellet.
      */
@@ -0,0 +1,286 @@
+package nl.tudelft.jpacman.level;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.ImmutableList;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.sprite.Sprite;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Prepares the levels of a sequence of maps one ahead, on a background
+ * thread, so the next level is ready the moment the current one is won.
+ * Preparing a level creates it, i.e. parses the map and links the board,
+ * and, if the pipeline is given the cell size the levels are shown at,
+ * draws every sprite the level uses once at that size, so the first frame
+ * of the level does not have to load or scale them.
+ *
+ * Taking a level starts preparing the one after it. If a level is taken
+ * before it was prepared, it is created on the calling thread instead.
+ */
+public class LevelPipeline implements AutoCloseable {
+
+    /**
+     * Creates the level for a map.
+     */
+    @FunctionalInterface
+    public interface LevelLoader {
+
+        /**
+         * Creates a new level.
+         *
+         * @param mapName
+         *            The name of the map.
+         * @return A new level as represented by the map.
+         * @throws IOException
+         *             When the map could not be read.
+         */
+        Level load(String mapName) throws IOException;
+    }
+
+    /**
+     * The maps of the levels, in the order in which they are played.
+     */
+    private final List<String> maps;
+
+    /**
+     * The loader creating the levels.
+     */
+    private final LevelLoader loader;
+
+    /**
+     * The size in pixels sprites are drawn at to warm them up, or
+     * <code>0</code> if they are not.
+     */
+    private final int warmUpSize;
+
+    /**
+     * The thread preparing the next level.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The level being prepared, or <code>null</code> if none is.
+     */
+    private @Nullable Future<Level> next;
+
+    /**
+     * The index of the level being prepared.
+     */
+    private int nextIndex = -1;
+
+    /**
+     * The number of levels taken that were prepared in the background.
+     */
+    private int preloaded;
+
+    /**
+     * The time the last level taken had to be waited for, in nanoseconds.
+     */
+    private long lastHandOff;
+
+    /**
+     * Creates a new pipeline, which does not prepare any level until asked
+     * to, and does not warm up the sprites of the levels.
+     *
+     * @param mapNames
+     *            The maps of the levels, in the order in which they are
+     *            played.
+     * @param levelLoader
+     *            The loader creating the levels. It is called on the
+     *            background thread.
+     */
+    public LevelPipeline(List<String> mapNames, LevelLoader levelLoader) {
+        this(mapNames, levelLoader, 0);
+    }
+
+    /**
+     * Creates a new pipeline, which does not prepare any level until asked
+     * to.
+     *
+     * @param mapNames
+     *            The maps of the levels, in the order in which they are
+     *            played.
+     * @param levelLoader
+     *            The loader creating the levels. It is called on the
+     *            background thread.
+     * @param cellSize
+     *            The size in pixels of a square of the board as the levels
+     *            are shown, at which their sprites are warmed up, or
+     *            <code>0</code> to not warm them up.
+     */
+    public LevelPipeline(List<String> mapNames, LevelLoader levelLoader, int cellSize) {
+        assert !mapNames.isEmpty();
+        assert cellSize >= 0;
+        this.maps = ImmutableList.copyOf(mapNames);
+        this.loader = levelLoader;
+        this.warmUpSize = cellSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-preload");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * @return The number of levels.
+     */
+    public int size() {
+        return maps.size();
+    }
+
+    /**
+     * Starts preparing a level in the background, unless it already is.
+     *
+     * @param index
+     *            The index of the level.
+     */
+    public synchronized void prepare(int index) {
+        assert index >= 0 && index < maps.size();
+        Future<Level> pending = next;
+        if (pending != null) {
+            if (nextIndex == index) {
+                return;
+            }
+            pending.cancel(true);
+        }
+        String mapName = maps.get(index);
+        nextIndex = index;
+        next = executor.submit(() -> warmUp(loader.load(mapName)));
+    }
+
+    /**
+     * Returns a level, waiting for it if it is being prepared, and starts
+     * preparing the level after it.
+     *
+     * @param index
+     *            The index of the level.
+     * @return The new level.
+     * @throws PacmanConfigurationException
+     *             If the level could not be created.
+     */
+    public synchronized Level take(int index) {
+        assert index >= 0 && index < maps.size();
+        long start = System.nanoTime();
+        Future<Level> pending = next;
+        next = null;
+        Level level;
+        if (pending != null && nextIndex == index) {
+            level = await(pending, maps.get(index));
+            preloaded++;
+        } else {
+            if (pending != null) {
+                pending.cancel(true);
+            }
+            level = load(maps.get(index));
+        }
+        lastHandOff = System.nanoTime() - start;
+        if (index + 1 < maps.size()) {
+            prepare(index + 1);
+        }
+        return level;
+    }
+
+    private Level load(String mapName) {
+        try {
+            return warmUp(loader.load(mapName));
+        } catch (IOException e) {
+            throw new PacmanConfigurationException(
+                "Unable to create level, name = " + mapName, e);
+        }
+    }
+
+    private static Level await(Future<Level> pending, String mapName) {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PacmanConfigurationException(
+                "Interrupted while creating level, name = " + mapName, e);
+        } catch (ExecutionException | CancellationException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PacmanConfigurationException(
+                "Unable to create level, name = " + mapName, cause == null ? e : cause);
+        }
+    }
+
+    /**
+     * Draws every sprite a level uses once onto a scratch image, at the
+     * size the level is shown at.
+     *
+     * @param level
+     *            The level to warm up.
+     * @return The level.
+     */
+    private Level warmUp(Level level) {
+        if (warmUpSize == 0) {
+            return level;
+        }
+        Set<Sprite> sprites = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Square square : level.getBoard().getMaterialisedSquares()) {
+            sprites.add(square.getSprite());
+        }
+        for (NPC npc : level.getNpcs()) {
+            sprites.add(npc.getSprite());
+        }
+        sprites.add(level.getPellets().getSprite());
+        BufferedImage image =
+            new BufferedImage(warmUpSize, warmUpSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = image.createGraphics();
+        try {
+            for (Sprite sprite : sprites) {
+                sprite.draw(graphics, 0, 0, warmUpSize, warmUpSize);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return level;
+    }
+
+    /**
+     * @return The number of levels taken that were prepared in the
+     *         background.
+     */
+    public synchronized int getPreloaded() {
+        return preloaded;
+    }
+
+    /**
+     * @return The time the last level taken had to be waited for, in
+     *         nanoseconds.
+     */
+    public synchronized long getLastHandOff() {
+        return lastHandOff;
+    }
+
+    /**
+     * Stops preparing levels.
+     */
+    @Override
+    public synchronized void close() {
+        Future<Level> pending = next;
+        if (pending != null) {
+            pending.cancel(true);
+            next = null;
+        }
+        executor.shutdownNow();
+    }
+}
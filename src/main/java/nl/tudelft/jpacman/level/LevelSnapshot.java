@@ -0,0 +1,181 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.Direction;
+
+/**
+ * An immutable, compact copy of the state of a {@link Level}: the position
+ * and direction of every unit, the score and life of every player and which
+ * pellets, both in the {@link PelletLayer} and as units, are left.
+ * Snapshots are taken with {@link Level#snapshot()} and put back with
+ * {@link Level#restore(LevelSnapshot)}.
+ *
+ * The pellets are stored as chunked bitmaps that are shared with the level
+ * and with other snapshots of the same level, so a snapshot only copies the
+ * chunks in which pellets were eaten or restored since the previous one.
+ *
+ * Units are numbered as in {@link Level#getPlayers()} followed by
+ * {@link Level#getNpcs()}; positions are cell indices
+ * <code>y * width + x</code>, or <code>-1</code> for a unit off the board.
+ */
+public final class LevelSnapshot {
+
+    /**
+     * The directions, indexed by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The level this is a snapshot of.
+     */
+    private final Level level;
+
+    /**
+     * The cell index of every unit.
+     */
+    private final int[] positions;
+
+    /**
+     * The ordinal of the direction of every unit.
+     */
+    private final byte[] directions;
+
+    /**
+     * The score of every player.
+     */
+    private final int[] scores;
+
+    /**
+     * Whether every player is alive.
+     */
+    private final boolean[] alive;
+
+    /**
+     * The chunks of the pellet bitmap, shared and never modified.
+     */
+    private final long[][] pellets;
+
+    /**
+     * The chunks of the pellet layer's bitmap, shared and never modified.
+     */
+    private final long[][] layerPellets;
+
+    /**
+     * The number of pellets left.
+     */
+    private final int remainingPellets;
+
+    /**
+     * Creates a new snapshot. The arrays are owned by the snapshot from now
+     * on.
+     *
+     * @param level
+     *            The level this is a snapshot of.
+     * @param positions
+     *            The cell index of every unit.
+     * @param directions
+     *            The ordinal of the direction of every unit.
+     * @param scores
+     *            The score of every player.
+     * @param alive
+     *            Whether every player is alive.
+     * @param pellets
+     *            The frozen bitmap of the pellet units.
+     * @param layerPellets
+     *            The frozen bitmap of the pellet layer.
+     * @param remainingPellets
+     *            The number of pellets left.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    LevelSnapshot(Level level, int[] positions, byte[] directions, int[] scores,
+                  boolean[] alive, long[][] pellets, long[][] layerPellets,
+                  int remainingPellets) {
+        this.level = level;
+        this.positions = positions;
+        this.directions = directions;
+        this.scores = scores;
+        this.alive = alive;
+        this.pellets = pellets;
+        this.layerPellets = layerPellets;
+        this.remainingPellets = remainingPellets;
+    }
+
+    /**
+     * @return The level this is a snapshot of.
+     */
+    Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return The number of units in this snapshot.
+     */
+    public int getUnitCount() {
+        return positions.length;
+    }
+
+    /**
+     * Returns the position of a unit.
+     *
+     * @param unit
+     *            The number of the unit.
+     * @return The cell index of the unit, or <code>-1</code> if it was not on
+     *         the board.
+     */
+    public int getPosition(int unit) {
+        return positions[unit];
+    }
+
+    /**
+     * Returns the direction of a unit.
+     *
+     * @param unit
+     *            The number of the unit.
+     * @return The direction the unit was facing.
+     */
+    public Direction getDirection(int unit) {
+        return DIRECTIONS[directions[unit]];
+    }
+
+    /**
+     * Returns the score of a player.
+     *
+     * @param player
+     *            The number of the player.
+     * @return The score of the player.
+     */
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    /**
+     * Returns whether a player was alive.
+     *
+     * @param player
+     *            The number of the player.
+     * @return <code>true</code> iff the player was alive.
+     */
+    public boolean isAlive(int player) {
+        return alive[player];
+    }
+
+    /**
+     * @return The number of pellets left on the board.
+     */
+    public int getRemainingPellets() {
+        return remainingPellets;
+    }
+
+    /**
+     * @return The frozen bitmap of the pellet units.
+     */
+    long[][] getPellets() {
+        return pellets;
+    }
+
+    /**
+     * @return The frozen bitmap of the pellet layer.
+     */
+    long[][] getLayerPellets() {
+        return layerPellets;
+    }
+}
@@ -0,0 +1,204 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * Creates levels from templates of the maps, so a map is read and parsed
+ * only once however many games are played on it. A template is the map
+ * compiled in memory, as by {@link MapCompiler}: the packed, immutable
+ * layout of walls, pellets and spawn points, shared by all levels stamped
+ * from it. Every level gets fresh squares, pellets and ghosts. The
+ * {@link MapAnalysis} of a map is made when it is loaded and kept with its
+ * template.
+ *
+ * The cache holds at most a fixed number of templates, evicting the least
+ * recently used one when a new map is loaded. It is safe to use from
+ * multiple threads.
+ */
+public class LevelTemplateCache {
+
+    /**
+     * The default maximum number of templates held.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The loader stamping levels from the templates.
+     */
+    private final CompiledMapLoader loader;
+
+    /**
+     * The templates by map name, least recently used first.
+     */
+    private final Map<String, Template> templates;
+
+    /**
+     * The number of levels created from a cached template.
+     */
+    private long hits;
+
+    /**
+     * The number of levels for which the map had to be read.
+     */
+    private long misses;
+
+    /**
+     * The number of templates evicted.
+     */
+    private long evictions;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param templateLoader
+     *            The loader providing the factories the levels are created
+     *            with.
+     * @param capacity
+     *            The maximum number of templates held.
+     */
+    public LevelTemplateCache(CompiledMapLoader templateLoader, int capacity) {
+        assert capacity > 0;
+        this.loader = templateLoader;
+        this.templates = new LinkedHashMap<String, Template>(capacity, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Creates a new level from the map in the given resource, reading the
+     * resource only if its template is not cached.
+     *
+     * @param mapName
+     *            The name of the resource containing the text of the map.
+     * @return A new level as represented by the map.
+     * @throws IOException
+     *             When the resource could not be read.
+     * @throws PacmanConfigurationException
+     *             If the resource does not exist or is not a valid map.
+     */
+    public Level makeLevel(String mapName) throws IOException {
+        Template template;
+        synchronized (this) {
+            template = template(mapName);
+            if (template.used) {
+                hits++;
+            } else {
+                misses++;
+                template.used = true;
+            }
+        }
+        return loader.build(mapName, template.compiled);
+    }
+
+    /**
+     * Returns the analysis of the map in the given resource, reading the
+     * resource only if its template is not cached. Only
+     * {@link #makeLevel(String)} counts as a hit or miss.
+     *
+     * @param mapName
+     *            The name of the resource containing the text of the map.
+     * @return The connectivity of the map.
+     * @throws IOException
+     *             When the resource could not be read.
+     * @throws PacmanConfigurationException
+     *             If the resource does not exist or is not a valid map.
+     */
+    public MapAnalysis getAnalysis(String mapName) throws IOException {
+        return template(mapName).analysis;
+    }
+
+    private synchronized Template template(String mapName) throws IOException {
+        Template template = templates.get(mapName);
+        if (template != null) {
+            return template;
+        }
+        ByteBuffer compiled = MapCompiler.compile(MapParser.readMap(mapName));
+        template = new Template(compiled, MapAnalysis.analyse(compiled));
+        int size = templates.size();
+        templates.put(mapName, template);
+        if (templates.size() == size) {
+            evictions++;
+        }
+        return template;
+    }
+
+    /**
+     * Removes all templates.
+     */
+    public synchronized void clear() {
+        templates.clear();
+    }
+
+    /**
+     * @return The number of templates held.
+     */
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    /**
+     * @return The number of levels created from a cached template.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of levels for which the map had to be read.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of templates evicted to make room for others.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * A compiled map with its analysis.
+     */
+    private static final class Template {
+
+        /**
+         * The compiled map, shared by all levels built from it.
+         */
+        private final ByteBuffer compiled;
+
+        /**
+         * The connectivity of the map.
+         */
+        private final MapAnalysis analysis;
+
+        /**
+         * <code>true</code> iff a level was built from this template, so
+         * the next one counts as a hit.
+         */
+        private boolean used;
+
+        /**
+         * Creates a new template.
+         *
+         * @param compiled
+         *            The compiled map.
+         * @param analysis
+         *            The connectivity of the map.
+         */
+        Template(ByteBuffer compiled, MapAnalysis analysis) {
+            this.compiled = compiled;
+            this.analysis = analysis;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.ChunkedBoard;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.NPC;
+
+/**
+ * The connectivity of a map: which walkable cells can reach each other, and
+ * the problems that follow from it, such as pellets no player can reach or
+ * ghosts shut away from the players. The analysis is made once per map, in
+ * a single pass of a union-find over the cells, and is immutable, so it can
+ * be kept along with the map.
+ *
+ * Like the board, the map wraps around its edges: a walkable cell on one
+ * edge is connected to the walkable cell opposite it, which is reported as
+ * a tunnel.
+ */
+public final class MapAnalysis {
+
+    /**
+     * The number of columns of the map.
+     */
+    private final int width;
+
+    private final int height;
+
+    /**
+     * The component of every cell, indexed <code>y * width + x</code>,
+     * numbered from 0, or <code>-1</code> for walls.
+     */
+    private final int[] components;
+
+    private final int componentCount;
+
+    private final int[] unreachablePellets;
+
+    private final int[] isolatedGhosts;
+
+    private final int deadEnds;
+
+    private final List<Tunnel> tunnels;
+
+    private final int players;
+
+    private MapAnalysis(int width, int height, int[] components, int componentCount,
+                        int[] unreachablePellets, int[] isolatedGhosts, int deadEnds,
+                        List<Tunnel> tunnels, int players) {
+        this.width = width;
+        this.height = height;
+        this.components = components;
+        this.componentCount = componentCount;
+        this.unreachablePellets = unreachablePellets;
+        this.isolatedGhosts = isolatedGhosts;
+        this.deadEnds = deadEnds;
+        this.tunnels = tunnels;
+        this.players = players;
+    }
+
+    /**
+     * Analyses a text map.
+     *
+     * @param text
+     *            The rows of the map, the first element being the top row.
+     * @return The analysis of the map.
+     * @throws PacmanConfigurationException
+     *             If the text is not a valid map.
+     */
+    public static MapAnalysis analyse(List<String> text) {
+        return analyse(MapCompiler.compile(text));
+    }
+
+    /**
+     * Analyses the text map in the given resource.
+     *
+     * @param mapName
+     *            The name of the resource containing the text of the map.
+     * @return The analysis of the map.
+     * @throws IOException
+     *             When the resource could not be read.
+     * @throws PacmanConfigurationException
+     *             If the resource does not exist or is not a valid map.
+     */
+    public static MapAnalysis analyseResource(String mapName) throws IOException {
+        return analyse(MapParser.readMap(mapName));
+    }
+
+    /**
+     * Analyses the board of a level as its map parser built it, so squares
+     * and units a custom parser creates are taken into account.
+     *
+     * @param level
+     *            The level, before any player is registered.
+     * @param traveller
+     *            The unit the squares are tested for: a cell is walkable
+     *            iff its square is accessible to it.
+     * @return The analysis of the level's map.
+     */
+    public static MapAnalysis analyse(Level level, Unit traveller) {
+        Board board = level.getBoard();
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int cells = width * height;
+        boolean[] walls = new boolean[cells];
+        long[] pellets = new long[(cells + 63) >>> 6];
+        PelletLayer layer = level.getPellets();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                if (board instanceof ChunkedBoard) {
+                    walls[cell] = ((ChunkedBoard) board).isWall(x, y);
+                } else {
+                    walls[cell] = !board.squareAt(x, y).isAccessibleTo(traveller);
+                }
+                if (layer.has(x, y) || hasPellet(board.occupantsAt(x, y))) {
+                    pellets[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+        List<Square> starts = level.getStartSquares();
+        int[] players = new int[starts.size()];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = cellOf(starts.get(i), width);
+        }
+        List<NPC> npcs = level.getNpcs();
+        int[] ghosts = new int[npcs.size()];
+        for (int i = 0; i < ghosts.length; i++) {
+            ghosts[i] = cellOf(npcs.get(i).getSquare(), width);
+        }
+        return analyse(width, height, walls, pellets, players, ghosts);
+    }
+
+    private static boolean hasPellet(List<Unit> occupants) {
+        for (Unit occupant : occupants) {
+            if (occupant instanceof Pellet) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int cellOf(Square square, int width) {
+        assert square.getX() >= 0 && square.getY() >= 0;
+        return square.getY() * width + square.getX();
+    }
+
+    /**
+     * Analyses a compiled map that is known to be intact.
+     *
+     * @param compiled
+     *            The compiled map, which is read from a duplicate so it can
+     *            be shared.
+     * @return The analysis of the map.
+     */
+    static MapAnalysis analyse(ByteBuffer compiled) {
+        ByteBuffer buffer = compiled.duplicate();
+        buffer.position(8);
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int playerCount = buffer.getInt();
+        int ghostCount = buffer.getInt();
+        int cells = width * height;
+
+        boolean[] walls = new boolean[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            walls[cell] = isWall(buffer, cell);
+        }
+        buffer.position(CompiledMapFormat.HEADER_SIZE + (int) CompiledMapFormat.cellBytes(cells));
+        long[] pellets = new long[(int) (CompiledMapFormat.pelletBytes(cells) / 8)];
+        for (int i = 0; i < pellets.length; i++) {
+            pellets[i] = buffer.getLong();
+        }
+        int[] players = new int[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = buffer.getInt();
+        }
+        int[] ghosts = new int[ghostCount];
+        for (int i = 0; i < ghostCount; i++) {
+            ghosts[i] = buffer.getInt();
+        }
+        return analyse(width, height, walls, pellets, players, ghosts);
+    }
+
+    /**
+     * Analyses a map.
+     *
+     * @param width
+     *            The number of columns of the map.
+     * @param height
+     *            The number of rows of the map.
+     * @param walls
+     *            Whether every cell is a wall.
+     * @param pellets
+     *            The bitmap of the cells with a pellet.
+     * @param players
+     *            The cells of the player start squares.
+     * @param ghosts
+     *            The cells of the ghosts.
+     * @return The analysis of the map.
+     */
+    private static MapAnalysis analyse(int width, int height, boolean[] walls,
+                                       long[] pellets, int[] players, int[] ghosts) {
+        int cells = width * height;
+        int[] parent = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            if (walls[cell]) {
+                parent[cell] = -1;
+                continue;
+            }
+            parent[cell] = cell;
+            int x = cell % width;
+            if (x > 0 && parent[cell - 1] >= 0) {
+                union(parent, cell - 1, cell);
+            }
+            if (cell >= width && parent[cell - width] >= 0) {
+                union(parent, cell - width, cell);
+            }
+        }
+        List<Tunnel> tunnels = new ArrayList<>();
+        for (int y = 0; y < height && width > 1; y++) {
+            int left = y * width;
+            int right = left + width - 1;
+            if (parent[left] >= 0 && parent[right] >= 0) {
+                union(parent, left, right);
+                tunnels.add(new Tunnel(0, y, width - 1, y));
+            }
+        }
+        for (int x = 0; x < width && height > 1; x++) {
+            int bottom = (height - 1) * width + x;
+            if (parent[x] >= 0 && parent[bottom] >= 0) {
+                union(parent, x, bottom);
+                tunnels.add(new Tunnel(x, 0, x, height - 1));
+            }
+        }
+
+        int[] components = new int[cells];
+        int componentCount = 0;
+        int deadEnds = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (parent[cell] < 0) {
+                components[cell] = -1;
+                continue;
+            }
+            int root = find(parent, cell);
+            if (root == cell) {
+                components[cell] = componentCount++;
+            } else {
+                components[cell] = components[root];
+            }
+            if (exits(parent, cell, width, height) == 1) {
+                deadEnds++;
+            }
+        }
+
+        boolean[] reachable = new boolean[componentCount];
+        for (int cell : players) {
+            reachable[components[cell]] = true;
+        }
+        int[] isolated = new int[ghosts.length];
+        int isolatedCount = 0;
+        for (int cell : ghosts) {
+            if (!reachable[components[cell]]) {
+                isolated[isolatedCount++] = cell;
+            }
+        }
+
+        int[] unreachable = new int[0];
+        int unreachableCount = 0;
+        for (int base = 0; base < cells; base += 64) {
+            long word = pellets[base >>> 6];
+            while (word != 0) {
+                int cell = base + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (!reachable[components[cell]]) {
+                    if (unreachableCount == unreachable.length) {
+                        unreachable = Arrays.copyOf(unreachable,
+                            Math.max(16, unreachableCount * 2));
+                    }
+                    unreachable[unreachableCount++] = cell;
+                }
+            }
+        }
+
+        return new MapAnalysis(width, height, components, componentCount,
+            Arrays.copyOf(unreachable, unreachableCount),
+            Arrays.copyOf(isolated, isolatedCount), deadEnds,
+            Collections.unmodifiableList(tunnels), players.length);
+    }
+
+    private static boolean isWall(ByteBuffer buffer, int cell) {
+        return ((buffer.get(CompiledMapFormat.HEADER_SIZE + (cell >>> 1))
+            >>> ((cell & 1) * 4)) & 0xF) == CompiledMapFormat.WALL;
+    }
+
+    private static int find(int[] parent, int cell) {
+        int current = cell;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+
+    /**
+     * Joins the components of two cells, the lower root becoming the root
+     * of both so components are numbered in cell order.
+     */
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    private static int exits(int[] parent, int cell, int width, int height) {
+        int x = cell % width;
+        int y = cell / width;
+        int exits = 0;
+        if (parent[y * width + (x + 1) % width] >= 0) {
+            exits++;
+        }
+        if (parent[y * width + (x + width - 1) % width] >= 0) {
+            exits++;
+        }
+        if (parent[((y + 1) % height) * width + x] >= 0) {
+            exits++;
+        }
+        if (parent[((y + height - 1) % height) * width + x] >= 0) {
+            exits++;
+        }
+        return exits;
+    }
+
+    /**
+     * @return The number of separate areas of walkable cells.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the area a cell belongs to. Two cells can reach each other iff
+     * they are in the same area.
+     *
+     * @param x
+     *            The column of the cell.
+     * @param y
+     *            The row of the cell.
+     * @return The number of the area, from 0, or <code>-1</code> if the
+     *         cell is a wall.
+     */
+    public int componentAt(int x, int y) {
+        assert x >= 0 && x < width && y >= 0 && y < height;
+        return components[y * width + x];
+    }
+
+    /**
+     * @return The cells, as <code>y * width + x</code>, of the pellets that
+     *         no player can reach.
+     */
+    public int[] getUnreachablePellets() {
+        return unreachablePellets.clone();
+    }
+
+    /**
+     * @return The cells, as <code>y * width + x</code>, of the ghosts that
+     *         cannot reach any player.
+     */
+    public int[] getIsolatedGhosts() {
+        return isolatedGhosts.clone();
+    }
+
+    /**
+     * @return The number of walkable cells with only one walkable
+     *         neighbour.
+     */
+    public int getDeadEnds() {
+        return deadEnds;
+    }
+
+    /**
+     * @return The pairs of cells connected around the edges of the map.
+     */
+    public List<Tunnel> getTunnels() {
+        return tunnels;
+    }
+
+    /**
+     * @return <code>true</code> iff the map has a player start square and
+     *         every pellet and ghost can be reached by a player.
+     */
+    public boolean isValid() {
+        return players > 0 && unreachablePellets.length == 0 && isolatedGhosts.length == 0;
+    }
+
+    /**
+     * Checks that the map can be played to the end.
+     *
+     * @param mapName
+     *            The name of the map, for the error message.
+     * @throws PacmanConfigurationException
+     *             If the map has no start square, or a pellet or ghost
+     *             cannot be reached by any player.
+     */
+    public void validate(String mapName) {
+        if (players == 0) {
+            throw new PacmanConfigurationException("Invalid map " + mapName
+                + ": no player start square");
+        }
+        if (unreachablePellets.length > 0) {
+            int cell = unreachablePellets[0];
+            throw new PacmanConfigurationException("Invalid map " + mapName + ": "
+                + unreachablePellets.length + " unreachable pellets, first at "
+                + (cell % width) + "," + (cell / width));
+        }
+        if (isolatedGhosts.length > 0) {
+            int cell = isolatedGhosts[0];
+            throw new PacmanConfigurationException("Invalid map " + mapName + ": "
+                + isolatedGhosts.length + " ghosts cannot reach a player, first at "
+                + (cell % width) + "," + (cell / width));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dx%d map: %d components, %d unreachable pellets, "
+                + "%d isolated ghosts, %d dead ends, %d tunnels",
+            width, height, componentCount, unreachablePellets.length,
+            isolatedGhosts.length, deadEnds, tunnels.size());
+    }
+
+    /**
+     * Two walkable cells on opposite edges of the map, which are adjacent
+     * because the map wraps around.
+     */
+    public static final class Tunnel {
+
+        private final int fromX;
+
+        private final int fromY;
+
+        private final int toX;
+
+        private final int toY;
+
+        Tunnel(int fromX, int fromY, int toX, int toY) {
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.toX = toX;
+            this.toY = toY;
+        }
+
+        /**
+         * @return The column of the cell on the left or top edge.
+         */
+        public int getFromX() {
+            return fromX;
+        }
+
+        /**
+         * @return The row of the cell on the left or top edge.
+         */
+        public int getFromY() {
+            return fromY;
+        }
+
+        /**
+         * @return The column of the cell on the right or bottom edge.
+         */
+        public int getToX() {
+            return toX;
+        }
+
+        /**
+         * @return The row of the cell on the right or bottom edge.
+         */
+        public int getToY() {
+            return toY;
+        }
+
+        @Override
+        public String toString() {
+            return fromX + "," + fromY + " <-> " + toX + "," + toY;
+        }
+    }
+}
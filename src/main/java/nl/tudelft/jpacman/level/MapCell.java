@@ -0,0 +1,106 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The kinds of cell a text map describes, one per character. Every reader
+ * of text maps, {@link MapParser} and {@link MapCompiler}, maps characters
+ * through this type, so they accept the same maps.
+ */
+enum MapCell {
+
+    /**
+     * ' ' (space): an empty square.
+     */
+    EMPTY(' '),
+
+    /**
+     * '#': a wall.
+     */
+    WALL('#'),
+
+    /**
+     * '.': a square with a pellet.
+     */
+    PELLET('.'),
+
+    /**
+     * 'G': a square with a ghost.
+     */
+    GHOST('G'),
+
+    /**
+     * 'P': a starting square for players.
+     */
+    PLAYER('P');
+
+    /**
+     * The cell of every ASCII character, or <code>null</code> for
+     * characters that do not describe one.
+     */
+    private static final @Nullable MapCell[] BY_SYMBOL = new MapCell[128];
+
+    static {
+        for (MapCell cell : values()) {
+            BY_SYMBOL[cell.symbol] = cell;
+        }
+    }
+
+    /**
+     * The character describing the cell.
+     */
+    private final char symbol;
+
+    MapCell(char symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @return The character describing the cell in a text map.
+     */
+    char getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return <code>true</code> iff a unit starts on the cell.
+     */
+    boolean hasUnit() {
+        return this == GHOST || this == PLAYER;
+    }
+
+    /**
+     * Looks up the cell a character describes.
+     *
+     * @param c
+     *            The character.
+     * @return The cell, or <code>null</code> if the character does not
+     *         describe one.
+     */
+    static @Nullable MapCell forSymbol(char c) {
+        return c < BY_SYMBOL.length ? BY_SYMBOL[c] : null;
+    }
+
+    /**
+     * Looks up the cell a character at a position of a map describes.
+     *
+     * @param c
+     *            The character.
+     * @param x
+     *            The column of the character, for the error message.
+     * @param y
+     *            The row of the character, for the error message.
+     * @return The cell.
+     * @throws PacmanConfigurationException
+     *             If the character does not describe a cell.
+     */
+    static MapCell of(char c, int x, int y) {
+        MapCell cell = forSymbol(c);
+        if (cell == null) {
+            throw new PacmanConfigurationException("Invalid character at "
+                + x + "," + y + ": " + c);
+        }
+        return cell;
+    }
+}
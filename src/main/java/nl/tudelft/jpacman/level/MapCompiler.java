@@ -0,0 +1,194 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * Compiles text maps, as read by {@link MapParser}, into the binary format
+ * loaded by {@link CompiledMapLoader}. Compiling is done offline, e.g. with
+ * <code>java nl.tudelft.jpacman.level.MapCompiler board.txt board.jpm</code>,
+ * so loading a level does not have to parse its text.
+ */
+public final class MapCompiler {
+
+    private MapCompiler() {
+    }
+
+    /**
+     * Compiles the text map in a file.
+     *
+     * @param source
+     *            The file containing the text of the map.
+     * @param target
+     *            The file the compiled map is written to.
+     * @throws IOException
+     *             When the text could not be read or the compiled map could
+     *             not be written.
+     */
+    public static void compile(Path source, Path target) throws IOException {
+        compile(Files.readAllLines(source, StandardCharsets.UTF_8), target);
+    }
+
+    /**
+     * Compiles a text map.
+     *
+     * @param text
+     *            The rows of the map, the first element being the top row.
+     * @param target
+     *            The file the compiled map is written to.
+     * @throws IOException
+     *             When the compiled map could not be written.
+     * @throws PacmanConfigurationException
+     *             If the text is not a valid map.
+     */
+    public static void compile(List<String> text, Path target) throws IOException {
+        compile(toMap(text), target);
+    }
+
+    /**
+     * Compiles a map.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y. See {@link MapParser#parseMap(char[][])} for the
+     *            supported characters.
+     * @param target
+     *            The file the compiled map is written to.
+     * @throws IOException
+     *             When the compiled map could not be written.
+     * @throws PacmanConfigurationException
+     *             If the map contains an invalid character.
+     */
+    public static void compile(char[][] map, Path target) throws IOException {
+        ByteBuffer compiled = compile(map);
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory == null) {
+            throw new IOException("Cannot write a compiled map to a root directory.");
+        }
+        Path temp = Files.createTempFile(directory, "map", ".jpm");
+        try {
+            Files.write(temp, compiled.array());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Compiles a text map in memory.
+     *
+     * @param text
+     *            The rows of the map, the first element being the top row.
+     * @return The compiled map.
+     * @throws PacmanConfigurationException
+     *             If the text is not a valid map.
+     */
+    static ByteBuffer compile(List<String> text) {
+        return compile(toMap(text));
+    }
+
+    private static char[][] toMap(List<String> text) {
+        MapParser.checkMapFormat(text);
+        int width = text.get(0).length();
+        int height = text.size();
+        char[][] map = new char[width][height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                map[x][y] = text.get(y).charAt(x);
+            }
+        }
+        return map;
+    }
+
+    private static ByteBuffer compile(char[][] map) {
+        int width = map.length;
+        int height = map[0].length;
+        int cells = width * height;
+        byte[] types = new byte[(int) CompiledMapFormat.cellBytes(cells)];
+        long[] pellets = new long[(int) (CompiledMapFormat.pelletBytes(cells) / 8)];
+        List<Integer> players = new ArrayList<>();
+        List<Integer> ghosts = new ArrayList<>();
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int cell = y * width + x;
+                int type = CompiledMapFormat.GROUND;
+                switch (MapCell.of(map[x][y], x, y)) {
+                    case EMPTY:
+                        break;
+                    case WALL:
+                        type = CompiledMapFormat.WALL;
+                        break;
+                    case PELLET:
+                        pellets[cell >>> 6] |= 1L << cell;
+                        break;
+                    case GHOST:
+                        ghosts.add(cell);
+                        break;
+                    case PLAYER:
+                        players.add(cell);
+                        break;
+                    default:
+                        throw new AssertionError(map[x][y]);
+                }
+                types[cell >>> 1] |= (byte) (type << ((cell & 1) * 4));
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+            (int) CompiledMapFormat.size(cells, players.size(), ghosts.size()));
+        buffer.putInt(CompiledMapFormat.MAGIC);
+        buffer.putShort(CompiledMapFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putInt(players.size());
+        buffer.putInt(ghosts.size());
+        buffer.put(types);
+        for (long word : pellets) {
+            buffer.putLong(word);
+        }
+        for (int cell : players) {
+            buffer.putInt(cell);
+        }
+        for (int cell : ghosts) {
+            buffer.putInt(cell);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Compiles a text map into a binary one, printing its analysis.
+     *
+     * @param args
+     *            The file containing the text map, and the file the
+     *            compiled map is written to.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: MapCompiler <map.txt> <map.jpm>");
+            return;
+        }
+        try {
+            List<String> text = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+            System.out.println(MapAnalysis.analyse(text));
+            compile(text, Paths.get(args[1]));
+        } catch (IOException | PacmanConfigurationException e) {
+            System.err.println("Unable to compile " + args[0] + ": " + e.getMessage());
+        }
+    }
+}
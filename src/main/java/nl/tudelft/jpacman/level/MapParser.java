@@ -4,7 +4,15 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import nl.tudelft.jpacman.GameModeSingleton;
@@ -13,6 +21,7 @@ import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.npc.NPC;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Creates new {@link Level}s from text representations.
@@ -31,6 +40,27 @@ public class MapParser {
      */
     private final BoardFactory boardCreator;
 
+    /**
+     * The initial size of the buffer a map is read into from a stream.
+     */
+    private static final int INITIAL_BUFFER = 8192;
+
+    /**
+     * The initial number of rows a map is expected to have.
+     */
+    private static final int INITIAL_ROWS = 64;
+
+    /**
+     * The initial number of ghosts and start squares a map is expected to
+     * have.
+     */
+    private static final int INITIAL_UNITS = 16;
+
+    /**
+     * The statistics of the last map parsed from a file or stream, if any.
+     */
+    private volatile @Nullable ParseStatistics statistics;
+
     /**
      * Creates a new map parser.
      *
@@ -70,18 +100,21 @@ public class MapParser {
         List<NPC> ghosts = new ArrayList<>();
         List<Square> startPositions = new ArrayList<>();
 
-        makeGrid(map, width, height, grid, ghosts, startPositions);
+        PelletLayer pellets = levelCreator.createPelletLayer(width, height);
+
+        makeGrid(map, width, height, grid, ghosts, startPositions, pellets);
 
         Board board = boardCreator.createBoard(grid);
-        return levelCreator.createLevel(board, ghosts, startPositions);
+        return levelCreator.createLevel(board, ghosts, startPositions, pellets);
     }
 
     private void makeGrid(char[][] map, int width, int height,
-                          Square[][] grid, List<NPC> ghosts, List<Square> startPositions) {
+                          Square[][] grid, List<NPC> ghosts, List<Square> startPositions,
+                          PelletLayer pellets) {
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 char c = map[x][y];
-                addSquare(grid, ghosts, startPositions, x, y, c);
+                addSquare(grid, ghosts, startPositions, pellets, x, y, c);
             }
         }
     }
@@ -99,6 +132,8 @@ public class MapParser {
      * @param startPositions
      *            List of all start positions that were added
      *            to the map.
+     * @param pellets
+     *            The layer receiving the regular pellets.
      * @param x
      *            x coordinate of the square.
      * @param y
@@ -107,34 +142,71 @@ public class MapParser {
      *            Character describing the square type.
      */
     protected void addSquare(Square[][] grid, List<NPC> ghosts,
-                             List<Square> startPositions, int x, int y, char c) {
-        switch (c) {
-            case ' ':
+                             List<Square> startPositions, PelletLayer pellets,
+                             int x, int y, char c) {
+        switch (MapCell.of(c, x, y)) {
+            case EMPTY:
                 grid[x][y] = boardCreator.createGround();
                 break;
-            case '#':
+            case WALL:
                 grid[x][y] = boardCreator.createWall();
                 break;
-            case '.':
-                Square pelletSquare = boardCreator.createGround();
-                grid[x][y] = pelletSquare;
-                levelCreator.createPellet().occupy(pelletSquare);
+            case PELLET:
+                grid[x][y] = boardCreator.createGround();
+                pellets.add(x, y, levelCreator.getPelletValue());
                 break;
-            case 'G':
+            case GHOST:
                 Square ghostSquare = makeGhostSquare(ghosts);
                 grid[x][y] = ghostSquare;
                 break;
-            case 'P':
+            case PLAYER:
                 Square playerSquare = boardCreator.createGround();
                 grid[x][y] = playerSquare;
                 startPositions.add(playerSquare);
                 break;
             default:
-                throw new PacmanConfigurationException("Invalid character at "
-                    + x + "," + y + ": " + c);
+                throw new AssertionError(c);
         }
     }
 
+    /**
+     * Adds a square to the grid based on a given character, placing a
+     * pellet unit on it for a regular pellet rather than recording the
+     * pellet in a layer.
+     *
+     * @deprecated Parsing a map no longer calls this method, so overriding
+     *             it has no effect; override
+     *             {@link #addSquare(Square[][], List, List, PelletLayer, int, int, char)}
+     *             instead.
+     *
+     * @param grid
+     *            The grid of squares with board[x][y] being the
+     *            square at column x, row y.
+     * @param ghosts
+     *            List of all ghosts that were added to the map.
+     * @param startPositions
+     *            List of all start positions that were added
+     *            to the map.
+     * @param x
+     *            x coordinate of the square.
+     * @param y
+     *            y coordinate of the square.
+     * @param c
+     *            Character describing the square type.
+     */
+    @Deprecated
+    protected void addSquare(Square[][] grid, List<NPC> ghosts,
+                             List<Square> startPositions, int x, int y, char c) {
+        if (MapCell.of(c, x, y) == MapCell.PELLET) {
+            Square square = boardCreator.createGround();
+            grid[x][y] = square;
+            levelCreator.createPellet().occupy(square);
+            return;
+        }
+        // only pellet cells touch the layer, so an empty one will do.
+        addSquare(grid, ghosts, startPositions, levelCreator.createPelletLayer(0, 0), x, y, c);
+    }
+
     private Square makeGhostSquare(List<NPC> ghosts) {
         Square ghostSquare = boardCreator.createGround();
 
@@ -179,7 +251,7 @@ public class MapParser {
      * @param text Map to be checked
      * @throws PacmanConfigurationException if map is not OK.
      */
-    private void checkMapFormat(List<String> text) {
+    static void checkMapFormat(List<String> text) {
         if (text == null) {
             throw new PacmanConfigurationException(
                 "Input text cannot be null.");
@@ -206,8 +278,9 @@ public class MapParser {
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Parses the map text read from the provided input stream. The stream
+     * is read to its end into a byte buffer, which is then parsed as by
+     * {@link #parseMap(Path)}.
      *
      * @param source
      *            The input stream that will be read.
@@ -216,19 +289,155 @@ public class MapParser {
      *             when the source could not be read.
      */
     public Level parseMap(InputStream source) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-            source, "UTF-8"))) {
-            List<String> lines = new ArrayList<>();
-            while (reader.ready()) {
-                lines.add(reader.readLine());
+        long start = System.nanoTime();
+        try (ReadableByteChannel channel = Channels.newChannel(source)) {
+            ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER);
+            while (channel.read(buffer) >= 0) {
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                }
+            }
+            buffer.flip();
+            return parseMap(buffer, start);
+        }
+    }
+
+    /**
+     * Parses the map in the given file. The file is mapped into memory
+     * rather than read, and parsed in two passes over the mapped bytes: the
+     * first validates the rows and measures the map, the second builds the
+     * squares row by row, following the bytes. Ghosts and start squares are
+     * created afterwards, column by column as {@link #parseMap(char[][])}
+     * does, so they are numbered in the same order. Apart from the level
+     * itself, parsing only needs the offset of every row and of every ghost
+     * and start square, so maps of many megabytes can be parsed.
+     *
+     * The map is expected to be ASCII text, with rows separated by
+     * <code>\n</code>, <code>\r\n</code> or <code>\r</code>. See
+     * {@link #parseMap(char[][])} for the supported characters.
+     *
+     * @param file
+     *            The file containing the map.
+     * @return The parsed level as represented by the text in the file.
+     * @throws IOException
+     *             when the file could not be read.
+     */
+    public Level parseMap(Path file) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parseMap(buffer, start);
+        }
+    }
+
+    /**
+     * @return The statistics of the last map parsed from a file or stream,
+     *         or <code>null</code> if none was parsed yet.
+     */
+    public @Nullable ParseStatistics getStatistics() {
+        return statistics;
+    }
+
+    private Level parseMap(ByteBuffer text, long start) {
+        int length = text.remaining();
+        int width = 0;
+        int height = 0;
+        int[] rowStarts = new int[INITIAL_ROWS];
+        int position = text.position();
+        int end = text.limit();
+        while (position < end) {
+            if (height == rowStarts.length) {
+                rowStarts = Arrays.copyOf(rowStarts, height * 2);
+            }
+            rowStarts[height] = position;
+            int lineEnd = lineEnd(text, position);
+            int lineWidth = lineEnd - position;
+            if (height == 0) {
+                if (lineWidth == 0) {
+                    throw new PacmanConfigurationException(
+                        "Input text lines cannot be empty.");
+                }
+                width = lineWidth;
+            } else if (lineWidth != width) {
+                throw new PacmanConfigurationException(
+                    "Input text lines are not of equal width.");
+            }
+            height++;
+            position = nextLine(text, lineEnd);
+        }
+        if (height == 0) {
+            throw new PacmanConfigurationException(
+                "Input text must consist of at least 1 row.");
+        }
+
+        Square[][] grid = new Square[width][height];
+        List<NPC> ghosts = new ArrayList<>();
+        List<Square> startPositions = new ArrayList<>();
+        PelletLayer pellets = levelCreator.createPelletLayer(width, height);
+
+        long[] units = new long[INITIAL_UNITS];
+        int unitCount = 0;
+        for (int y = 0; y < height; y++) {
+            int row = rowStarts[y];
+            for (int x = 0; x < width; x++) {
+                char c = (char) (text.get(row + x) & 0xFF);
+                MapCell cell = MapCell.forSymbol(c);
+                if (cell != null && cell.hasUnit()) {
+                    if (unitCount == units.length) {
+                        units = Arrays.copyOf(units, unitCount * 2);
+                    }
+                    units[unitCount++] = (long) x * height + y;
+                } else {
+                    addSquare(grid, ghosts, startPositions, pellets, x, y, c);
+                }
             }
-            return parseMap(lines);
         }
+        Arrays.sort(units, 0, unitCount);
+        for (int i = 0; i < unitCount; i++) {
+            int x = (int) (units[i] / height);
+            int y = (int) (units[i] % height);
+            char c = (char) (text.get(rowStarts[y] + x) & 0xFF);
+            addSquare(grid, ghosts, startPositions, pellets, x, y, c);
+        }
+
+        Board board = boardCreator.createBoard(grid);
+        Level level = levelCreator.createLevel(board, ghosts, startPositions, pellets);
+        statistics = new ParseStatistics(length, width, height, System.nanoTime() - start);
+        return level;
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * @return The position of the line terminator ending the line starting
+     *         at the given position, or the end of the text.
+     */
+    private static int lineEnd(ByteBuffer text, int position) {
+        int end = text.limit();
+        int i = position;
+        while (i < end && text.get(i) != '\n' && text.get(i) != '\r') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return The position after the line terminator at the given position.
+     */
+    private static int nextLine(ByteBuffer text, int lineEnd) {
+        if (lineEnd < text.limit() && text.get(lineEnd) == '\r') {
+            lineEnd++;
+        }
+        if (lineEnd < text.limit() && text.get(lineEnd) == '\n') {
+            lineEnd++;
+        }
+        return lineEnd;
+    }
+
+    /**
+     * Parses the map in the given resource, as by
+     * {@link #parseMap(InputStream)}.
      *
      * @param mapName
      *            Name of a resource that will be read.
@@ -244,4 +453,32 @@ public class MapParser {
             return parseMap(boardStream);
         }
     }
+
+    /**
+     * Reads the rows of the map in the given resource.
+     *
+     * @param mapName
+     *            Name of a resource that will be read.
+     * @return The rows of the map, the first element being the top row.
+     * @throws IOException
+     *             when the resource could not be read.
+     * @throws PacmanConfigurationException
+     *             If the resource does not exist.
+     */
+    static List<String> readMap(String mapName) throws IOException {
+        try (@Nullable InputStream in = MapParser.class.getResourceAsStream(mapName)) {
+            if (in == null) {
+                throw new PacmanConfigurationException("Could not get resource for: " + mapName);
+            }
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> rows = new ArrayList<>();
+            String row = reader.readLine();
+            while (row != null) {
+                rows.add(row);
+                row = reader.readLine();
+            }
+            return rows;
+        }
+    }
 }
@@ -0,0 +1,376 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * Generates Pac-Man style mazes of any size, in the text format read by
+ * {@link MapParser}. A maze is symmetric around its vertical axis, every
+ * square in it can be reached from every other, it has no dead ends, and it
+ * has tunnels through its left and right edges, a ghost house with four
+ * ghosts in the middle and a pellet on every other square.
+ *
+ * <p>
+ * Corridors run between the cells of a lattice at odd coordinates. The left
+ * half of the lattice is split into bands of {@value #BAND_ROWS} rows, which
+ * are carved in parallel: every band is a random spanning tree of its cells,
+ * after which its dead ends are opened up. The bands are then joined by
+ * openings in the walls between them, and the left half is mirrored onto
+ * the right. Every band has a random generator of its own, derived from the
+ * seed, so a seed always gives the same maze regardless of the scheduling.
+ * </p>
+ */
+public final class MazeGenerator {
+
+    /**
+     * The smallest width of a maze, which leaves room for the ghost house.
+     */
+    public static final int MIN_WIDTH = 11;
+
+    /**
+     * The smallest height of a maze, which leaves room for the ghost house.
+     */
+    public static final int MIN_HEIGHT = 9;
+
+    /**
+     * The number of lattice rows carved by one task.
+     */
+    static final int BAND_ROWS = 32;
+
+    private static final byte WALL = '#';
+    private static final byte PELLET = '.';
+    private static final byte EMPTY = ' ';
+    private static final byte GHOST = 'G';
+    private static final byte PLAYER = 'P';
+
+    /**
+     * The seed the mazes are generated from.
+     */
+    private final long seed;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed
+     *            The seed the mazes are generated from.
+     */
+    public MazeGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generates a maze.
+     *
+     * @param width
+     *            The width of the maze, at least {@value #MIN_WIDTH}.
+     * @param height
+     *            The height of the maze, at least {@value #MIN_HEIGHT}.
+     * @return The rows of the maze, the first element being the top row.
+     */
+    public List<String> generate(int width, int height) {
+        byte[][] rows = rows(width, height);
+        List<String> text = new ArrayList<>(rows.length);
+        for (byte[] row : rows) {
+            text.add(new String(row, StandardCharsets.US_ASCII));
+        }
+        return text;
+    }
+
+    /**
+     * Generates a maze into a level.
+     *
+     * @param width
+     *            The width of the maze, at least {@value #MIN_WIDTH}.
+     * @param height
+     *            The height of the maze, at least {@value #MIN_HEIGHT}.
+     * @param parser
+     *            The parser creating the level.
+     * @return A new level on the maze.
+     */
+    public Level generateLevel(int width, int height, MapParser parser) {
+        return parser.parseMap(generate(width, height));
+    }
+
+    /**
+     * Generates a maze into a text file, one row at a time.
+     *
+     * @param width
+     *            The width of the maze, at least {@value #MIN_WIDTH}.
+     * @param height
+     *            The height of the maze, at least {@value #MIN_HEIGHT}.
+     * @param file
+     *            The file the maze is written to.
+     * @throws IOException
+     *             When the file could not be written.
+     */
+    public void write(int width, int height, Path file) throws IOException {
+        byte[][] rows = rows(width, height);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            for (byte[] row : rows) {
+                out.write(row);
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Generates a maze.
+     *
+     * @param width
+     *            The width of the maze.
+     * @param height
+     *            The height of the maze.
+     * @return The rows of the maze as ASCII text, the first being the top
+     *         row.
+     */
+    byte[][] rows(int width, int height) {
+        if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+            throw new PacmanConfigurationException("A maze must be at least "
+                + MIN_WIDTH + "x" + MIN_HEIGHT + " squares, not " + width + "x" + height);
+        }
+        // The maze is generated at odd sizes, so the lattice is symmetric;
+        // an even width doubles the middle column, an even height adds a wall.
+        int oddWidth = width - 1 + width % 2;
+        int oddHeight = height - 1 + height % 2;
+        int center = oddWidth / 2;
+        int latticeWidth = (center + 1) / 2;
+        int latticeHeight = oddHeight / 2;
+        int bands = (latticeHeight + BAND_ROWS - 1) / BAND_ROWS;
+
+        byte[][] rows = new byte[height][];
+        rows[0] = walls(oddWidth);
+        for (int band = 1; band < bands; band++) {
+            rows[2 * band * BAND_ROWS] = walls(oddWidth);
+        }
+        for (int y = oddHeight - 1; y < height; y++) {
+            rows[y] = walls(oddWidth);
+        }
+        IntStream.range(0, bands).parallel().forEach(band ->
+            carveBand(rows, band, center, latticeWidth, latticeHeight));
+
+        SplittableRandom random = new SplittableRandom(mix(-1));
+        joinBands(rows, bands, center, latticeWidth, random);
+        addTunnels(rows, oddWidth, latticeHeight, random);
+        addGhostHouse(rows, center, latticeHeight);
+
+        if (width != oddWidth) {
+            for (int y = 0; y < height; y++) {
+                byte[] row = new byte[width];
+                System.arraycopy(rows[y], 0, row, 0, center + 1);
+                System.arraycopy(rows[y], center, row, center + 1, oddWidth - center);
+                rows[y] = row;
+            }
+        }
+        return rows;
+    }
+
+    private static byte[] walls(int width) {
+        byte[] row = new byte[width];
+        Arrays.fill(row, WALL);
+        return row;
+    }
+
+    /**
+     * Carves the corridors of one band of the left half of the lattice, and
+     * mirrors them onto the right half.
+     */
+    private void carveBand(byte[][] rows, int band, int center, int latticeWidth,
+                           int latticeHeight) {
+        int fromLy = band * BAND_ROWS;
+        int toLy = Math.min(fromLy + BAND_ROWS, latticeHeight);
+        int bandRows = toLy - fromLy;
+        int width = 2 * center + 1;
+        for (int y = 2 * fromLy + 1; y < 2 * toLy; y++) {
+            rows[y] = walls(width);
+        }
+        SplittableRandom random = new SplittableRandom(mix(band));
+
+        int cells = latticeWidth * bandRows;
+        boolean[] visited = new boolean[cells];
+        int[] stack = new int[cells];
+        int[] options = new int[4];
+        int top = 0;
+        int start = random.nextInt(cells);
+        visited[start] = true;
+        open(rows, fromLy, latticeWidth, start, start);
+        stack[top++] = start;
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int count = neighbours(cell, latticeWidth, bandRows, options, visited, false);
+            if (count == 0) {
+                top--;
+                continue;
+            }
+            int next = options[random.nextInt(count)];
+            visited[next] = true;
+            open(rows, fromLy, latticeWidth, cell, next);
+            stack[top++] = next;
+        }
+
+        for (int cell = 0; cell < cells; cell++) {
+            int count = neighbours(cell, latticeWidth, bandRows, options, visited, true);
+            int closed = 0;
+            for (int i = 0; i < count; i++) {
+                if (!isOpen(rows, fromLy, latticeWidth, cell, options[i])) {
+                    options[closed++] = options[i];
+                }
+            }
+            if (count - closed == 1 && closed > 0) {
+                open(rows, fromLy, latticeWidth, cell, options[random.nextInt(closed)]);
+            }
+        }
+
+        if (center % 2 == 0) {
+            int ly = fromLy + random.nextInt(bandRows);
+            rows[2 * ly + 1][center] = PELLET;
+        }
+        for (int y = 2 * fromLy + 1; y < 2 * toLy; y++) {
+            byte[] row = rows[y];
+            for (int x = 0; x < center; x++) {
+                row[width - 1 - x] = row[x];
+            }
+        }
+    }
+
+    /**
+     * Collects the neighbours of a lattice cell within the band: all of them,
+     * or only those not visited yet.
+     *
+     * @return The number of neighbours collected.
+     */
+    private static int neighbours(int cell, int latticeWidth, int bandRows, int[] options,
+                                  boolean[] visited, boolean all) {
+        int lx = cell % latticeWidth;
+        int ly = cell / latticeWidth;
+        int count = 0;
+        if (lx > 0 && (all || !visited[cell - 1])) {
+            options[count++] = cell - 1;
+        }
+        if (lx < latticeWidth - 1 && (all || !visited[cell + 1])) {
+            options[count++] = cell + 1;
+        }
+        if (ly > 0 && (all || !visited[cell - latticeWidth])) {
+            options[count++] = cell - latticeWidth;
+        }
+        if (ly < bandRows - 1 && (all || !visited[cell + latticeWidth])) {
+            options[count++] = cell + latticeWidth;
+        }
+        return count;
+    }
+
+    private static boolean isOpen(byte[][] rows, int fromLy, int latticeWidth, int from,
+                                  int to) {
+        int x = (from % latticeWidth) + (to % latticeWidth) + 1;
+        int y = (from / latticeWidth) + (to / latticeWidth) + 2 * fromLy + 1;
+        return rows[y][x] != WALL;
+    }
+
+    /**
+     * Opens two adjacent lattice cells of a band and the wall between them.
+     */
+    private static void open(byte[][] rows, int fromLy, int latticeWidth, int from, int to) {
+        int fromX = 2 * (from % latticeWidth) + 1;
+        int fromY = 2 * (fromLy + from / latticeWidth) + 1;
+        int toX = 2 * (to % latticeWidth) + 1;
+        int toY = 2 * (fromLy + to / latticeWidth) + 1;
+        rows[fromY][fromX] = PELLET;
+        rows[(fromY + toY) / 2][(fromX + toX) / 2] = PELLET;
+        rows[toY][toX] = PELLET;
+    }
+
+    /**
+     * Opens passages through the walls between consecutive bands.
+     */
+    private static void joinBands(byte[][] rows, int bands, int center, int latticeWidth,
+                                  SplittableRandom random) {
+        int width = 2 * center + 1;
+        int passages = Math.max(1, latticeWidth / 8);
+        for (int band = 1; band < bands; band++) {
+            byte[] row = rows[2 * band * BAND_ROWS];
+            for (int i = 0; i < passages; i++) {
+                int x = 2 * random.nextInt(latticeWidth) + 1;
+                row[x] = PELLET;
+                row[width - 1 - x] = PELLET;
+            }
+        }
+    }
+
+    /**
+     * Opens tunnels through the left and right edges, which lead to each
+     * other since the board wraps around.
+     */
+    private static void addTunnels(byte[][] rows, int width, int latticeHeight,
+                                   SplittableRandom random) {
+        int tunnels = Math.max(1, latticeHeight / 16);
+        for (int i = 0; i < tunnels; i++) {
+            int y = 2 * random.nextInt(latticeHeight) + 1;
+            rows[y][0] = PELLET;
+            rows[y][width - 1] = PELLET;
+        }
+    }
+
+    /**
+     * Places the ghost house in the middle of the maze: a box with the
+     * ghosts and a door at the top, surrounded by a corridor that joins the
+     * maze around it. The player starts below the house.
+     */
+    private static void addGhostHouse(byte[][] rows, int centerX, int centerY) {
+        for (int y = centerY - 3; y <= centerY + 3; y++) {
+            for (int x = centerX - 4; x <= centerX + 4; x++) {
+                int dx = Math.abs(x - centerX);
+                int dy = Math.abs(y - centerY);
+                if (dx == 4 || dy == 3) {
+                    rows[y][x] = PELLET;
+                } else if (dx == 3 || dy == 2) {
+                    rows[y][x] = WALL;
+                } else {
+                    rows[y][x] = EMPTY;
+                }
+            }
+        }
+        rows[centerY - 2][centerX] = EMPTY;
+        rows[centerY][centerX - 1] = GHOST;
+        rows[centerY][centerX] = GHOST;
+        rows[centerY][centerX + 1] = GHOST;
+        rows[centerY - 1][centerX] = GHOST;
+        rows[centerY + 3][centerX] = PLAYER;
+    }
+
+    private long mix(int band) {
+        return seed + band * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Generates a maze into a text file.
+     *
+     * @param args
+     *            The width and height of the maze, the seed and the file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.err.println("usage: MazeGenerator <width> <height> <seed> <map.txt>");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            new MazeGenerator(Long.parseLong(args[2])).write(Integer.parseInt(args[0]),
+                Integer.parseInt(args[1]), Paths.get(args[3]));
+            System.out.printf("generated %sx%s maze in %.1f ms%n", args[0], args[1],
+                (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IOException | NumberFormatException | PacmanConfigurationException e) {
+            System.err.println("Unable to generate maze: " + e.getMessage());
+        }
+    }
+}
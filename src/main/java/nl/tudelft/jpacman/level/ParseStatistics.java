@@ -0,0 +1,92 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * The size of a parsed map and the time it took to parse it.
+ */
+public final class ParseStatistics {
+
+    /**
+     * The number of bytes of map text parsed.
+     */
+    private final long bytes;
+
+    /**
+     * The width of the map in squares.
+     */
+    private final int width;
+
+    /**
+     * The height of the map in squares.
+     */
+    private final int height;
+
+    /**
+     * The time it took to parse the map and build its squares, in
+     * nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * Creates the statistics of a parsed map.
+     *
+     * @param bytes
+     *            The number of bytes of map text parsed.
+     * @param width
+     *            The width of the map in squares.
+     * @param height
+     *            The height of the map in squares.
+     * @param nanos
+     *            The time it took to parse the map, in nanoseconds.
+     */
+    ParseStatistics(long bytes, int width, int height, long nanos) {
+        this.bytes = bytes;
+        this.width = width;
+        this.height = height;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return The number of bytes of map text parsed.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return The width of the map in squares.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The height of the map in squares.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The time it took to parse the map in milliseconds.
+     */
+    public double getParseTime() {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * @return The number of megabytes of map text parsed per second, or
+     *         <code>0</code> if the time was too short to measure.
+     */
+    public double getThroughput() {
+        if (nanos == 0) {
+            return 0;
+        }
+        return bytes / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%dx%d squares, %d bytes in %.1f ms (%.1f MB/s)",
+            width, height, bytes, getParseTime(), getThroughput());
+    }
+}
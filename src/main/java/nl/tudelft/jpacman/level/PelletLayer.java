@@ -0,0 +1,194 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * The regular pellets of a level, stored compactly per cell of the board
+ * instead of as a {@link Pellet} unit on every square: one bit per cell tells
+ * whether a pellet is present, and a small palette index per cell gives its
+ * value. {@link Pellet} units remain available for special items.
+ *
+ * Cells are indexed as <code>y * width + x</code>.
+ */
+public class PelletLayer {
+
+    /**
+     * The maximum number of distinct pellet values in a layer.
+     */
+    private static final int MAX_VALUES = 256;
+
+    /**
+     * The width of the board.
+     */
+    private final int width;
+
+    /**
+     * The height of the board.
+     */
+    private final int height;
+
+    /**
+     * The sprite drawn on cells with a pellet.
+     */
+    private final Sprite sprite;
+
+    /**
+     * Which cells have a pellet.
+     */
+    private final SharedBitmap present;
+
+    /**
+     * The index into {@link #palette} of the value of every cell's pellet.
+     */
+    private final byte[] valueIndex;
+
+    /**
+     * The distinct pellet values.
+     */
+    private int[] palette;
+
+    /**
+     * Creates a new layer without pellets.
+     *
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     * @param sprite
+     *            The sprite drawn on cells with a pellet.
+     */
+    public PelletLayer(int width, int height, Sprite sprite) {
+        assert width >= 0 && height >= 0;
+        this.width = width;
+        this.height = height;
+        this.sprite = sprite;
+        this.present = new SharedBitmap(width * height);
+        this.valueIndex = new byte[width * height];
+        this.palette = new int[0];
+    }
+
+    /**
+     * @return The width of the board.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The height of the board.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The sprite drawn on cells with a pellet.
+     */
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    /**
+     * Places a pellet on a cell.
+     *
+     * @param x
+     *            The column of the cell.
+     * @param y
+     *            The row of the cell.
+     * @param value
+     *            The point value of the pellet.
+     */
+    public void add(int x, int y, int value) {
+        int cell = cell(x, y);
+        valueIndex[cell] = (byte) paletteIndex(value);
+        present.set(cell, true);
+    }
+
+    private int paletteIndex(int value) {
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i] == value) {
+                return i;
+            }
+        }
+        assert palette.length < MAX_VALUES : "Too many distinct pellet values.";
+        palette = Arrays.copyOf(palette, palette.length + 1);
+        palette[palette.length - 1] = value;
+        return palette.length - 1;
+    }
+
+    /**
+     * Determines whether a cell has a pellet.
+     *
+     * @param x
+     *            The column of the cell.
+     * @param y
+     *            The row of the cell.
+     * @return <code>true</code> iff there is a pellet on the cell.
+     */
+    public boolean has(int x, int y) {
+        return present.get(cell(x, y));
+    }
+
+    /**
+     * Removes the pellet from a cell.
+     *
+     * @param x
+     *            The column of the cell.
+     * @param y
+     *            The row of the cell.
+     * @return The value of the pellet that was removed, or <code>0</code> if
+     *         there was no pellet on the cell.
+     */
+    public int eat(int x, int y) {
+        int cell = cell(x, y);
+        if (!present.get(cell)) {
+            return 0;
+        }
+        present.set(cell, false);
+        return palette[valueIndex[cell] & (MAX_VALUES - 1)];
+    }
+
+    /**
+     * @return The number of pellets left.
+     */
+    public int remaining() {
+        return present.cardinality();
+    }
+
+    /**
+     * @return The total value of the pellets left.
+     */
+    public int remainingValue() {
+        int total = 0;
+        for (int cell = 0; cell < valueIndex.length; cell++) {
+            if (present.get(cell)) {
+                total += palette[valueIndex[cell] & (MAX_VALUES - 1)];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return The frozen pellet bitmap, shared until the next change.
+     */
+    long[][] freeze() {
+        return present.freeze();
+    }
+
+    /**
+     * Puts back the pellets of a frozen bitmap.
+     *
+     * @param frozen
+     *            A bitmap obtained from {@link #freeze()} on this layer.
+     */
+    void restore(long[][] frozen) {
+        present.restore(frozen, cell -> { });
+    }
+
+    private int cell(int x, int y) {
+        assert x >= 0 && x < width && y >= 0 && y < height;
+        return y * width + x;
+    }
+}
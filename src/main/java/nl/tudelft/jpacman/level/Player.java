@@ -1,6 +1,8 @@
 package nl.tudelft.jpacman.level;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.dynatrace.openkit.api.Session;
 import nl.tudelft.jpacman.OpenKitSingleton;
@@ -36,6 +38,11 @@ public class Player extends Unit {
      */
     private boolean alive;
 
+    /**
+     * The observers notified when the score or life of this player changes.
+     */
+    private final List<PlayerObserver> observers;
+
     /**
      * Creates a new player with a score of 0 points.
      *
@@ -50,9 +57,31 @@ public class Player extends Unit {
         this.alive = true;
         this.sprites = spriteMap;
         this.deathSprite = deathAnimation;
+        this.observers = new CopyOnWriteArrayList<>();
         deathSprite.setAnimating(false);
     }
 
+    /**
+     * Adds an observer that will be notified when the score or life of this
+     * player changes. Observers are notified on the thread making the change.
+     *
+     * @param observer
+     *            The observer that will be notified.
+     */
+    public void addObserver(PlayerObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Removes an observer if it was listed.
+     *
+     * @param observer
+     *            The observer to be removed.
+     */
+    public void removeObserver(PlayerObserver observer) {
+        observers.remove(observer);
+    }
+
     /**
      * Returns whether this player is alive or not.
      *
@@ -83,7 +112,11 @@ public class Player extends Unit {
                            .leaveAction();
             }
         }
+        boolean changed = alive != isAlive;
         this.alive = isAlive;
+        if (changed) {
+            notifyAliveChanged();
+        }
     }
 
     /**
@@ -103,6 +136,31 @@ public class Player extends Unit {
         return deathSprite;
     }
 
+    /**
+     * Resets the score and life of this player, e.g. when a
+     * {@link LevelSnapshot} is restored.
+     *
+     * @param newScore
+     *            The score of this player.
+     * @param isAlive
+     *            <code>true</code> iff this player is alive.
+     */
+    void restore(int newScore, boolean isAlive) {
+        boolean scoreChanged = score != newScore;
+        boolean aliveChanged = alive != isAlive;
+        this.score = newScore;
+        if (isAlive) {
+            deathSprite.setAnimating(false);
+        }
+        this.alive = isAlive;
+        if (scoreChanged) {
+            notifyScoreChanged();
+        }
+        if (aliveChanged) {
+            notifyAliveChanged();
+        }
+    }
+
     /**
      * Adds points to the score of this player.
      *
@@ -112,5 +170,47 @@ public class Player extends Unit {
      */
     public void addPoints(int points) {
         score += points;
+        if (points != 0) {
+            notifyScoreChanged();
+        }
+    }
+
+    private void notifyScoreChanged() {
+        for (PlayerObserver observer : observers) {
+            observer.scoreChanged(this, score);
+        }
+    }
+
+    private void notifyAliveChanged() {
+        for (PlayerObserver observer : observers) {
+            observer.aliveChanged(this, alive);
+        }
+    }
+
+    /**
+     * An observer that will be notified when the score or life of a player
+     * changes.
+     */
+    public interface PlayerObserver {
+
+        /**
+         * The score of the player has changed.
+         *
+         * @param player
+         *            The player whose score changed.
+         * @param newScore
+         *            The new score of the player.
+         */
+        void scoreChanged(Player player, int newScore);
+
+        /**
+         * The player has died or been revived.
+         *
+         * @param player
+         *            The player whose life changed.
+         * @param isAlive
+         *            <code>true</code> iff the player is now alive.
+         */
+        void aliveChanged(Player player, boolean isAlive);
     }
 }
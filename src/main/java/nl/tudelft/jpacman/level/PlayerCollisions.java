@@ -1,5 +1,6 @@
 package nl.tudelft.jpacman.level;
 
+import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.npc.ghost.Ghost;
 
@@ -29,6 +30,13 @@ public class PlayerCollisions implements CollisionMap {
         }
     }
 
+    @Override
+    public void collide(Unit mover, Square square, PelletLayer pellets) {
+        if (mover instanceof Player) {
+            playerVersusPellet((Player) mover, square, pellets);
+        }
+    }
+
     private void playerColliding(Player player, Unit collidedOn) {
         if (collidedOn instanceof Ghost) {
             playerVersusGhost(player, (Ghost) collidedOn);
@@ -72,4 +80,15 @@ public class PlayerCollisions implements CollisionMap {
         player.addPoints(pellet.getValue());
     }
 
+    /**
+     * Actual case of player consuming a pellet of the pellet layer.
+     *
+     * @param player The player involved in the collision.
+     * @param square The square with the pellet.
+     * @param pellets The pellet layer holding the pellet.
+     */
+    public void playerVersusPellet(Player player, Square square, PelletLayer pellets) {
+        player.addPoints(pellets.eat(square.getX(), square.getY()));
+    }
+
 }
@@ -0,0 +1,159 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A fixed size bitmap that can be frozen cheaply. The bits are stored in
+ * chunks; freezing the bitmap hands out the current chunks, which are never
+ * modified again, and the next write to a chunk copies it first. Successive
+ * frozen copies therefore share every chunk that did not change in between.
+ */
+final class SharedBitmap {
+
+    /**
+     * The number of bits in a word.
+     */
+    private static final int WORD_BITS = 64;
+
+    /**
+     * The number of words in a chunk.
+     */
+    private static final int CHUNK_WORDS = 64;
+
+    /**
+     * The number of bits in a chunk.
+     */
+    private static final int CHUNK_BITS = WORD_BITS * CHUNK_WORDS;
+
+    /**
+     * The number of bits in this bitmap.
+     */
+    private final int size;
+
+    /**
+     * The chunks of words holding the bits.
+     */
+    private long[][] chunks;
+
+    /**
+     * For every chunk, whether this bitmap owns it and may thus write to it,
+     * or whether it is shared with a frozen copy.
+     */
+    private boolean[] owned;
+
+    /**
+     * The number of bits that are set.
+     */
+    private int cardinality;
+
+    /**
+     * Creates a new bitmap with all bits cleared.
+     *
+     * @param size
+     *            The number of bits.
+     */
+    SharedBitmap(int size) {
+        assert size >= 0;
+        this.size = size;
+        int chunkCount = (size + CHUNK_BITS - 1) / CHUNK_BITS;
+        this.chunks = new long[chunkCount][CHUNK_WORDS];
+        this.owned = new boolean[chunkCount];
+        Arrays.fill(owned, true);
+        this.cardinality = 0;
+    }
+
+    /**
+     * @return The number of bits in this bitmap.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of bits that are set.
+     */
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Returns the value of a bit.
+     *
+     * @param index
+     *            The index of the bit.
+     * @return <code>true</code> iff the bit is set.
+     */
+    boolean get(int index) {
+        assert index >= 0 && index < size;
+        return (chunks[index / CHUNK_BITS][index % CHUNK_BITS / WORD_BITS]
+            & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets or clears a bit, copying its chunk first if it is shared.
+     *
+     * @param index
+     *            The index of the bit.
+     * @param value
+     *            The new value of the bit.
+     */
+    void set(int index, boolean value) {
+        if (get(index) == value) {
+            return;
+        }
+        int chunk = index / CHUNK_BITS;
+        if (!owned[chunk]) {
+            chunks[chunk] = chunks[chunk].clone();
+            owned[chunk] = true;
+        }
+        chunks[chunk][index % CHUNK_BITS / WORD_BITS] ^= 1L << index;
+        if (value) {
+            cardinality++;
+        } else {
+            cardinality--;
+        }
+    }
+
+    /**
+     * Freezes the current bits. The returned chunks are shared with this
+     * bitmap until it is written to, and must not be modified.
+     *
+     * @return The chunks holding the current bits.
+     */
+    long[][] freeze() {
+        Arrays.fill(owned, false);
+        return chunks.clone();
+    }
+
+    /**
+     * Resets this bitmap to frozen bits, reporting every bit that changes.
+     * Only chunks that are not shared with the frozen bits are compared.
+     *
+     * @param frozen
+     *            Chunks obtained from {@link #freeze()} on this bitmap.
+     * @param changed
+     *            Receives the index of every bit that changed value.
+     */
+    void restore(long[][] frozen, IntConsumer changed) {
+        assert frozen.length == chunks.length;
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            long[] current = chunks[chunk];
+            long[] target = frozen[chunk];
+            if (current == target) {
+                continue;
+            }
+            for (int word = 0; word < CHUNK_WORDS; word++) {
+                long diff = current[word] ^ target[word];
+                cardinality += Long.bitCount(target[word]) - Long.bitCount(current[word]);
+                while (diff != 0) {
+                    int bit = Long.numberOfTrailingZeros(diff);
+                    changed.accept(chunk * CHUNK_BITS + word * WORD_BITS + bit);
+                    diff &= diff - 1;
+                }
+            }
+        }
+        this.chunks = frozen.clone();
+        this.owned = new boolean[chunks.length];
+    }
+}
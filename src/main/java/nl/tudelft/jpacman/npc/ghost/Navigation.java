@@ -8,6 +8,7 @@ import java.util.Set;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.profiling.PathSearchEvent;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -45,19 +46,34 @@ public final class Navigation {
             return new ArrayList<>();
         }
 
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+
+        List<Direction> path = null;
         List<Node> targets = new ArrayList<>();
         Set<Square> visited = new HashSet<>();
         targets.add(new Node(null, from, null));
         while (!targets.isEmpty()) {
             Node node = targets.remove(0);
+            event.nodesExpanded++;
             Square square = node.getSquare();
             if (square.equals(to)) {
-                return node.getPath();
+                path = node.getPath();
+                break;
             }
             visited.add(square);
             addNewTargets(traveller, targets, visited, node, square);
         }
-        return null;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.search = "shortestPath";
+            event.traveller = traveller == null ? "" : traveller.getID();
+            event.found = path != null;
+            event.pathLength = path == null ? -1 : path.size();
+            event.commit();
+        }
+        return path;
     }
 
     private static void addNewTargets(@Nullable Unit traveller, List<Node> targets,
@@ -85,27 +101,55 @@ public final class Navigation {
      */
     public @Nullable static Unit findNearest(Class<? extends Unit> type,
                                              Square currentLocation) {
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+
+        Unit nearest = null;
+        int distance = -1;
         List<Square> toDo = new ArrayList<>();
         Set<Square> visited = new HashSet<>();
 
         toDo.add(currentLocation);
+        // the queue holds one distance after the other; count down the
+        // squares left at the current one instead of queueing distances.
+        int steps = 0;
+        int leftAtSteps = 1;
+        int queuedAtNextSteps = 0;
 
         while (!toDo.isEmpty()) {
             Square square = toDo.remove(0);
+            event.nodesExpanded++;
             Unit unit = findUnit(type, square);
             if (unit != null) {
                 assert unit.hasSquare();
-                return unit;
+                nearest = unit;
+                distance = steps;
+                break;
             }
             visited.add(square);
             for (Direction direction : Direction.values()) {
                 Square newTarget = square.getSquareAt(direction);
                 if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
                     toDo.add(newTarget);
+                    queuedAtNextSteps++;
                 }
             }
+            leftAtSteps--;
+            if (leftAtSteps == 0) {
+                steps++;
+                leftAtSteps = queuedAtNextSteps;
+                queuedAtNextSteps = 0;
+            }
         }
-        return null;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.search = "findNearest";
+            event.found = nearest != null;
+            event.pathLength = distance;
+            event.commit();
+        }
+        return nearest;
     }
 
     /**
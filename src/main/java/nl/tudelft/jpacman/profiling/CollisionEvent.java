@@ -0,0 +1,30 @@
+package nl.tudelft.jpacman.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every collision handed to a
+ * {@link nl.tudelft.jpacman.level.CollisionMap}.
+ */
+@Name("nl.tudelft.jpacman.Collision")
+@Label("Collision")
+@Category({"JPacman", "Game"})
+@Description("Two units colliding on the same square.")
+public class CollisionEvent extends Event {
+
+    /**
+     * The simple class name of the unit that moved onto the square.
+     */
+    @Label("Collider")
+    public String collider = "";
+
+    /**
+     * The simple class name of the unit that was already on the square.
+     */
+    @Label("Collidee")
+    public String collidee = "";
+}
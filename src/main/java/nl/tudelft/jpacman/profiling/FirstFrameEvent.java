@@ -0,0 +1,26 @@
+package nl.tudelft.jpacman.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded once, when the user interface draws its first frame, to track
+ * how long the game takes to start.
+ */
+@Name("nl.tudelft.jpacman.FirstFrame")
+@Label("First Frame")
+@Category({"JPacman", "UI"})
+@Description("The first frame of the user interface since the JVM started.")
+public class FirstFrameEvent extends Event {
+
+    /**
+     * The time from the start of the JVM until the first frame.
+     */
+    @Label("Time To First Frame")
+    @Timespan(Timespan.MILLISECONDS)
+    public long uptime;
+}
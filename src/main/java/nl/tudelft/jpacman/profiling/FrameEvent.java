@@ -0,0 +1,23 @@
+package nl.tudelft.jpacman.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every frame requested by the user interface.
+ */
+@Name("nl.tudelft.jpacman.Frame")
+@Label("Frame")
+@Category({"JPacman", "UI"})
+@Description("The user interface preparing the next frame.")
+public class FrameEvent extends Event {
+
+    /**
+     * The sequence number of the frame since the UI was started.
+     */
+    @Label("Frame Number")
+    public long frame;
+}
@@ -0,0 +1,33 @@
+package nl.tudelft.jpacman.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded for every key press applied to the game. The duration covers
+ * applying the action; the latency is the time from the key press until the
+ * action was applied.
+ */
+@Name("nl.tudelft.jpacman.Input")
+@Label("Input")
+@Category({"JPacman", "UI"})
+@Description("A key press applied to the game by the input thread.")
+public class InputEvent extends Event {
+
+    /**
+     * The time from the key press until the action was applied.
+     */
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+
+    /**
+     * The number of earlier attempts that could not be applied.
+     */
+    @Label("Retries")
+    public int retries;
+}
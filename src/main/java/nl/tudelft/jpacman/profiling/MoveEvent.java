@@ -0,0 +1,49 @@
+package nl.tudelft.jpacman.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every call to {@link nl.tudelft.jpacman.level.Level#move}.
+ * The duration covers the time spent waiting for the move lock as well as the
+ * move and its collisions, so lock contention shows up as long moves.
+ */
+@Name("nl.tudelft.jpacman.Move")
+@Label("Unit Move")
+@Category({"JPacman", "Game"})
+@Description("A unit attempting to move one square on the board.")
+public class MoveEvent extends Event {
+
+    /**
+     * The identifier of the unit that moved.
+     */
+    @Label("Unit")
+    public String unit = "";
+
+    /**
+     * The simple class name of the unit that moved.
+     */
+    @Label("Unit Type")
+    public String unitType = "";
+
+    /**
+     * The direction the unit attempted to move in.
+     */
+    @Label("Direction")
+    public String direction = "";
+
+    /**
+     * Whether the destination square was accessible.
+     */
+    @Label("Moved")
+    public boolean moved;
+
+    /**
+     * The number of units collided with on the destination square.
+     */
+    @Label("Collisions")
+    public int collisions;
+}
@@ -0,0 +1,50 @@
+package nl.tudelft.jpacman.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every breadth first search performed by
+ * {@link nl.tudelft.jpacman.npc.ghost.Navigation}.
+ */
+@Name("nl.tudelft.jpacman.PathSearch")
+@Label("Path Search")
+@Category({"JPacman", "AI"})
+@Description("A breadth first search over the board on behalf of a ghost.")
+public class PathSearchEvent extends Event {
+
+    /**
+     * The search that was performed, e.g. <code>shortestPath</code>.
+     */
+    @Label("Search")
+    public String search = "";
+
+    /**
+     * The identifier of the unit on whose behalf the search was done, or an
+     * empty string if there was no traveller.
+     */
+    @Label("Traveller")
+    public String traveller = "";
+
+    /**
+     * The number of squares taken off the search queue.
+     */
+    @Label("Nodes Expanded")
+    public int nodesExpanded;
+
+    /**
+     * The length of the path found, or <code>-1</code> if the search did not
+     * produce a path.
+     */
+    @Label("Path Length")
+    public int pathLength = -1;
+
+    /**
+     * Whether the search found what it was looking for.
+     */
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,15 @@
+/**
+ * <p>
+ * Java Flight Recorder event types emitted by the game.
+ * </p>
+ *
+ * <p>
+ * The events are registered in the <code>JPacman</code> category and can be
+ * enabled or disabled per type through the usual JFR settings, e.g.
+ * <code>-XX:StartFlightRecording=settings=profile</code> or a custom
+ * <code>.jfc</code> file. When an event type is disabled (or no recording is
+ * running) the instrumented code only pays for a field write and an
+ * <code>isEnabled()</code> check, which the JIT removes altogether.
+ * </p>
+ */
+package nl.tudelft.jpacman.profiling;
@@ -0,0 +1,298 @@
+package nl.tudelft.jpacman.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records everything that happens on a level to a compact binary event log,
+ * see {@link ReplayFormat}, so that the game can be replayed exactly by a
+ * {@link GameReplayer}.
+ *
+ * Records are collected in a direct buffer. Whenever it fills up it is handed
+ * to a writer thread and recording continues in a second buffer, so
+ * recording a move only costs a few buffer writes and never waits for the
+ * disk. If writing fails the recording stops, as a log with a gap in it
+ * cannot be replayed, and the failure is thrown by {@link #close()}.
+ */
+public class GameRecorder implements Level.EventObserver, Closeable {
+
+    /**
+     * The size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The level being recorded.
+     */
+    private final Level level;
+
+    /**
+     * The log file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The thread writing full buffers to the log.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * The buffer records are added to.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The other buffer, which is being written to the log while
+     * {@link #pendingWrite} is not done.
+     */
+    private ByteBuffer spare;
+
+    /**
+     * The write of {@link #spare}, or <code>null</code> if none was handed
+     * to the writer thread since the last one completed.
+     */
+    private @Nullable Future<?> pendingWrite;
+
+    /**
+     * The first failure writing the log, or <code>null</code> if all writes
+     * succeeded so far.
+     */
+    private final AtomicReference<@Nullable IOException> failure = new AtomicReference<>();
+
+    /**
+     * The index of every unit of the level.
+     */
+    private final Map<Unit, Integer> unitIndex;
+
+    /**
+     * The {@link System#nanoTime()} stamp at which the recording started.
+     */
+    private final long start;
+
+    /**
+     * <code>true</code> iff the recording has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new recorder writing to an opened log.
+     *
+     * @param level
+     *            The level to record.
+     * @param channel
+     *            The log file.
+     */
+    private GameRecorder(Level level, FileChannel channel) {
+        this.level = level;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.spare = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replay-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.unitIndex = new IdentityHashMap<>();
+        this.start = System.nanoTime();
+
+        List<Unit> units = ReplayFormat.units(level);
+        for (int i = 0; i < units.size(); i++) {
+            unitIndex.put(units.get(i), i);
+        }
+        buffer.putInt(ReplayFormat.MAGIC)
+              .putShort(ReplayFormat.VERSION)
+              .putLong(level.getSeed())
+              .putInt(ReplayFormat.fingerprint(level))
+              .putShort((short) units.size());
+    }
+
+    /**
+     * Starts recording a level. The level must be in its initial state, with
+     * all players registered.
+     *
+     * @param level
+     *            The level to record.
+     * @param file
+     *            The file to write the event log to.
+     * @return The recorder, which should be closed when the game is over.
+     * @throws IOException
+     *             When the log could not be created.
+     * @throws PacmanConfigurationException
+     *             If the level has more than {@value ReplayFormat#MAX_UNITS}
+     *             units.
+     */
+    public static GameRecorder record(Level level, Path file) throws IOException {
+        int units = ReplayFormat.units(level).size();
+        if (units > ReplayFormat.MAX_UNITS) {
+            throw new PacmanConfigurationException("Cannot record a level with " + units
+                + " units, at most " + ReplayFormat.MAX_UNITS + " are supported.");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        GameRecorder recorder = new GameRecorder(level, channel);
+        level.addEventObserver(recorder);
+        return recorder;
+    }
+
+    @Override
+    public void unitMoved(Unit unit, Direction direction) {
+        record(ReplayFormat.MOVE, unit, direction);
+    }
+
+    @Override
+    public void moveCrashed(Unit unit, Direction direction) {
+        record(ReplayFormat.CRASH, unit, direction);
+    }
+
+    @Override
+    public void levelStarted() {
+        record(ReplayFormat.START, null, null);
+    }
+
+    @Override
+    public void levelStopped() {
+        record(ReplayFormat.STOP, null, null);
+    }
+
+    private synchronized void record(byte type, @Nullable Unit unit,
+                                     @Nullable Direction direction) {
+        if (closed || failure.get() != null) {
+            return;
+        }
+        byte unitByte = ReplayFormat.NONE;
+        if (unit != null) {
+            Integer index = unitIndex.get(unit);
+            if (index == null) {
+                return;
+            }
+            unitByte = (byte) index.intValue();
+        }
+        byte directionByte = ReplayFormat.NONE;
+        if (direction != null) {
+            directionByte = (byte) direction.ordinal();
+        }
+        if (buffer.remaining() < ReplayFormat.RECORD_SIZE) {
+            handOff();
+            if (failure.get() != null) {
+                return;
+            }
+        }
+        int tick = (int) ((System.nanoTime() - start) / 1_000_000L);
+        buffer.putInt(tick).put(type).put(unitByte).put(directionByte).put((byte) 0);
+    }
+
+    /**
+     * Hands the buffered records to the writer thread and continues in the
+     * spare buffer, once the previous write completed.
+     */
+    private void handOff() {
+        awaitWrite();
+        if (failure.get() != null) {
+            return;
+        }
+        ByteBuffer full = buffer;
+        buffer = spare;
+        spare = full;
+        full.flip();
+        pendingWrite = writer.submit(() -> write(full));
+    }
+
+    /**
+     * Writes a buffer to the log, on the writer thread.
+     *
+     * @param full
+     *            The buffer, flipped for reading.
+     */
+    private void write(ByteBuffer full) {
+        try {
+            while (full.hasRemaining()) {
+                channel.write(full);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+        full.clear();
+    }
+
+    /**
+     * Waits for the write handed to the writer thread, if any.
+     */
+    private void awaitWrite() {
+        Future<?> pending = pendingWrite;
+        if (pending == null) {
+            return;
+        }
+        pendingWrite = null;
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new InterruptedIOException("Interrupted while writing game recording."));
+        } catch (ExecutionException e) {
+            fail(new IOException("Unable to write game recording.", e.getCause()));
+        }
+    }
+
+    /**
+     * Stops recording after a failure, keeping the first one.
+     *
+     * @param e
+     *            The failure.
+     */
+    private void fail(IOException e) {
+        failure.compareAndSet(null, e);
+    }
+
+    /**
+     * Writes all buffered records to the log. If a write failed, nothing is
+     * written any more; the failure is thrown by {@link #close()}.
+     */
+    public synchronized void flush() {
+        handOff();
+        awaitWrite();
+    }
+
+    /**
+     * Stops recording, and writes all buffered records to the log.
+     *
+     * @throws IOException
+     *             When the log could not be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        level.removeEventObserver(this);
+        try {
+            flush();
+        } finally {
+            closed = true;
+            writer.shutdown();
+            channel.close();
+        }
+        IOException failed = failure.get();
+        if (failed != null) {
+            throw failed;
+        }
+    }
+}
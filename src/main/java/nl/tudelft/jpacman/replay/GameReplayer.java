@@ -0,0 +1,267 @@
+package nl.tudelft.jpacman.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level;
+
+/**
+ * Replays an event log written by a {@link GameRecorder} on a fresh game,
+ * without any user interface.
+ *
+ * The level of the game is made headless, so its NPCs only move as recorded
+ * and the end of the game is not reported. Since every move, including every
+ * NPC decision, is in the log, the replay ends in exactly the same state as
+ * the recorded game.
+ */
+public class GameReplayer implements Closeable {
+
+    /**
+     * The size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The log file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The records read from the log, but not replayed yet.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The seed of the recorded level.
+     */
+    private final long seed;
+
+    /**
+     * The fingerprint of the recorded level.
+     */
+    private final int fingerprint;
+
+    /**
+     * The number of units on the recorded level.
+     */
+    private final int unitCount;
+
+    /**
+     * <code>true</code> iff the replay reached a simulated crash.
+     */
+    private boolean crashed;
+
+    /**
+     * Creates a new replayer on an opened log.
+     *
+     * @param channel
+     *            The log file.
+     * @param buffer
+     *            The read buffer, positioned right after the magic number and
+     *            version in the header.
+     */
+    private GameReplayer(FileChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.seed = buffer.getLong();
+        this.fingerprint = buffer.getInt();
+        this.unitCount = buffer.getShort();
+    }
+
+    /**
+     * Opens an event log for replay.
+     *
+     * @param file
+     *            The event log.
+     * @return The replayer, which should be closed after the replay.
+     * @throws IOException
+     *             When the log could not be read.
+     */
+    public static GameReplayer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.flip();
+        if (!fill(channel, buffer, ReplayFormat.HEADER_SIZE)
+            || buffer.getInt() != ReplayFormat.MAGIC
+            || buffer.getShort() != ReplayFormat.VERSION) {
+            channel.close();
+            throw new PacmanConfigurationException("Not a game recording: " + file);
+        }
+        return new GameReplayer(channel, buffer);
+    }
+
+    /**
+     * Replays the log on the given game, which must be in its initial state.
+     *
+     * @param game
+     *            The game to replay the recording on.
+     * @param speed
+     *            The speed relative to the recording, e.g. <code>1000</code>
+     *            for 1000 times real time. Any value of zero or less, or
+     *            infinity, replays as fast as possible.
+     * @return The number of events replayed.
+     * @throws IOException
+     *             When the log could not be read.
+     */
+    public int replay(Game game, double speed) throws IOException {
+        return replay(game, speed, tick -> { });
+    }
+
+    /**
+     * Replays the log on the given game, which must be in its initial state,
+     * notifying a listener of the tick of every event before it is replayed.
+     *
+     * @param game
+     *            The game to replay the recording on.
+     * @param speed
+     *            The speed relative to the recording, e.g. <code>1000</code>
+     *            for 1000 times real time. Any value of zero or less, or
+     *            infinity, replays as fast as possible.
+     * @param listener
+     *            The listener notified before every event.
+     * @return The number of events replayed.
+     * @throws IOException
+     *             When the log could not be read, or the listener failed.
+     */
+    public int replay(Game game, double speed, TickListener listener) throws IOException {
+        Level level = game.getLevel();
+        List<Unit> units = ReplayFormat.units(level);
+        if (units.size() != unitCount || ReplayFormat.fingerprint(level) != fingerprint) {
+            throw new PacmanConfigurationException(
+                "The recording was made on a different level.");
+        }
+        level.setHeadless(true);
+        level.setSeed(seed);
+
+        Direction[] directions = Direction.values();
+        long start = System.nanoTime();
+        int events = 0;
+        while (fill(channel, buffer, ReplayFormat.RECORD_SIZE)) {
+            int tick = buffer.getInt();
+            byte type = buffer.get();
+            int unit = buffer.get() & 0xFF;
+            byte direction = buffer.get();
+            buffer.get();
+
+            waitFor(start, tick, speed);
+            listener.beforeEvent(tick);
+            switch (type) {
+                case ReplayFormat.MOVE:
+                    if (unit >= units.size()
+                        || direction < 0 || direction >= directions.length) {
+                        throw new PacmanConfigurationException("Corrupt game recording.");
+                    }
+                    level.move(units.get(unit), directions[direction]);
+                    break;
+                case ReplayFormat.CRASH:
+                    crashed = true;
+                    level.stop();
+                    break;
+                case ReplayFormat.START:
+                    game.start();
+                    break;
+                case ReplayFormat.STOP:
+                    game.stop();
+                    level.stop();
+                    break;
+                default:
+                    throw new PacmanConfigurationException("Corrupt game recording.");
+            }
+            events++;
+        }
+        return events;
+    }
+
+    /**
+     * Waits until the tick of the next event is due.
+     */
+    private static void waitFor(long start, int tick, double speed) {
+        if (speed <= 0 || Double.isInfinite(speed)) {
+            return;
+        }
+        long due = start + (long) (TimeUnit.MILLISECONDS.toNanos(tick) / speed);
+        long delay = due - System.nanoTime();
+        while (delay > 0) {
+            LockSupport.parkNanos(delay);
+            delay = due - System.nanoTime();
+        }
+    }
+
+    /**
+     * Makes sure the buffer holds at least the given number of bytes, reading
+     * more of the log if needed.
+     *
+     * @param channel
+     *            The log file.
+     * @param buffer
+     *            The read buffer, ready to be read from.
+     * @param bytes
+     *            The number of bytes required.
+     * @return <code>false</code> iff the log ended before that many bytes
+     *         could be read.
+     * @throws IOException
+     *             When the log could not be read.
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int bytes)
+        throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        int read = 0;
+        while (buffer.position() < bytes && read >= 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    /**
+     * @return The seed of the recorded level.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return <code>true</code> iff the replay reached the simulated crash
+     *         of the buggy mode.
+     */
+    public boolean isCrashed() {
+        return crashed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A listener following the time line of a replay, e.g. to render the
+     * game at regular intervals.
+     */
+    public interface TickListener {
+
+        /**
+         * The next event is about to be replayed.
+         *
+         * @param tick
+         *            The time of the event in milliseconds since the
+         *            recording started.
+         * @throws IOException
+         *             When the listener fails, which aborts the replay.
+         */
+        void beforeEvent(int tick) throws IOException;
+    }
+}
@@ -0,0 +1,138 @@
+package nl.tudelft.jpacman.replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.ChunkedBoard;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+
+/**
+ * The binary layout of a game event log.
+ *
+ * <p>
+ * A log starts with a header of {@value #HEADER_SIZE} bytes: the magic number,
+ * the format version, the seed of the level, the fingerprint of the level's
+ * initial state and the number of units. It is followed by fixed size records
+ * of {@value #RECORD_SIZE} bytes: the tick (milliseconds since the recording
+ * started), the event type, the index of the unit as an unsigned byte and
+ * the ordinal of the direction. All values are big endian.
+ * </p>
+ *
+ * <p>
+ * Units are indexed in a fixed order: first the players in order of
+ * registration, then the NPCs in the order in which they were placed on the
+ * board.
+ * </p>
+ */
+final class ReplayFormat {
+
+    /**
+     * The magic number at the start of every log, "JPRL".
+     */
+    static final int MAGIC = 0x4A50524C;
+
+    /**
+     * The version of the format.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 4 + 2 + 8 + 4 + 2;
+
+    /**
+     * The size of a record in bytes.
+     */
+    static final int RECORD_SIZE = 8;
+
+    /**
+     * A unit attempting to move.
+     */
+    static final byte MOVE = 0;
+
+    /**
+     * The simulated crash of the buggy mode.
+     */
+    static final byte CRASH = 1;
+
+    /**
+     * The level being started.
+     */
+    static final byte START = 2;
+
+    /**
+     * The level being stopped.
+     */
+    static final byte STOP = 3;
+
+    /**
+     * The value in the unit and direction fields of records that do not
+     * concern a unit.
+     */
+    static final byte NONE = -1;
+
+    /**
+     * The maximum number of units of a recorded level, the unsigned unit
+     * byte of {@link #NONE} not being a unit.
+     */
+    static final int MAX_UNITS = 0xFF;
+
+    private ReplayFormat() {
+    }
+
+    /**
+     * Lists the units of a level in the order in which they are indexed in a
+     * log.
+     *
+     * @param level
+     *            The level.
+     * @return The players followed by the NPCs.
+     */
+    static List<Unit> units(Level level) {
+        List<Unit> units = new ArrayList<>(level.getPlayers());
+        units.addAll(level.getNpcs());
+        return units;
+    }
+
+    /**
+     * Computes a checksum of the layout of the board and the units and pellets on it, used
+     * to verify a log is replayed on the level it was recorded on. The squares of a
+     * {@link ChunkedBoard} are not created for it.
+     *
+     * @param level
+     *            The level in its initial state.
+     * @return The fingerprint of the level.
+     */
+    static int fingerprint(Level level) {
+        Board board = level.getBoard();
+        CRC32 crc = new CRC32();
+        crc.update(board.getWidth());
+        crc.update(board.getHeight());
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                update(crc, squareType(board, x, y));
+                crc.update(level.getPellets().has(x, y) ? 1 : 0);
+                for (Unit unit : board.occupantsAt(x, y)) {
+                    update(crc, unit.getClass().getName());
+                }
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private static String squareType(Board board, int x, int y) {
+        if (board instanceof ChunkedBoard) {
+            return ((ChunkedBoard) board).isWall(x, y) ? "wall" : "ground";
+        }
+        return board.squareAt(x, y).getClass().getName();
+    }
+
+    private static void update(CRC32 crc, String value) {
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
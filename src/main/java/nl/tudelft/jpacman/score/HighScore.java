@@ -0,0 +1,67 @@
+package nl.tudelft.jpacman.score;
+
+/**
+ * A single entry in the high-score table.
+ */
+public final class HighScore {
+
+    /**
+     * The name of the player who reached the score.
+     */
+    private final String player;
+
+    /**
+     * The score reached.
+     */
+    private final int score;
+
+    /**
+     * The {@link System#currentTimeMillis()} stamp at which the game ended.
+     */
+    private final long timestamp;
+
+    /**
+     * Creates a new high-score entry.
+     *
+     * @param player
+     *            The name of the player who reached the score.
+     * @param score
+     *            The score reached.
+     * @param timestamp
+     *            The time at which the game ended, in milliseconds since the
+     *            epoch.
+     */
+    public HighScore(String player, int score, long timestamp) {
+        assert player != null;
+        this.player = player;
+        this.score = score;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return The name of the player who reached the score.
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return The score reached.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return The time at which the game ended, in milliseconds since the
+     *         epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return player + ": " + score;
+    }
+}
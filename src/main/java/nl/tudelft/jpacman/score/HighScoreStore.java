@@ -0,0 +1,425 @@
+package nl.tudelft.jpacman.score;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A persistent high-score table, stored on disk as an append-only log.
+ *
+ * <p>
+ * Every game result is appended to the log as a single checksummed record and
+ * forced to disk. When the store is opened the log is read and replayed into
+ * an in-memory order statistic index; a torn record at the end of the log,
+ * left behind by a crash during an append, is detected by its checksum and
+ * cut off. A damaged record elsewhere in the log is skipped, keeping the
+ * records after it. Queries (best score per player, global top-K and
+ * percentile rank) are answered from the index in O(log n) time or better.
+ * </p>
+ *
+ * <p>
+ * Results are added to the index immediately, but written to disk on a
+ * background thread, so that recording a result never blocks the game.
+ * </p>
+ */
+public class HighScoreStore implements Closeable {
+
+    /**
+     * The magic number at the start of every high-score log, "JPHS".
+     */
+    private static final int MAGIC = 0x4A504853;
+
+    /**
+     * The version of the log format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the file header: magic number and version.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of a record without its player name: name length, score,
+     * timestamp and checksum.
+     */
+    private static final int RECORD_OVERHEAD = 2 + 4 + 8 + 4;
+
+    /**
+     * The maximum length of an encoded player name.
+     */
+    private static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+
+    /**
+     * The mask selecting the bits that mark a UTF-8 continuation byte.
+     */
+    private static final int CONTINUATION_MASK = 0xC0;
+
+    /**
+     * The bits of a UTF-8 continuation byte under {@link #CONTINUATION_MASK}.
+     */
+    private static final int CONTINUATION = 0x80;
+
+    /**
+     * The percentage scale used by {@link #percentileRank(int)}.
+     */
+    private static final double PERCENT = 100.0;
+
+    /**
+     * The log file.
+     */
+    private final FileChannel log;
+
+    /**
+     * The single thread appending records to the log.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * All results, ordered by score.
+     */
+    private final ScoreRanking ranking;
+
+    /**
+     * The best result of every player.
+     */
+    private final Map<String, HighScore> personalBests;
+
+    /**
+     * Creates a new store on top of an opened log.
+     *
+     * @param log
+     *            The log file, positioned at the end of the last valid record.
+     */
+    private HighScoreStore(FileChannel log) {
+        this.log = log;
+        this.ranking = new ScoreRanking();
+        this.personalBests = new HashMap<>();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "high-score-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the high-score log at the given location, creating it if it does
+     * not exist yet, and loads all results recorded in it.
+     *
+     * @param file
+     *            The location of the log.
+     * @return The store backed by the log.
+     * @throws IOException
+     *             When the log could not be read or created.
+     */
+    public static HighScoreStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            HighScoreStore store = new HighScoreStore(channel);
+            store.recover();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the log into the index and truncates any torn record at its end.
+     * The log is read into a heap buffer rather than mapped, so no mapping
+     * of the file is live when it is truncated.
+     *
+     * @throws IOException
+     *             When the log could not be read.
+     */
+    private void recover() throws IOException {
+        long size = log.size();
+        if (size < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            log.truncate(0);
+            log.write(header, 0);
+            log.force(true);
+            log.position(HEADER_SIZE);
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException("High-score log too large: " + size);
+        }
+
+        ByteBuffer contents = ByteBuffer.allocate((int) size);
+        while (contents.hasRemaining() && log.read(contents, contents.position()) >= 0) {
+            // read on until the buffer is full or the log ends.
+        }
+        contents.flip();
+        if (contents.getInt() != MAGIC || contents.getInt() != VERSION) {
+            throw new PacmanConfigurationException("Not a high-score log.");
+        }
+
+        int end = contents.position();
+        while (contents.hasRemaining()) {
+            int start = contents.position();
+            HighScore entry = readRecord(contents);
+            if (entry != null) {
+                index(entry);
+                end = contents.position();
+                continue;
+            }
+            int next = nextRecord(contents, start + 1);
+            if (next < 0) {
+                break;
+            }
+            System.err.println("Skipping damaged high-score record at offset " + start);
+            contents.position(next);
+        }
+
+        if (end < size) {
+            log.truncate(end);
+            log.force(true);
+        }
+        log.position(end);
+    }
+
+    /**
+     * Finds the next intact record in the log.
+     *
+     * @param buffer
+     *            The log contents.
+     * @param from
+     *            The offset to start searching at.
+     * @return The offset of the first intact record at or after
+     *         <code>from</code>, or <code>-1</code> if there is none.
+     */
+    private static int nextRecord(ByteBuffer buffer, int from) {
+        for (int offset = from; offset + RECORD_OVERHEAD <= buffer.limit(); offset++) {
+            buffer.position(offset);
+            if (readRecord(buffer) != null) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the record at the buffer's position.
+     *
+     * @param buffer
+     *            The log contents.
+     * @return The entry in the record, or <code>null</code> if there is no
+     *         complete and intact record at the buffer's position.
+     */
+    private static @Nullable HighScore readRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_OVERHEAD) {
+            return null;
+        }
+        int nameLength = buffer.getShort();
+        if (nameLength < 0 || buffer.remaining() < nameLength + RECORD_OVERHEAD - 2) {
+            return null;
+        }
+        byte[] name = new byte[nameLength];
+        buffer.get(name);
+        int score = buffer.getInt();
+        long timestamp = buffer.getLong();
+        int checksumEnd = buffer.position();
+        int checksum = buffer.getInt();
+
+        CRC32 crc = new CRC32();
+        for (int i = start; i < checksumEnd; i++) {
+            crc.update(buffer.get(i));
+        }
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return new HighScore(new String(name, StandardCharsets.UTF_8), score, timestamp);
+    }
+
+    /**
+     * Encodes an entry as a log record.
+     *
+     * @param entry
+     *            The entry to encode.
+     * @return The record, ready to be written.
+     */
+    private static ByteBuffer encode(HighScore entry) {
+        byte[] name = entry.getPlayer().getBytes(StandardCharsets.UTF_8);
+        assert name.length <= MAX_NAME_BYTES;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + name.length);
+        record.putShort((short) name.length)
+              .put(name)
+              .putInt(entry.getScore())
+              .putLong(entry.getTimestamp());
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Cuts a player name to the longest prefix that fits in a record, on a
+     * code point boundary, so the name is the same in the index and in the
+     * log.
+     *
+     * @param player
+     *            The name of the player.
+     * @return The name as it is stored.
+     */
+    private static String storedName(String player) {
+        byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        if (name.length <= MAX_NAME_BYTES) {
+            return player;
+        }
+        int cut = MAX_NAME_BYTES;
+        while ((name[cut] & CONTINUATION_MASK) == CONTINUATION) {
+            cut--;
+        }
+        return new String(name, 0, cut, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Records the result of a game. The result is visible to queries as soon
+     * as this method returns; it is written to disk in the background.
+     *
+     * @param player
+     *            The name of the player, cut to {@value #MAX_NAME_BYTES}
+     *            bytes of UTF-8.
+     * @param score
+     *            The score the player reached.
+     * @return A future that completes once the result is safely on disk.
+     */
+    public Future<?> submit(String player, int score) {
+        HighScore entry = new HighScore(storedName(player), score, System.currentTimeMillis());
+        synchronized (ranking) {
+            index(entry);
+        }
+        return writer.submit(() -> append(entry));
+    }
+
+    /**
+     * Appends an entry to the log and forces it to disk.
+     *
+     * @param entry
+     *            The entry to append.
+     */
+    private void append(HighScore entry) {
+        ByteBuffer record = encode(entry);
+        try {
+            while (record.hasRemaining()) {
+                log.write(record);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            System.err.println("Unable to write high score: " + e.getMessage());
+        }
+    }
+
+    private void index(HighScore entry) {
+        ranking.add(entry);
+        HighScore best = personalBests.get(entry.getPlayer());
+        if (best == null || best.getScore() < entry.getScore()) {
+            personalBests.put(entry.getPlayer(), entry);
+        }
+    }
+
+    /**
+     * @return The number of results in this store.
+     */
+    public int size() {
+        synchronized (ranking) {
+            return ranking.size();
+        }
+    }
+
+    /**
+     * Returns the best results over all players.
+     *
+     * @param k
+     *            The maximum number of results to return.
+     * @return At most <code>k</code> results, best first.
+     */
+    public List<HighScore> top(int k) {
+        assert k >= 0;
+        synchronized (ranking) {
+            return ranking.top(k);
+        }
+    }
+
+    /**
+     * @return The highest score ever recorded, or <code>0</code> if the store
+     *         is empty.
+     */
+    public int highestScore() {
+        List<HighScore> best = top(1);
+        if (best.isEmpty()) {
+            return 0;
+        }
+        return best.get(0).getScore();
+    }
+
+    /**
+     * Returns the best result of a player.
+     *
+     * @param player
+     *            The name of the player.
+     * @return The player's best result, or <code>null</code> if the player has
+     *         no recorded results.
+     */
+    public @Nullable HighScore personalBest(String player) {
+        synchronized (ranking) {
+            return personalBests.get(storedName(player));
+        }
+    }
+
+    /**
+     * Determines the percentage of recorded results that are lower than the
+     * given score.
+     *
+     * @param score
+     *            The score to rank.
+     * @return The percentile rank of the score, between 0 and 100.
+     */
+    public double percentileRank(int score) {
+        synchronized (ranking) {
+            int size = ranking.size();
+            if (size == 0) {
+                return 0;
+            }
+            return PERCENT * ranking.countBelow(score) / size;
+        }
+    }
+
+    /**
+     * Waits for all pending results to be written and closes the log.
+     *
+     * @throws IOException
+     *             When the log could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+}
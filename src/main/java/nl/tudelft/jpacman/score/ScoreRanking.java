@@ -0,0 +1,225 @@
+package nl.tudelft.jpacman.score;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An order statistic tree over high scores. It is a treap in which every node
+ * knows the size of its subtree, so that inserting an entry and determining
+ * the rank of a score both take O(log n) expected time.
+ *
+ * Entries with equal scores are kept in the order in which they were added;
+ * the earlier entry ranks higher.
+ *
+ * This class is not thread safe.
+ */
+class ScoreRanking {
+
+    /**
+     * The source of the heap priorities of the nodes.
+     */
+    private final Random priorities = new Random();
+
+    /**
+     * The root of the tree, or <code>null</code> if the ranking is empty.
+     */
+    private @Nullable Node root;
+
+    /**
+     * The number of entries added so far, used to break ties between equal
+     * scores.
+     */
+    private long sequence;
+
+    /**
+     * Adds an entry to the ranking.
+     *
+     * @param entry
+     *            The entry to add.
+     */
+    void add(HighScore entry) {
+        assert entry != null;
+        root = insert(root, new Node(entry, sequence++, priorities.nextInt()));
+    }
+
+    /**
+     * @return The number of entries in this ranking.
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the best entries in this ranking.
+     *
+     * @param k
+     *            The maximum number of entries to return.
+     * @return At most <code>k</code> entries, best first.
+     */
+    List<HighScore> top(int k) {
+        List<HighScore> result = new ArrayList<>(Math.min(k, size()));
+        collectTop(root, k, result);
+        return result;
+    }
+
+    /**
+     * Counts the entries with a score strictly lower than the given one.
+     *
+     * @param score
+     *            The score to compare against.
+     * @return The number of entries with a lower score.
+     */
+    int countBelow(int score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.entry.getScore() < score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private Node insert(@Nullable Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.before(node)) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        assert pivot != null;
+        node.left = pivot.right;
+        node.update();
+        pivot.right = node;
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        assert pivot != null;
+        node.right = pivot.left;
+        node.update();
+        pivot.left = node;
+        return pivot;
+    }
+
+    /**
+     * Walks the tree from the highest score down until enough entries have
+     * been collected. Entries with equal scores are stored in reverse order of
+     * arrival, see {@link Node#before(Node)}.
+     */
+    private void collectTop(@Nullable Node node, int k, List<HighScore> result) {
+        if (node == null || result.size() >= k) {
+            return;
+        }
+        collectTop(node.right, k, result);
+        if (result.size() < k) {
+            result.add(node.entry);
+        }
+        collectTop(node.left, k, result);
+    }
+
+    private static int size(@Nullable Node node) {
+        if (node == null) {
+            return 0;
+        }
+        return node.size;
+    }
+
+    /**
+     * A node in the treap.
+     */
+    private static final class Node {
+
+        /**
+         * The entry stored in this node.
+         */
+        private final HighScore entry;
+
+        /**
+         * The order in which the entry was added.
+         */
+        private final long sequence;
+
+        /**
+         * The heap priority of this node.
+         */
+        private final int priority;
+
+        /**
+         * The number of nodes in the subtree rooted at this node.
+         */
+        private int size;
+
+        /**
+         * The subtree with the lower entries.
+         */
+        private @Nullable Node left;
+
+        /**
+         * The subtree with the higher entries.
+         */
+        private @Nullable Node right;
+
+        /**
+         * Creates a new leaf node.
+         *
+         * @param entry
+         *            The entry to store.
+         * @param sequence
+         *            The order in which the entry was added.
+         * @param priority
+         *            The heap priority of the node.
+         */
+        Node(HighScore entry, long sequence, int priority) {
+            this.entry = entry;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.size = 1;
+        }
+
+        /**
+         * Orders nodes by score and places later arrivals below earlier ones
+         * with the same score, so that the earlier entry ranks higher.
+         *
+         * @param other
+         *            The node to compare with.
+         * @return <code>true</code> iff this node sorts before the other.
+         */
+        private boolean before(Node other) {
+            int score = entry.getScore();
+            int otherScore = other.entry.getScore();
+            if (score != otherScore) {
+                return score < otherScore;
+            }
+            return sequence > other.sequence;
+        }
+
+        /**
+         * Recomputes the size of this subtree from its children.
+         */
+        private void update() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+}
@@ -3,8 +3,9 @@ package nl.tudelft.jpacman.sprite;
 import java.awt.Graphics;
 
 /**
- * Animated sprite, renders the frame depending on the time of requesting the
- * draw.
+ * Animated sprite, renders the frame depending on the time of its
+ * {@link AnimationClock}. The frame index is computed directly from the time
+ * elapsed since the animation started, however long ago that was.
  *
  * @author Jeroen Roosen 
  */
@@ -41,9 +42,14 @@ public class AnimatedSprite implements Sprite {
     private boolean animating;
 
     /**
-     * The {@link System#currentTimeMillis()} stamp of the last update.
+     * The clock the animation follows.
      */
-    private long lastUpdate;
+    private final AnimationClock clock;
+
+    /**
+     * The time at which the first frame was, or would have been, shown.
+     */
+    private long start;
 
     /**
      * Creates a new animating sprite that will change frames every interval. By
@@ -73,15 +79,35 @@ public class AnimatedSprite implements Sprite {
      *            Whether or not this sprite is animating from the start.
      */
     public AnimatedSprite(Sprite[] frames, int delay, boolean loop, boolean isAnimating) {
+        this(frames, delay, loop, isAnimating, AnimationClock.system());
+    }
+
+    /**
+     * Creates a new animating sprite that will change frames every interval.
+     *
+     * @param frames
+     *            The frames of this animation.
+     * @param delay
+     *            The delay between frames.
+     * @param loop
+     *            Whether or not this sprite should be looping.
+     * @param isAnimating
+     *            Whether or not this sprite is animating from the start.
+     * @param animationClock
+     *            The clock the animation follows.
+     */
+    public AnimatedSprite(Sprite[] frames, int delay, boolean loop, boolean isAnimating,
+                          AnimationClock animationClock) {
         assert frames.length > 0;
 
         this.animationFrames = frames.clone();
         this.animationDelay = delay;
         this.looping = loop;
         this.animating = isAnimating;
+        this.clock = animationClock;
 
         this.current = 0;
-        this.lastUpdate = System.currentTimeMillis();
+        this.start = clock.now();
     }
 
     /**
@@ -104,16 +130,29 @@ public class AnimatedSprite implements Sprite {
      *            to stop animating this sprite.
      */
     public void setAnimating(boolean isAnimating) {
+        update();
+        if (isAnimating && !animating) {
+            start = clock.now() - (long) current * animationDelay;
+        }
         this.animating = isAnimating;
     }
 
+    /**
+     * @return <code>true</code> iff this sprite is currently animating, i.e.
+     *         its frame changes over time.
+     */
+    public boolean isAnimating() {
+        update();
+        return animating;
+    }
+
     /**
      * (Re)starts the current animation.
      */
     public void restart() {
         this.current = 0;
-        this.lastUpdate = System.currentTimeMillis();
-        setAnimating(true);
+        this.start = clock.now();
+        this.animating = true;
     }
 
     @Override
@@ -129,22 +168,20 @@ public class AnimatedSprite implements Sprite {
     }
 
     /**
-     * Updates the current frame index depending on the current system time.
+     * Updates the current frame index depending on the time of the clock.
      */
     private void update() {
-        long now = System.currentTimeMillis();
-        if (animating) {
-            while (lastUpdate < now) {
-                lastUpdate += animationDelay;
-                current++;
-                if (looping) {
-                    current %= animationFrames.length;
-                } else if (current == animationFrames.length) {
-                    animating = false;
-                }
-            }
+        if (!animating || animationDelay <= 0) {
+            return;
+        }
+        long frame = Math.max(0L, clock.now() - start) / animationDelay;
+        if (looping) {
+            current = (int) (frame % animationFrames.length);
+        } else if (frame >= animationFrames.length) {
+            current = animationFrames.length;
+            animating = false;
         } else {
-            lastUpdate = now;
+            current = (int) frame;
         }
     }
 
@@ -0,0 +1,89 @@
+package nl.tudelft.jpacman.sprite;
+
+/**
+ * The time animations are drawn at. A clock is sampled once per frame, so
+ * all sprites drawn in that frame show the same moment and none of them
+ * reads the system time itself.
+ *
+ * The {@link #system() system clock} follows {@link System#currentTimeMillis()}
+ * and is sampled by the renderer at the start of every frame. A
+ * {@link #manual() manual clock} only moves when it is set or advanced, so
+ * animations can follow the tick clock of a simulation, e.g. when rendering
+ * headless or replaying a recorded game.
+ */
+public final class AnimationClock {
+
+    /**
+     * The clock following the system time, shared by default.
+     */
+    private static final AnimationClock SYSTEM = new AnimationClock(true);
+
+    /**
+     * <code>true</code> iff this clock follows the system time.
+     */
+    private final boolean systemTime;
+
+    /**
+     * The time of the current frame in milliseconds.
+     */
+    private volatile long now;
+
+    private AnimationClock(boolean systemTime) {
+        this.systemTime = systemTime;
+        this.now = systemTime ? System.currentTimeMillis() : 0L;
+    }
+
+    /**
+     * @return The shared clock following the system time.
+     */
+    public static AnimationClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * @return A new clock at time <code>0</code> that only moves when it is
+     *         set or advanced.
+     */
+    public static AnimationClock manual() {
+        return new AnimationClock(false);
+    }
+
+    /**
+     * Starts a new frame: a clock following the system time reads it once,
+     * a manual clock stays where it is.
+     */
+    public void sample() {
+        if (systemTime) {
+            now = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Moves a manual clock forward.
+     *
+     * @param millis
+     *            The number of milliseconds to move forward.
+     */
+    public void advance(long millis) {
+        assert !systemTime && millis >= 0;
+        now += millis;
+    }
+
+    /**
+     * Sets a manual clock to a point in time.
+     *
+     * @param millis
+     *            The new time in milliseconds.
+     */
+    public void setTime(long millis) {
+        assert !systemTime;
+        now = millis;
+    }
+
+    /**
+     * @return The time of the current frame in milliseconds.
+     */
+    public long now() {
+        return now;
+    }
+}
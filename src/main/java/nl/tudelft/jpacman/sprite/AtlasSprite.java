@@ -0,0 +1,103 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.awt.Graphics;
+import java.awt.Image;
+
+/**
+ * A sprite drawn from a region of a {@link SpriteAtlas}. Splitting it yields
+ * smaller regions of the same atlas.
+ */
+public class AtlasSprite implements Sprite {
+
+    /**
+     * The atlas this sprite is drawn from.
+     */
+    private final SpriteAtlas atlas;
+
+    /**
+     * The x coordinate of the region in the atlas.
+     */
+    private final int regionX;
+
+    /**
+     * The y coordinate of the region in the atlas.
+     */
+    private final int regionY;
+
+    /**
+     * The width of the region.
+     */
+    private final int width;
+
+    /**
+     * The height of the region.
+     */
+    private final int height;
+
+    /**
+     * Creates a new sprite from a region of an atlas.
+     *
+     * @param atlas
+     *            The atlas.
+     * @param x
+     *            The x coordinate of the region.
+     * @param y
+     *            The y coordinate of the region.
+     * @param width
+     *            The width of the region.
+     * @param height
+     *            The height of the region.
+     */
+    AtlasSprite(SpriteAtlas atlas, int x, int y, int width, int height) {
+        this.atlas = atlas;
+        this.regionX = x;
+        this.regionY = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void draw(Graphics graphics, int x, int y, int drawWidth, int drawHeight) {
+        if (drawWidth <= 0 || drawHeight <= 0) {
+            return;
+        }
+        int grid = atlas.getGrid();
+        if (alignedTo(grid) && drawWidth * grid % width == 0
+            && drawHeight * grid % height == 0) {
+            int cellW = drawWidth * grid / width;
+            int cellH = drawHeight * grid / height;
+            Image scaled = atlas.scaledImage(graphics, cellW, cellH);
+            int srcX = regionX / grid * cellW;
+            int srcY = regionY / grid * cellH;
+            graphics.drawImage(scaled, x, y, x + drawWidth, y + drawHeight,
+                srcX, srcY, srcX + drawWidth, srcY + drawHeight, null);
+        } else {
+            graphics.drawImage(atlas.getImage(), x, y, x + drawWidth, y + drawHeight,
+                regionX, regionY, regionX + width, regionY + height, null);
+        }
+    }
+
+    private boolean alignedTo(int grid) {
+        return regionX % grid == 0 && regionY % grid == 0
+            && width % grid == 0 && height % grid == 0;
+    }
+
+    @Override
+    public Sprite split(int x, int y, int splitWidth, int splitHeight) {
+        if (x >= 0 && y >= 0 && splitWidth > 0 && splitHeight > 0
+            && x + splitWidth <= width && y + splitHeight <= height) {
+            return new AtlasSprite(atlas, regionX + x, regionY + y, splitWidth, splitHeight);
+        }
+        return new EmptySprite();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+}
@@ -1,15 +1,24 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * Basic implementation of a Sprite, it merely consists of a static image.
  *
+ * The sprite keeps copies of its image scaled to the last two sizes it was
+ * drawn at, in a format compatible with the device drawn to, so a board
+ * drawn at one cell size and captured at another does not rescale on every
+ * frame. As long as those cell sizes do not change, drawing is an unscaled
+ * copy; when a third size is drawn, the oldest copy is replaced.
+ *
  * @author Jeroen Roosen 
  */
 public class ImageSprite implements Sprite {
@@ -19,6 +28,12 @@ public class ImageSprite implements Sprite {
      */
     private final Image image;
 
+    /**
+     * The image scaled to the size it was last drawn at, if any, which
+     * keeps the copy for the size before that.
+     */
+    private @Nullable ScaledImage scaled;
+
     /**
      * Creates a new sprite from an image.
      *
@@ -31,8 +46,49 @@ public class ImageSprite implements Sprite {
 
     @Override
     public void draw(Graphics graphics, int x, int y, int width, int height) {
-        graphics.drawImage(image, x, y, x + width, y + height, 0, 0,
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (width == image.getWidth(null) && height == image.getHeight(null)) {
+            graphics.drawImage(image, x, y, null);
+            return;
+        }
+        graphics.drawImage(scaledImage(graphics, width, height), x, y, null);
+    }
+
+    /**
+     * Returns the image scaled to the given size, replacing the oldest
+     * cached copy if neither has that size.
+     *
+     * @param graphics
+     *            The graphics context that will be drawn on.
+     * @param width
+     *            The width to scale to.
+     * @param height
+     *            The height to scale to.
+     * @return The scaled image.
+     */
+    Image scaledImage(Graphics graphics, int width, int height) {
+        ScaledImage cached = scaled;
+        for (ScaledImage entry = cached; entry != null; entry = entry.older) {
+            if (entry.width == width && entry.height == height) {
+                return entry.image;
+            }
+        }
+        BufferedImage copy;
+        if (graphics instanceof Graphics2D) {
+            copy = ((Graphics2D) graphics).getDeviceConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        } else {
+            copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics copyGraphics = copy.getGraphics();
+        copyGraphics.drawImage(image, 0, 0, width, height, 0, 0,
             image.getWidth(null), image.getHeight(null), null);
+        copyGraphics.dispose();
+        scaled = new ScaledImage(copy, width, height,
+            cached == null ? null : cached.withoutOlder());
+        return copy;
     }
 
     @Override
@@ -53,7 +109,8 @@ public class ImageSprite implements Sprite {
 
     /**
      * Creates a new, empty image of the given width and height. Its
-     * transparency will be a bitmask, so no try ARGB image.
+     * transparency will be a bitmask, so no try ARGB image. Without a
+     * display a plain ARGB image is created instead.
      *
      * @param width
      *            The width of the new image.
@@ -62,6 +119,9 @@ public class ImageSprite implements Sprite {
      * @return The new, empty image.
      */
     private BufferedImage newImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
         GraphicsConfiguration gc = GraphicsEnvironment
             .getLocalGraphicsEnvironment().getDefaultScreenDevice()
             .getDefaultConfiguration();
@@ -78,4 +138,58 @@ public class ImageSprite implements Sprite {
         return image.getHeight(null);
     }
 
+    /**
+     * An image scaled to a size, along with the copy scaled before it.
+     * Instances are immutable, so they can be shared between the threads
+     * drawing a sprite.
+     */
+    private static final class ScaledImage {
+
+        /**
+         * The scaled image.
+         */
+        private final Image image;
+
+        /**
+         * The width it was scaled to.
+         */
+        private final int width;
+
+        /**
+         * The height it was scaled to.
+         */
+        private final int height;
+
+        /**
+         * The copy scaled before this one, if any.
+         */
+        private final @Nullable ScaledImage older;
+
+        /**
+         * Creates a new scaled image.
+         *
+         * @param image
+         *            The scaled image.
+         * @param width
+         *            The width it was scaled to.
+         * @param height
+         *            The height it was scaled to.
+         * @param older
+         *            The copy scaled before this one, if any.
+         */
+        ScaledImage(Image image, int width, int height, @Nullable ScaledImage older) {
+            this.image = image;
+            this.width = width;
+            this.height = height;
+            this.older = older;
+        }
+
+        /**
+         * @return This copy, without the one scaled before it.
+         */
+        ScaledImage withoutOlder() {
+            return older == null ? this : new ScaledImage(image, width, height, null);
+        }
+    }
+
 }
@@ -1,12 +1,16 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import nl.tudelft.jpacman.PacmanConfigurationException;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.npc.ghost.GhostColor;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Sprite Store containing the classic Pac-Man sprites.
@@ -51,6 +55,47 @@ public class PacManSprites extends SpriteStore {
      */
     private static final int ANIMATION_DELAY = 200;
 
+    /**
+     * Completed once the sprites have been packed into an atlas, or packing
+     * them failed; <code>null</code> until packing starts. Volatile, so
+     * sprites can be loaded without locking once packing is done.
+     */
+    private volatile @Nullable CompletableFuture<Void> packing;
+
+    /**
+     * Creates a new store of the Pac-Man sprites, animated along the system
+     * time.
+     */
+    public PacManSprites() {
+        super();
+    }
+
+    /**
+     * Creates a new store of the Pac-Man sprites.
+     *
+     * @param animationClock
+     *            The clock the animations follow.
+     */
+    public PacManSprites(AnimationClock animationClock) {
+        super(animationClock);
+    }
+
+    /**
+     * @return The resources of all sprites of this store.
+     */
+    private static List<String> resources() {
+        List<String> resources = new ArrayList<>();
+        resources.add("/sprite/pacman.png");
+        resources.add("/sprite/dead.png");
+        for (GhostColor color : GhostColor.values()) {
+            resources.add(ghostResource(color));
+        }
+        resources.add("/sprite/wall.png");
+        resources.add("/sprite/floor.png");
+        resources.add("/sprite/pellet.png");
+        return resources;
+    }
+
     /**
      * @return A map of animated Pac-Man sprites for all directions.
      */
@@ -107,9 +152,11 @@ public class PacManSprites extends SpriteStore {
     public Map<Direction, Sprite> getGhostSprite(GhostColor color) {
         assert color != null;
 
-        String resource = "/sprite/ghost_" + color.name().toLowerCase()
-            + ".png";
-        return directionSprite(resource, GHOST_ANIMATION_FRAMES);
+        return directionSprite(ghostResource(color), GHOST_ANIMATION_FRAMES);
+    }
+
+    private static String ghostResource(GhostColor color) {
+        return "/sprite/ghost_" + color.name().toLowerCase() + ".png";
     }
 
     /**
@@ -133,19 +180,80 @@ public class PacManSprites extends SpriteStore {
         return loadSprite("/sprite/pellet.png");
     }
 
+    /**
+     * Starts packing all sprites into an atlas in the background, so they
+     * are ready by the time the first one is needed. Does nothing if
+     * packing already started.
+     *
+     * @return Completed once the sprites are packed.
+     */
+    public CompletableFuture<Void> preload() {
+        synchronized (this) {
+            CompletableFuture<Void> pending = packing;
+            if (pending == null) {
+                pending = CompletableFuture.runAsync(this::pack);
+                packing = pending;
+            }
+            return pending;
+        }
+    }
+
+    private void pack() {
+        try {
+            packAtlas(resources());
+        } catch (IOException e) {
+            System.err.println("Unable to pack sprite atlas: " + e.getMessage());
+        }
+    }
+
     /**
      * Overloads the default sprite loading, ignoring the exception. This class
      * assumes all sprites are provided, hence the exception will be thrown as a
      * {@link RuntimeException}.
      *
+     * On first use all sprites are packed into an atlas, unless
+     * {@link #preload()} already started doing so in the background, in
+     * which case this waits for it; if packing fails, they are loaded
+     * separately.
+     *
      * {@inheritDoc}
      */
     @Override
     public Sprite loadSprite(String resource) {
+        CompletableFuture<Void> pending = packing;
+        if (pending == null || !pending.isDone()) {
+            awaitPacking();
+        }
         try {
             return super.loadSprite(resource);
         } catch (IOException e) {
             throw new PacmanConfigurationException("Unable to load sprite: " + resource, e);
         }
     }
+
+    /**
+     * Packs the sprites on the calling thread, unless packing already
+     * started, in which case this waits for it.
+     */
+    private void awaitPacking() {
+        CompletableFuture<Void> pending;
+        boolean packHere = false;
+        synchronized (this) {
+            pending = packing;
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                packing = pending;
+                packHere = true;
+            }
+        }
+        if (packHere) {
+            try {
+                pack();
+            } finally {
+                pending.complete(null);
+            }
+        } else {
+            pending.join();
+        }
+    }
 }
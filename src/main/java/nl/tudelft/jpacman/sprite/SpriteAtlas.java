@@ -0,0 +1,350 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A texture atlas: many sprite images packed into one image, from which
+ * sprites are drawn as sub-rectangles. Drawing different sprites from the
+ * same atlas does not switch textures, and splitting an atlas sprite into
+ * frames creates no new images.
+ *
+ * Images are packed on shelves, tallest first. All positions and sizes are
+ * multiples of the {@link #getGrid() grid}, the greatest common divisor of
+ * the dimensions of the images, so the atlas can be scaled as a whole such
+ * that every grid cell maps onto exactly one board cell. Sprites drawn at
+ * such a size are copied 1:1 from the scaled atlas.
+ *
+ * An atlas can be written to and read back from disk, to avoid decoding and
+ * packing the separate images on later startups.
+ */
+public final class SpriteAtlas {
+
+    /**
+     * The image holding all packed images.
+     */
+    private final BufferedImage image;
+
+    /**
+     * The region of every packed image, by name.
+     */
+    private final Map<String, Rectangle> regions;
+
+    /**
+     * The unit all positions and sizes are multiples of.
+     */
+    private final int grid;
+
+    /**
+     * The atlas scaled for the cell size it was last drawn at, if any, which
+     * keeps the copy for the cell size before that, so a board drawn at one
+     * cell size and captured at another does not rescale on every frame.
+     */
+    private @Nullable ScaledAtlas scaled;
+
+    private SpriteAtlas(BufferedImage image, Map<String, Rectangle> regions, int grid) {
+        this.image = image;
+        this.regions = regions;
+        this.grid = grid;
+    }
+
+    /**
+     * Packs images into a new atlas.
+     *
+     * @param images
+     *            The images to pack, by name.
+     * @return The atlas holding all images.
+     */
+    public static SpriteAtlas pack(Map<String, BufferedImage> images) {
+        int grid = 0;
+        long area = 0;
+        int widest = 1;
+        for (BufferedImage img : images.values()) {
+            grid = gcd(grid, gcd(img.getWidth(), img.getHeight()));
+            area += (long) img.getWidth() * img.getHeight();
+            widest = Math.max(widest, img.getWidth());
+        }
+        grid = Math.max(grid, 1);
+        int width = Math.max(widest, Integer.highestOneBit((int) Math.sqrt(area) * 2 - 1));
+
+        List<Map.Entry<String, BufferedImage>> entries = new ArrayList<>(images.entrySet());
+        entries.sort((a, b) -> {
+            int taller = b.getValue().getHeight() - a.getValue().getHeight();
+            return taller != 0 ? taller : a.getKey().compareTo(b.getKey());
+        });
+
+        Map<String, Rectangle> regions = new LinkedHashMap<>();
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (Map.Entry<String, BufferedImage> entry : entries) {
+            String name = entry.getKey();
+            BufferedImage img = entry.getValue();
+            if (shelfX + img.getWidth() > width) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            regions.put(name, new Rectangle(shelfX, shelfY, img.getWidth(), img.getHeight()));
+            shelfX += img.getWidth();
+            shelfHeight = Math.max(shelfHeight, img.getHeight());
+        }
+
+        BufferedImage atlas = new BufferedImage(width, Math.max(1, shelfY + shelfHeight),
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = atlas.getGraphics();
+        for (Map.Entry<String, BufferedImage> entry : entries) {
+            Rectangle region = regions.get(entry.getKey());
+            assert region != null;
+            graphics.drawImage(entry.getValue(), region.x, region.y, null);
+        }
+        graphics.dispose();
+        return new SpriteAtlas(atlas, regions, grid);
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Returns the sprite of a packed image.
+     *
+     * @param name
+     *            The name of the image.
+     * @return The sprite, or <code>null</code> if no image with that name was
+     *         packed.
+     */
+    public @Nullable Sprite getSprite(String name) {
+        Rectangle region = regions.get(name);
+        if (region == null) {
+            return null;
+        }
+        return new AtlasSprite(this, region.x, region.y, region.width, region.height);
+    }
+
+    /**
+     * @return The names of the packed images.
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(regions.keySet());
+    }
+
+    /**
+     * @return The image holding all packed images.
+     */
+    BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * @return The unit all positions and sizes in this atlas are multiples
+     *         of.
+     */
+    int getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns this atlas scaled such that every grid cell becomes a cell of
+     * the given size, replacing the oldest cached copy if neither has that
+     * size.
+     *
+     * @param graphics
+     *            The graphics context that will be drawn on.
+     * @param cellWidth
+     *            The width of a grid cell after scaling.
+     * @param cellHeight
+     *            The height of a grid cell after scaling.
+     * @return The scaled atlas.
+     */
+    Image scaledImage(Graphics graphics, int cellWidth, int cellHeight) {
+        ScaledAtlas cached = scaled;
+        for (ScaledAtlas entry = cached; entry != null; entry = entry.older) {
+            if (entry.cellWidth == cellWidth && entry.cellHeight == cellHeight) {
+                return entry.image;
+            }
+        }
+        int width = image.getWidth() / grid * cellWidth;
+        int height = image.getHeight() / grid * cellHeight;
+        BufferedImage copy;
+        if (graphics instanceof Graphics2D) {
+            copy = ((Graphics2D) graphics).getDeviceConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        } else {
+            copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics copyGraphics = copy.getGraphics();
+        copyGraphics.drawImage(image, 0, 0, width, height, 0, 0,
+            image.getWidth(), image.getHeight(), null);
+        copyGraphics.dispose();
+        scaled = new ScaledAtlas(copy, cellWidth, cellHeight,
+            cached == null ? null : cached.withoutOlder());
+        return copy;
+    }
+
+    /**
+     * Writes this atlas to disk: the image as PNG, and an index with the grid
+     * and the region of every image.
+     *
+     * @param imageFile
+     *            The file the image is written to.
+     * @param indexFile
+     *            The file the index is written to.
+     * @throws IOException
+     *             When the files could not be written.
+     */
+    public void write(Path imageFile, Path indexFile) throws IOException {
+        Path imageDir = imageFile.toAbsolutePath().getParent();
+        Path indexDir = indexFile.toAbsolutePath().getParent();
+        if (imageDir == null || indexDir == null) {
+            throw new IOException("Cannot write an atlas to a root directory.");
+        }
+        Path tempImage = Files.createTempFile(imageDir, "atlas", ".png");
+        Path tempIndex = Files.createTempFile(indexDir, "atlas", ".idx");
+        try {
+            if (!ImageIO.write(image, "png", tempImage.toFile())) {
+                throw new IOException("No PNG writer available.");
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tempIndex,
+                StandardCharsets.UTF_8)) {
+                writer.write(Integer.toString(grid));
+                writer.newLine();
+                for (Map.Entry<String, Rectangle> entry : regions.entrySet()) {
+                    Rectangle r = entry.getValue();
+                    writer.write(r.x + " " + r.y + " " + r.width + " " + r.height
+                        + " " + entry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempImage, imageFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempIndex, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempImage);
+            Files.deleteIfExists(tempIndex);
+        }
+    }
+
+    /**
+     * Reads an atlas written by {@link #write(Path, Path)}.
+     *
+     * @param imageFile
+     *            The file holding the image.
+     * @param indexFile
+     *            The file holding the index.
+     * @return The atlas.
+     * @throws IOException
+     *             When the files could not be read or are malformed.
+     */
+    public static SpriteAtlas read(Path imageFile, Path indexFile) throws IOException {
+        BufferedImage loaded = ImageIO.read(imageFile.toFile());
+        if (loaded == null) {
+            throw new IOException("Not an image: " + imageFile);
+        }
+        BufferedImage atlas = new BufferedImage(loaded.getWidth(), loaded.getHeight(),
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = atlas.getGraphics();
+        graphics.drawImage(loaded, 0, 0, null);
+        graphics.dispose();
+
+        Map<String, Rectangle> regions = new LinkedHashMap<>();
+        int grid;
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Empty atlas index: " + indexFile);
+            }
+            grid = Integer.parseInt(line.trim());
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ", 5);
+                if (fields.length != 5) {
+                    throw new IOException("Malformed atlas index: " + indexFile);
+                }
+                Rectangle region = new Rectangle(Integer.parseInt(fields[0]),
+                    Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3]));
+                if (!new Rectangle(atlas.getWidth(), atlas.getHeight()).contains(region)) {
+                    throw new IOException("Atlas index does not match image: " + indexFile);
+                }
+                regions.put(fields[4], region);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed atlas index: " + indexFile, e);
+        }
+        if (grid <= 0) {
+            throw new IOException("Malformed atlas index: " + indexFile);
+        }
+        return new SpriteAtlas(atlas, regions, grid);
+    }
+
+    /**
+     * An atlas scaled for a cell size. Instances are immutable, so they can
+     * be shared between the threads drawing sprites.
+     */
+    private static final class ScaledAtlas {
+
+        /**
+         * The scaled image.
+         */
+        private final Image image;
+
+        /**
+         * The width of a grid cell in the scaled image.
+         */
+        private final int cellWidth;
+
+        /**
+         * The height of a grid cell in the scaled image.
+         */
+        private final int cellHeight;
+
+        /**
+         * The copy scaled before this one, if any.
+         */
+        private final @Nullable ScaledAtlas older;
+
+        /**
+         * Creates a new scaled atlas.
+         *
+         * @param image
+         *            The scaled image.
+         * @param cellWidth
+         *            The width of a grid cell in the scaled image.
+         * @param cellHeight
+         *            The height of a grid cell in the scaled image.
+         * @param older
+         *            The copy scaled before this one, if any.
+         */
+        ScaledAtlas(Image image, int cellWidth, int cellHeight, @Nullable ScaledAtlas older) {
+            this.image = image;
+            this.cellWidth = cellWidth;
+            this.cellHeight = cellHeight;
+            this.older = older;
+        }
+
+        /**
+         * @return This copy, without the one scaled before it.
+         */
+        ScaledAtlas withoutOlder() {
+            return older == null ? this : new ScaledAtlas(image, cellWidth, cellHeight, null);
+        }
+    }
+}
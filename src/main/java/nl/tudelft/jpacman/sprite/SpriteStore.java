@@ -1,31 +1,82 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 import javax.imageio.ImageIO;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
- * Utility to load {@link Sprite}s.
+ * Utility to load {@link Sprite}s. Sprites may be loaded from several
+ * threads at once.
  *
  * @author Jeroen Roosen 
  */
 public class SpriteStore {
 
+    /**
+     * The system property naming the directory the sprite atlas is cached
+     * in. If it is set to an empty string the atlas is not cached at all.
+     */
+    public static final String ATLAS_CACHE_PROPERTY = "jpacman.atlasCache";
+
     /**
      * We only need to load images once, so we keep track
-     * of them in a hash map.
+     * of them in a hash map, which may be read and filled concurrently.
      */
     private final Map<String, Sprite> spriteMap;
 
     /**
-     * Create a new sprite store.
+     * The atlas the packed resources are drawn from, if any.
+     */
+    private volatile @Nullable SpriteAtlas atlas;
+
+    /**
+     * The clock the animations of this store follow.
+     */
+    private final AnimationClock clock;
+
+    /**
+     * Create a new sprite store whose animations follow the system time.
      */
     public SpriteStore() {
-        spriteMap = new HashMap<>();
+        this(AnimationClock.system());
+    }
+
+    /**
+     * Create a new sprite store.
+     *
+     * @param animationClock
+     *            The clock the animations of this store follow.
+     */
+    public SpriteStore(AnimationClock animationClock) {
+        spriteMap = new ConcurrentHashMap<>();
+        clock = animationClock;
+    }
+
+    /**
+     * @return The clock the animations of this store follow.
+     */
+    public AnimationClock getAnimationClock() {
+        return clock;
     }
 
     /**
@@ -42,12 +93,193 @@ public class SpriteStore {
     public Sprite loadSprite(String resource) throws IOException {
         Sprite result = spriteMap.get(resource);
         if (result == null) {
-            result = loadSpriteFromResource(resource);
-            spriteMap.put(resource, result);
+            SpriteAtlas packed = atlas;
+            if (packed != null) {
+                result = packed.getSprite(resource);
+            }
+            if (result == null) {
+                result = loadSpriteFromResource(resource);
+            }
+            Sprite loaded = spriteMap.putIfAbsent(resource, result);
+            if (loaded != null) {
+                return loaded;
+            }
         }
         return result;
     }
 
+    /**
+     * Packs resources into a {@link SpriteAtlas}, from which sprites for
+     * these resources are loaded from now on. The atlas is cached in the
+     * user's cache directory, or the one named by
+     * {@value #ATLAS_CACHE_PROPERTY}, keyed by a checksum of the resources, so later
+     * startups only decode the packed image. The resources are read, and if
+     * need be decoded, in parallel.
+     *
+     * @param resources
+     *            The resource paths of the images to pack.
+     * @throws IOException
+     *             When a resource could not be loaded.
+     */
+    public void packAtlas(Collection<String> resources) throws IOException {
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(resources));
+        List<byte[]> read = loadAll(names, SpriteStore::readResource);
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < names.size(); i++) {
+            contents.put(names.get(i), read.get(i));
+            crc.update(names.get(i).getBytes(StandardCharsets.UTF_8));
+            crc.update(read.get(i));
+        }
+        String key = Long.toHexString(crc.getValue());
+        Path dir = cacheDirectory();
+        SpriteAtlas packed = dir == null ? null : readCachedAtlas(dir, key);
+        if (packed == null || !packed.getNames().containsAll(resources)) {
+            List<BufferedImage> decoded = loadAll(names,
+                resource -> decode(resource, contents.get(resource)));
+            Map<String, BufferedImage> images = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                images.put(names.get(i), decoded.get(i));
+            }
+            packed = SpriteAtlas.pack(images);
+            if (dir != null) {
+                writeCachedAtlas(packed, dir, key);
+            }
+        }
+        atlas = packed;
+        spriteMap.keySet().removeAll(resources);
+    }
+
+    /**
+     * Reads a cached atlas.
+     *
+     * @param dir
+     *            The cache directory.
+     * @param key
+     *            The checksum of the resources in the atlas.
+     * @return The atlas, or <code>null</code> if it is not cached or could
+     *         not be read.
+     */
+    private static @Nullable SpriteAtlas readCachedAtlas(Path dir, String key) {
+        Path imageFile = dir.resolve("jpacman-atlas-" + key + ".png");
+        Path indexFile = dir.resolve("jpacman-atlas-" + key + ".idx");
+        if (!Files.isReadable(imageFile) || !Files.isReadable(indexFile)) {
+            return null;
+        }
+        try {
+            return SpriteAtlas.read(imageFile, indexFile);
+        } catch (IOException e) {
+            System.err.println("Ignoring sprite atlas cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Caches an atlas, so later startups can read it.
+     *
+     * @param packed
+     *            The atlas.
+     * @param dir
+     *            The cache directory, which is created if need be.
+     * @param key
+     *            The checksum of the resources in the atlas.
+     */
+    private static void writeCachedAtlas(SpriteAtlas packed, Path dir, String key) {
+        try {
+            Files.createDirectories(dir);
+            packed.write(dir.resolve("jpacman-atlas-" + key + ".png"),
+                dir.resolve("jpacman-atlas-" + key + ".idx"));
+        } catch (IOException e) {
+            System.err.println("Unable to cache sprite atlas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The directory the sprite atlas is cached in: the one named by
+     * {@value #ATLAS_CACHE_PROPERTY} if it is set, or else
+     * <code>jpacman</code> in <code>$XDG_CACHE_HOME</code>, or in
+     * <code>~/.cache</code> if that is not set. Unlike the shared temporary
+     * directory, no other user can plant an atlas there.
+     *
+     * @return The cache directory, which may not exist yet, or
+     *         <code>null</code> if the atlas is not to be cached.
+     */
+    private static @Nullable Path cacheDirectory() {
+        String configured = System.getProperty(ATLAS_CACHE_PROPERTY);
+        if (configured != null) {
+            return configured.isEmpty() ? null : Paths.get(configured);
+        }
+        String cacheHome = System.getenv("XDG_CACHE_HOME");
+        Path base = cacheHome == null || cacheHome.isEmpty()
+            ? Paths.get(System.getProperty("user.home"), ".cache")
+            : Paths.get(cacheHome);
+        return base.resolve("jpacman");
+    }
+
+    /**
+     * Loads something for each of a list of resources.
+     *
+     * @param <T>
+     *            The type of what is loaded.
+     */
+    @FunctionalInterface
+    private interface ResourceLoader<T> {
+
+        /**
+         * @param resource
+         *            The resource path.
+         * @return What was loaded for the resource.
+         * @throws IOException
+         *             When the resource could not be loaded.
+         */
+        T load(String resource) throws IOException;
+    }
+
+    /**
+     * Loads all resources in parallel.
+     *
+     * @return What was loaded, in the order of the resources.
+     * @throws IOException
+     *             When any of the resources could not be loaded.
+     */
+    private static <T> List<T> loadAll(List<String> resources, ResourceLoader<T> loader)
+        throws IOException {
+        try {
+            return resources.parallelStream().map(resource -> {
+                try {
+                    return loader.load(resource);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream input = SpriteStore.class.getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IOException("Unable to load " + resource + ", resource does not exist.");
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private static BufferedImage decode(String resource, byte[] bytes) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (image == null) {
+            throw new IOException("Unable to load " + resource + ", not an image.");
+        }
+        return image;
+    }
+
     /**
      * Loads a sprite from a resource on the class path.
      *
@@ -93,7 +325,7 @@ public class SpriteStore {
                 baseImage.getHeight());
         }
 
-        return new AnimatedSprite(animation, delay, loop);
+        return new AnimatedSprite(animation, delay, loop, false, clock);
     }
 
 }
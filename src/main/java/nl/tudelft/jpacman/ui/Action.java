@@ -11,4 +11,16 @@ public interface Action {
      * Executes the action.
      */
     void doAction();
+
+    /**
+     * Executes the action if it can be applied now. Key presses are retried
+     * for a short while when this returns <code>false</code>, so a turn
+     * pressed just too early is not lost.
+     *
+     * @return <code>true</code> iff the action was applied.
+     */
+    default boolean attempt() {
+        doAction();
+        return true;
+    }
 }
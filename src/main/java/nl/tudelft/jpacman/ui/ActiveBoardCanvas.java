@@ -0,0 +1,179 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.game.Game;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Canvas displaying a game through active rendering: a dedicated render
+ * thread draws every frame into a {@link BufferStrategy} and flips it, paced
+ * to a target frame rate instead of waiting for Swing to handle repaint
+ * requests.
+ *
+ * When rendering falls behind schedule, frames are skipped so the game
+ * keeps up with real time, but at least one frame is drawn for every
+ * {@value #MAX_FRAME_SKIP} skipped.
+ */
+class ActiveBoardCanvas extends Canvas {
+
+    /**
+     * Default serialisation ID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of consecutive frames skipped.
+     */
+    private static final int MAX_FRAME_SKIP = 5;
+
+    /**
+     * The number of buffers of the buffer strategy.
+     */
+    private static final int BUFFERS = 2;
+
+    /**
+     * The game to display.
+     */
+    private final Game game;
+
+    /**
+     * The time between frames in nanoseconds.
+     */
+    private final long frameInterval;
+
+    /**
+     * The renderer drawing the level, which caches its static background.
+     */
+    private final transient BoardRenderer renderer = new BoardRenderer();
+
+    /**
+     * The statistics of the frames drawn.
+     */
+    private final transient FrameStatistics statistics = new FrameStatistics();
+
+    /**
+     * The render thread, if it is running.
+     */
+    private transient @Nullable Thread renderThread;
+
+    /**
+     * Creates a new canvas that will display the provided game.
+     *
+     * @param game
+     *            The game to display.
+     * @param targetFps
+     *            The number of frames to draw per second.
+     */
+    ActiveBoardCanvas(Game game, int targetFps) {
+        super();
+        assert game != null;
+        assert targetFps > 0;
+        this.game = game;
+        this.frameInterval = TimeUnit.SECONDS.toNanos(1) / targetFps;
+
+        Board board = game.getLevel().getBoard();
+        Dimension size = new Dimension(board.getWidth() * PacManUI.SQUARE_SIZE,
+            board.getHeight() * PacManUI.SQUARE_SIZE);
+        setMinimumSize(size);
+        setPreferredSize(size);
+        setIgnoreRepaint(true);
+    }
+
+    /**
+     * @return The statistics of the frames drawn.
+     */
+    FrameStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Starts the render thread. The canvas must be displayable.
+     *
+     * @param onFrame
+     *            Called on the render thread after every frame drawn.
+     */
+    void start(Runnable onFrame) {
+        assert isDisplayable();
+        if (renderThread != null) {
+            return;
+        }
+        createBufferStrategy(BUFFERS);
+        Thread thread = new Thread(() -> renderLoop(onFrame), "board-renderer");
+        thread.setDaemon(true);
+        renderThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the render thread.
+     */
+    void stop() {
+        Thread thread = renderThread;
+        if (thread != null) {
+            thread.interrupt();
+            renderThread = null;
+        }
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        // frames are drawn by the render thread.
+    }
+
+    private void renderLoop(Runnable onFrame) {
+        long nextFrame = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            renderFrame();
+            onFrame.run();
+            long end = System.nanoTime();
+            statistics.frameRendered(end - start);
+
+            nextFrame += frameInterval;
+            long behind = end - nextFrame;
+            if (behind > frameInterval) {
+                long skip = Math.min(behind / frameInterval, MAX_FRAME_SKIP);
+                statistics.framesSkipped(skip);
+                nextFrame += skip * frameInterval;
+                if (end - nextFrame > frameInterval) {
+                    // too far behind to ever catch up: start afresh.
+                    nextFrame = end;
+                }
+            }
+            long wait = nextFrame - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * Draws a frame into the back buffer and shows it, redrawing it if the
+     * buffer's contents were lost in the meantime.
+     */
+    private void renderFrame() {
+        BufferStrategy strategy = getBufferStrategy();
+        Dimension size = getSize();
+        do {
+            do {
+                Graphics graphics = strategy.getDrawGraphics();
+                try {
+                    renderer.render(game.getLevel(), graphics, size,
+                        getGraphicsConfiguration());
+                } finally {
+                    graphics.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
@@ -1,15 +1,21 @@
 package nl.tudelft.jpacman.ui;
 
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.Window;
+import java.util.BitSet;
+import java.util.List;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
 
 /**
  * Panel displaying a game.
@@ -25,20 +31,21 @@ class BoardPanel extends JPanel {
     private static final long serialVersionUID = 1L;
 
     /**
-     * The background colour of the board.
+     * The game to display.
      */
-    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private final Game game;
 
     /**
-     * The size (in pixels) of a square on the board. The initial size of this
-     * panel will scale to fit a board with square of this size.
+     * The renderer drawing the level, which caches its static background.
      */
-    private static final int SQUARE_SIZE = 24;
+    private final transient BoardRenderer renderer = new BoardRenderer();
 
     /**
-     * The game to display.
+     * The level shown by the last repaint, to notice when the game moves on
+     * to another one. Only accessed by the thread calling
+     * {@link #repaintChanged()}.
      */
-    private final Game game;
+    private transient Level shownLevel;
 
     /**
      * Creates a new board panel that will display the provided game.
@@ -50,71 +57,99 @@ class BoardPanel extends JPanel {
         super();
         assert game != null;
         this.game = game;
+        this.shownLevel = game.getLevel();
 
-        Board board = game.getLevel().getBoard();
-
-        int w = board.getWidth() * SQUARE_SIZE;
-        int h = board.getHeight() * SQUARE_SIZE;
-
-        Dimension size = new Dimension(w, h);
+        Dimension size = preferredSize(shownLevel.getBoard());
         setMinimumSize(size);
         setPreferredSize(size);
     }
 
+    private static Dimension preferredSize(Board board) {
+        return new Dimension(board.getWidth() * PacManUI.SQUARE_SIZE,
+            board.getHeight() * PacManUI.SQUARE_SIZE);
+    }
+
     @Override
     public void paint(Graphics g) {
         assert g != null;
-        render(game.getLevel().getBoard(), g, getSize());
+        renderer.draw(game.getLevel(), g, getSize(), getGraphicsConfiguration());
     }
 
     /**
-     * Renders the board on the given graphics context to the given dimensions.
+     * Repaints only the cells that changed since the previous frame: the
+     * cells the level reports as changed and the cells of units that are
+     * animating. The cells are coalesced into rectangles that are painted
+     * immediately on the event dispatch thread, since Swing would otherwise
+     * merge them into their bounding box. The animation clock is sampled
+     * once, so all rectangles of the frame show the same moment.
      *
-     * @param board
-     *            The board to render.
-     * @param graphics
-     *            The graphics context to draw on.
-     * @param window
-     *            The dimensions to scale the rendered board to.
+     * When the game has moved on to another level, none of the cells drawn
+     * before are valid, so the panel is resized to the new board and
+     * repainted entirely instead.
      */
-    private void render(Board board, Graphics graphics, Dimension window) {
-        int cellW = window.width / board.getWidth();
-        int cellH = window.height / board.getHeight();
-
-        graphics.setColor(BACKGROUND_COLOR);
-        graphics.fillRect(0, 0, window.width, window.height);
-
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                int cellX = x * cellW;
-                int cellY = y * cellH;
-                Square square = board.squareAt(x, y);
-                render(square, graphics, cellX, cellY, cellW, cellH);
-            }
+    void repaintChanged() {
+        renderer.sample();
+        Level level = game.getLevel();
+        if (level != shownLevel) {
+            showLevel(level);
+            return;
         }
+        Board board = level.getBoard();
+        BitSet cells = level.drainChangedCells();
+        for (Unit unit : level.getPlayers()) {
+            markAnimating(unit, board, cells);
+        }
+        for (Unit unit : level.getNpcs()) {
+            markAnimating(unit, board, cells);
+        }
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        int cellW = Math.max(1, getWidth() / board.getWidth());
+        int cellH = Math.max(1, getHeight() / board.getHeight());
+        List<Rectangle> regions = DirtyRegions.coalesce(cells, board.getWidth());
+        for (Rectangle region : regions) {
+            region.setBounds(region.x * cellW, region.y * cellH,
+                region.width * cellW, region.height * cellH);
+        }
+        SwingUtilities.invokeLater(() -> {
+            for (Rectangle region : regions) {
+                paintImmediately(region);
+            }
+        });
     }
 
     /**
-     * Renders a single square on the given graphics context on the specified
-     * rectangle.
+     * Resizes the panel to the board of a new level and repaints it
+     * entirely.
      *
-     * @param square
-     *            The square to render.
-     * @param graphics
-     *            The graphics context to draw on.
-     * @param x
-     *            The x position to start drawing.
-     * @param y
-     *            The y position to start drawing.
-     * @param width
-     *            The width of this square (in pixels.)
-     * @param height
-     *            The height of this square (in pixels.)
+     * @param level
+     *            The level now played.
      */
-    private void render(Square square, Graphics graphics, int x, int y, int width, int height) {
-        square.getSprite().draw(graphics, x, y, width, height);
-        for (Unit unit : square.getOccupants()) {
-            unit.getSprite().draw(graphics, x, y, width, height);
+    private void showLevel(Level level) {
+        shownLevel = level;
+        level.drainChangedCells();
+        Dimension size = preferredSize(level.getBoard());
+        SwingUtilities.invokeLater(() -> {
+            if (!size.equals(getPreferredSize())) {
+                setMinimumSize(size);
+                setPreferredSize(size);
+                revalidate();
+                Window window = SwingUtilities.getWindowAncestor(this);
+                if (window != null) {
+                    window.pack();
+                }
+            }
+            paintImmediately(0, 0, getWidth(), getHeight());
+        });
+    }
+
+    private static void markAnimating(Unit unit, Board board, BitSet cells) {
+        if (unit.hasSquare() && unit.getSprite() instanceof AnimatedSprite
+            && ((AnimatedSprite) unit.getSprite()).isAnimating()) {
+            Square square = unit.getSquare();
+            cells.set(square.getY() * board.getWidth() + square.getX());
         }
     }
 }
@@ -0,0 +1,259 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.PelletLayer;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Renders a level onto a graphics context. The squares of the board never
+ * change, so they are drawn once into an off-screen background image, which
+ * is blitted at the start of every frame before the pellets and units are
+ * drawn on top. The background is regenerated when the size of the drawing
+ * area or the board changes.
+ *
+ * Only the cells intersecting the clip of the graphics context are drawn, so
+ * repainting a small region costs as much as the cells in it.
+ *
+ * When a graphics configuration is available the background is kept in an
+ * accelerated {@link VolatileImage}, which is redrawn whenever its contents
+ * are lost; otherwise a {@link BufferedImage} is used.
+ */
+class BoardRenderer {
+
+    /**
+     * The background colour of the board.
+     */
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    /**
+     * The clock sampled at the start of every frame.
+     */
+    private final AnimationClock clock;
+
+    /**
+     * The cached background, or <code>null</code> if it has to be created.
+     */
+    private @Nullable Image background;
+
+    /**
+     * The board the background was drawn for.
+     */
+    private @Nullable Board backgroundBoard;
+
+    /**
+     * The number of times the background has been drawn.
+     */
+    private int backgroundRenders;
+
+    /**
+     * Creates a renderer whose animations follow the system time.
+     */
+    BoardRenderer() {
+        this(AnimationClock.system());
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param animationClock
+     *            The clock the animated sprites follow, sampled at the start
+     *            of every frame.
+     */
+    BoardRenderer(AnimationClock animationClock) {
+        this.clock = animationClock;
+    }
+
+    /**
+     * Starts a new frame by sampling the animation clock, for frames drawn
+     * in parts with {@link #draw(Level, Graphics, Dimension, GraphicsConfiguration)}.
+     */
+    void sample() {
+        clock.sample();
+    }
+
+    /**
+     * Renders a level to the given dimensions as a new frame, sampling the
+     * animation clock first.
+     *
+     * @param level
+     *            The level to render.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     * @param configuration
+     *            The configuration of the device drawn to, or
+     *            <code>null</code> to keep the background in memory.
+     */
+    void render(Level level, Graphics graphics, Dimension window,
+                @Nullable GraphicsConfiguration configuration) {
+        clock.sample();
+        draw(level, graphics, window, configuration);
+    }
+
+    /**
+     * Draws a level to the given dimensions at the time the animation clock
+     * was last sampled, so all parts of a frame show the same moment.
+     *
+     * @param level
+     *            The level to render.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     * @param configuration
+     *            The configuration of the device drawn to, or
+     *            <code>null</code> to keep the background in memory.
+     */
+    void draw(Level level, Graphics graphics, Dimension window,
+              @Nullable GraphicsConfiguration configuration) {
+        Board board = level.getBoard();
+        if (window.width <= 0 || window.height <= 0) {
+            return;
+        }
+        drawBackground(board, graphics, window, configuration);
+
+        int cellW = Math.max(1, window.width / board.getWidth());
+        int cellH = Math.max(1, window.height / board.getHeight());
+        int minX = 0;
+        int minY = 0;
+        int maxX = board.getWidth() - 1;
+        int maxY = board.getHeight() - 1;
+        Rectangle clip = graphics.getClipBounds();
+        if (clip != null) {
+            minX = Math.max(minX, clip.x / cellW);
+            minY = Math.max(minY, clip.y / cellH);
+            maxX = Math.min(maxX, (clip.x + clip.width - 1) / cellW);
+            maxY = Math.min(maxY, (clip.y + clip.height - 1) / cellH);
+        }
+        PelletLayer pellets = level.getPellets();
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int cellX = x * cellW;
+                int cellY = y * cellH;
+                if (pellets.has(x, y)) {
+                    pellets.getSprite().draw(graphics, cellX, cellY, cellW, cellH);
+                }
+                for (Unit unit : board.occupantsAt(x, y)) {
+                    unit.getSprite().draw(graphics, cellX, cellY, cellW, cellH);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the cached background, so it is redrawn on the next frame.
+     */
+    void invalidate() {
+        Image image = background;
+        if (image != null) {
+            image.flush();
+        }
+        background = null;
+        backgroundBoard = null;
+    }
+
+    /**
+     * @return The number of times the background has been drawn.
+     */
+    int getBackgroundRenders() {
+        return backgroundRenders;
+    }
+
+    /**
+     * Blits the background onto the graphics context, regenerating it first
+     * if it is missing, stale or lost.
+     *
+     * @param board
+     *            The board to draw the background of.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param window
+     *            The dimensions of the drawing area.
+     * @param configuration
+     *            The configuration of the device drawn to, if any.
+     */
+    private void drawBackground(Board board, Graphics graphics, Dimension window,
+                                @Nullable GraphicsConfiguration configuration) {
+        Image image = background;
+        if (image == null || backgroundBoard != board
+            || image.getWidth(null) != window.width
+            || image.getHeight(null) != window.height) {
+            invalidate();
+            image = createBackground(window, configuration);
+            renderBackground(board, image, window);
+            background = image;
+            backgroundBoard = board;
+        }
+        if (image instanceof VolatileImage && configuration != null) {
+            VolatileImage volatileImage = (VolatileImage) image;
+            do {
+                int status = volatileImage.validate(configuration);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    invalidate();
+                    volatileImage = configuration.createCompatibleVolatileImage(
+                        window.width, window.height, Transparency.OPAQUE);
+                    background = volatileImage;
+                    backgroundBoard = board;
+                }
+                if (status != VolatileImage.IMAGE_OK) {
+                    renderBackground(board, volatileImage, window);
+                }
+                graphics.drawImage(volatileImage, 0, 0, null);
+            } while (volatileImage.contentsLost());
+        } else {
+            graphics.drawImage(image, 0, 0, null);
+        }
+    }
+
+    private static Image createBackground(Dimension window,
+                                          @Nullable GraphicsConfiguration configuration) {
+        if (configuration != null) {
+            return configuration.createCompatibleVolatileImage(window.width, window.height,
+                Transparency.OPAQUE);
+        }
+        return new BufferedImage(window.width, window.height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Draws the squares of the board into the background image.
+     *
+     * @param board
+     *            The board to draw.
+     * @param image
+     *            The image to draw into.
+     * @param window
+     *            The dimensions of the image.
+     */
+    private void renderBackground(Board board, Image image, Dimension window) {
+        int cellW = window.width / board.getWidth();
+        int cellH = window.height / board.getHeight();
+
+        Graphics graphics = image.getGraphics();
+        try {
+            graphics.setColor(BACKGROUND_COLOR);
+            graphics.fillRect(0, 0, window.width, window.height);
+            for (int y = 0; y < board.getHeight(); y++) {
+                for (int x = 0; x < board.getWidth(); x++) {
+                    board.spriteAt(x, y).draw(graphics, x * cellW, y * cellH, cellW, cellH);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        backgroundRenders++;
+    }
+}
@@ -0,0 +1,71 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Coalesces a set of changed cells into a small set of rectangles to
+ * repaint. Horizontally adjacent cells in a row are merged into runs, and
+ * runs spanning the same columns in consecutive rows are merged into one
+ * rectangle.
+ */
+final class DirtyRegions {
+
+    private DirtyRegions() {
+    }
+
+    /**
+     * Coalesces changed cells into rectangles.
+     *
+     * @param cells
+     *            The changed cells, indexed <code>y * width + x</code>.
+     * @param width
+     *            The width of the board in cells.
+     * @return Disjoint rectangles, in cells, covering exactly the changed
+     *         cells.
+     */
+    static List<Rectangle> coalesce(BitSet cells, int width) {
+        List<Rectangle> regions = new ArrayList<>();
+        List<Rectangle> previousRow = new ArrayList<>();
+        List<Rectangle> currentRow = new ArrayList<>();
+        int row = -1;
+        int cell = cells.nextSetBit(0);
+        while (cell >= 0) {
+            int y = cell / width;
+            int x = cell % width;
+            int end = Math.min(cells.nextClearBit(cell), (y + 1) * width);
+            if (y != row) {
+                regions.addAll(previousRow);
+                previousRow = y == row + 1 ? currentRow : new ArrayList<>();
+                if (y != row + 1) {
+                    regions.addAll(currentRow);
+                }
+                currentRow = new ArrayList<>();
+                row = y;
+            }
+            currentRow.add(extend(previousRow, x, y, end - cell));
+            cell = cells.nextSetBit(end);
+        }
+        regions.addAll(previousRow);
+        regions.addAll(currentRow);
+        return regions;
+    }
+
+    /**
+     * Returns a rectangle covering a run of cells: a rectangle of the
+     * previous row with the same columns grown by one row, or a new one.
+     */
+    private static Rectangle extend(List<Rectangle> previousRow, int x, int y, int length) {
+        for (int i = 0; i < previousRow.size(); i++) {
+            Rectangle above = previousRow.get(i);
+            if (above.x == x && above.width == length) {
+                previousRow.remove(i);
+                above.height++;
+                return above;
+            }
+        }
+        return new Rectangle(x, y, length, 1);
+    }
+}
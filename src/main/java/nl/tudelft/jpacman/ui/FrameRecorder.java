@@ -0,0 +1,248 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Records frames to an animated GIF. Frames are copied into a bounded queue
+ * and encoded on a background thread, so recording never holds up the
+ * thread producing them: when the encoder falls behind,
+ * {@link #offer(BufferedImage)} drops frames rather than wait, while
+ * {@link #record(BufferedImage)} waits, for offline rendering that must not
+ * lose frames.
+ *
+ * Consecutive frames are delta encoded: only the rectangle that changed is
+ * written, and unchanged frames lengthen the previous one.
+ */
+public class FrameRecorder implements Closeable {
+
+    /**
+     * The default number of frames queued for encoding.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The frame marking the end of the recording.
+     */
+    private static final int[] END = new int[0];
+
+    /**
+     * The width of the frames.
+     */
+    private final int width;
+
+    /**
+     * The height of the frames.
+     */
+    private final int height;
+
+    /**
+     * The time every frame is shown in milliseconds.
+     */
+    private final int frameDelay;
+
+    /**
+     * The frames waiting to be encoded.
+     */
+    private final BlockingQueue<int[]> queue;
+
+    /**
+     * The encoder thread, once started.
+     */
+    private @Nullable Thread encoder;
+
+    /**
+     * The number of frames dropped because the queue was full.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The number of frames encoded.
+     */
+    private final AtomicLong encoded = new AtomicLong();
+
+    /**
+     * The error that stopped the encoder, if any.
+     */
+    private volatile @Nullable IOException failure;
+
+    /**
+     * <code>true</code> once the recorder is closed.
+     */
+    private volatile boolean closed;
+
+    private FrameRecorder(int width, int height, int frameDelay, int capacity) {
+        this.width = width;
+        this.height = height;
+        this.frameDelay = frameDelay;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Starts recording to a GIF file.
+     *
+     * @param file
+     *            The file to write.
+     * @param width
+     *            The width of the frames.
+     * @param height
+     *            The height of the frames.
+     * @param frameDelay
+     *            The time every frame is shown in milliseconds.
+     * @param capacity
+     *            The maximum number of frames waiting to be encoded.
+     * @return The recorder, which must be closed to complete the file.
+     * @throws IOException
+     *             When the file could not be created.
+     */
+    public static FrameRecorder open(Path file, int width, int height, int frameDelay,
+                                     int capacity) throws IOException {
+        assert width > 0 && height > 0 && frameDelay > 0 && capacity > 0;
+        GifWriter gif = GifWriter.create(file, width, height);
+        FrameRecorder recorder = new FrameRecorder(width, height, frameDelay, capacity);
+        Thread thread = new Thread(() -> recorder.encode(gif), "frame-recorder");
+        thread.setDaemon(true);
+        recorder.encoder = thread;
+        thread.start();
+        return recorder;
+    }
+
+    /**
+     * Adds a frame if the encoder keeps up, and drops it otherwise.
+     *
+     * @param frame
+     *            The frame, of the size given when the recorder was opened.
+     * @return <code>true</code> iff the frame was queued.
+     */
+    public boolean offer(BufferedImage frame) {
+        if (closed || failure != null) {
+            return false;
+        }
+        if (!queue.offer(pixels(frame))) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a frame, waiting for room in the queue if needed.
+     *
+     * @param frame
+     *            The frame, of the size given when the recorder was opened.
+     * @throws IOException
+     *             When the encoder failed, or the thread was interrupted
+     *             while waiting.
+     */
+    public void record(BufferedImage frame) throws IOException {
+        checkFailure();
+        assert !closed;
+        int[] argb = pixels(frame);
+        try {
+            while (!queue.offer(argb, frameDelay, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while recording a frame.");
+        }
+    }
+
+    private int[] pixels(BufferedImage frame) {
+        assert frame.getWidth() == width && frame.getHeight() == height;
+        if (frame.getType() == BufferedImage.TYPE_INT_ARGB
+            || frame.getType() == BufferedImage.TYPE_INT_RGB) {
+            int[] data = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+            if (data.length == width * height) {
+                return data.clone();
+            }
+        }
+        return frame.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    private void checkFailure() throws IOException {
+        IOException error = failure;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * @return The number of frames dropped because the encoder fell behind.
+     */
+    public long getFramesDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of frames encoded so far.
+     */
+    public long getFramesEncoded() {
+        return encoded.get();
+    }
+
+    private void encode(GifWriter gif) {
+        try {
+            int[] frame = queue.take();
+            while (frame != END) {
+                gif.write(frame, frameDelay);
+                encoded.incrementAndGet();
+                frame = queue.take();
+            }
+            gif.close();
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Unable to record frames: " + e.getMessage());
+            closeQuietly(gif);
+        } catch (InterruptedException e) {
+            closeQuietly(gif);
+        }
+    }
+
+    private static void closeQuietly(GifWriter gif) {
+        try {
+            gif.close();
+        } catch (IOException e) {
+            System.err.println("Unable to close frame recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes the queued frames and completes the file.
+     *
+     * @throws IOException
+     *             When the frames could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Thread thread = encoder;
+        if (thread == null) {
+            return;
+        }
+        try {
+            while (thread.isAlive() && !queue.offer(END, frameDelay,
+                TimeUnit.MILLISECONDS)) {
+                // wait for room for the end marker.
+            }
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        checkFailure();
+    }
+}
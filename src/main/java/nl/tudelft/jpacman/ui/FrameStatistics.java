@@ -0,0 +1,117 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of the frames drawn by a render loop: how many were rendered
+ * and skipped, and how long the most recent ones took to render. Frame times
+ * are kept in a ring buffer of the last {@value #WINDOW} frames.
+ *
+ * The statistics are written by the render thread and may be read from any
+ * thread.
+ */
+public final class FrameStatistics {
+
+    /**
+     * The number of recent frame times kept.
+     */
+    static final int WINDOW = 256;
+
+    /**
+     * The render times of the most recent frames, in nanoseconds.
+     */
+    private final long[] frameTimes = new long[WINDOW];
+
+    /**
+     * The number of frames rendered.
+     */
+    private long rendered;
+
+    /**
+     * The number of frames skipped to catch up with the target frame rate.
+     */
+    private long skipped;
+
+    /**
+     * Records a rendered frame.
+     *
+     * @param nanos
+     *            The time it took to render the frame.
+     */
+    synchronized void frameRendered(long nanos) {
+        frameTimes[(int) (rendered % WINDOW)] = nanos;
+        rendered++;
+    }
+
+    /**
+     * Records frames that were skipped.
+     *
+     * @param frames
+     *            The number of frames skipped.
+     */
+    synchronized void framesSkipped(long frames) {
+        skipped += frames;
+    }
+
+    /**
+     * @return The number of frames rendered.
+     */
+    public synchronized long getFramesRendered() {
+        return rendered;
+    }
+
+    /**
+     * @return The number of frames skipped to catch up with the target frame
+     *         rate.
+     */
+    public synchronized long getFramesSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return The average render time of the recent frames in milliseconds,
+     *         or <code>0</code> if no frames were rendered.
+     */
+    public synchronized double getAverageFrameTime() {
+        int count = recentFrames();
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += frameTimes[i];
+        }
+        return total / (double) count / 1e6;
+    }
+
+    /**
+     * Returns a percentile of the render time of the recent frames.
+     *
+     * @param percentile
+     *            The percentile, between 0 and 100.
+     * @return The render time in milliseconds below which the given
+     *         percentage of the recent frames fall, or <code>0</code> if no
+     *         frames were rendered.
+     */
+    public synchronized double getFrameTimePercentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100;
+        int count = recentFrames();
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(frameTimes, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private int recentFrames() {
+        return (int) Math.min(rendered, WINDOW);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d frames, %d skipped, avg %.2f ms, p99 %.2f ms",
+            rendered, skipped, getAverageFrameTime(), getFrameTimePercentile(99));
+    }
+}
@@ -0,0 +1,312 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Writes frames of equal size to an animated GIF. Only the rectangle in
+ * which a frame differs from the previous one is written, on top of the
+ * previous frame, and frames without changes extend the delay of the frame
+ * before them. Frames with at most 256 colours are written with an exact
+ * palette; others are left to the quantisation of the image writer.
+ */
+final class GifWriter implements Closeable {
+
+    /**
+     * The name of the native GIF image metadata format.
+     */
+    private static final String FORMAT = "javax_imageio_gif_image_1.0";
+
+    /**
+     * The maximum number of colours in a GIF palette.
+     */
+    private static final int MAX_COLOURS = 256;
+
+    /**
+     * Milliseconds per unit of GIF delay.
+     */
+    private static final int DELAY_UNIT = 10;
+
+    /**
+     * The file written to.
+     */
+    private final Path file;
+
+    /**
+     * The stream written to.
+     */
+    private final ImageOutputStream output;
+
+    /**
+     * The GIF writer.
+     */
+    private final ImageWriter writer;
+
+    /**
+     * The width of the frames.
+     */
+    private final int width;
+
+    /**
+     * The height of the frames.
+     */
+    private final int height;
+
+    /**
+     * The previous frame, or <code>null</code> before the first frame.
+     */
+    private int @Nullable [] previous;
+
+    /**
+     * The changed part of the last frame, written when the next change
+     * arrives and its delay is known.
+     */
+    private @Nullable BufferedImage pending;
+
+    /**
+     * The left position of {@link #pending}.
+     */
+    private int pendingX;
+
+    /**
+     * The top position of {@link #pending}.
+     */
+    private int pendingY;
+
+    /**
+     * The display time of {@link #pending} in milliseconds.
+     */
+    private long pendingDelay;
+
+    /**
+     * <code>true</code> until the first frame is written.
+     */
+    private boolean first = true;
+
+    private GifWriter(Path file, ImageOutputStream output, ImageWriter writer,
+                      int width, int height) {
+        this.file = file;
+        this.output = output;
+        this.writer = writer;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Creates a GIF file.
+     *
+     * @param file
+     *            The file to write.
+     * @param width
+     *            The width of the frames.
+     * @param height
+     *            The height of the frames.
+     * @return The writer, which must be closed to complete the file. If
+     *         no frame is written, closing it deletes the file.
+     * @throws IOException
+     *             When the file could not be created.
+     */
+    static GifWriter create(Path file, int width, int height) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("gif");
+        if (!writers.hasNext()) {
+            throw new IOException("No GIF writer available.");
+        }
+        ImageWriter writer = writers.next();
+        Files.deleteIfExists(file);
+        ImageOutputStream output = ImageIO.createImageOutputStream(file.toFile());
+        if (output == null) {
+            throw new IOException("Unable to write " + file);
+        }
+        writer.setOutput(output);
+        writer.prepareWriteSequence(null);
+        return new GifWriter(file, output, writer, width, height);
+    }
+
+    /**
+     * Adds a frame.
+     *
+     * @param argb
+     *            The pixels of the frame, row by row.
+     * @param delay
+     *            The time the frame is shown in milliseconds.
+     * @throws IOException
+     *             When the file could not be written.
+     */
+    void write(int[] argb, long delay) throws IOException {
+        assert argb.length == width * height;
+        int[] last = previous;
+        int minX = 0;
+        int minY = 0;
+        int maxX = width - 1;
+        int maxY = height - 1;
+        if (last != null) {
+            minX = width;
+            minY = height;
+            maxX = -1;
+            maxY = -1;
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    if (argb[row + x] != last[row + x]) {
+                        minX = Math.min(minX, x);
+                        maxX = Math.max(maxX, x);
+                        minY = Math.min(minY, y);
+                        maxY = y;
+                    }
+                }
+            }
+            if (maxX < 0) {
+                pendingDelay += delay;
+                return;
+            }
+            System.arraycopy(argb, 0, last, 0, argb.length);
+        } else {
+            previous = argb.clone();
+        }
+        flush();
+        pending = crop(argb, minX, minY, maxX - minX + 1, maxY - minY + 1);
+        pendingX = minX;
+        pendingY = minY;
+        pendingDelay = delay;
+    }
+
+    /**
+     * Copies a rectangle of a frame into an image, with an exact palette if
+     * the rectangle has few enough colours.
+     */
+    private BufferedImage crop(int[] argb, int x0, int y0, int w, int h) {
+        Map<Integer, Integer> palette = new HashMap<>();
+        byte[] indices = new byte[w * h];
+        boolean indexed = true;
+        for (int y = 0; y < h && indexed; y++) {
+            for (int x = 0; x < w; x++) {
+                int rgb = argb[(y0 + y) * width + x0 + x] & 0xFFFFFF;
+                Integer index = palette.get(rgb);
+                if (index == null) {
+                    if (palette.size() == MAX_COLOURS) {
+                        indexed = false;
+                        break;
+                    }
+                    index = palette.size();
+                    palette.put(rgb, index);
+                }
+                indices[y * w + x] = (byte) (int) index;
+            }
+        }
+        if (indexed) {
+            int[] colours = new int[Math.max(2, palette.size())];
+            for (Map.Entry<Integer, Integer> entry : palette.entrySet()) {
+                colours[entry.getValue()] = entry.getKey();
+            }
+            IndexColorModel model = new IndexColorModel(8, colours.length, colours, 0,
+                false, -1, DataBuffer.TYPE_BYTE);
+            BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_INDEXED, model);
+            byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            System.arraycopy(indices, 0, data, 0, indices.length);
+            return image;
+        }
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < h; y++) {
+            System.arraycopy(argb, (y0 + y) * width + x0, data, y * w, w);
+        }
+        return image;
+    }
+
+    /**
+     * Writes the pending frame, if any.
+     */
+    private void flush() throws IOException {
+        BufferedImage image = pending;
+        if (image == null) {
+            return;
+        }
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        IIOMetadata metadata = writer.getDefaultImageMetadata(
+            ImageTypeSpecifier.createFromRenderedImage(image), param);
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(FORMAT);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "doNotDispose");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime",
+            Long.toString(Math.min(0xFFFF, Math.max(1, pendingDelay / DELAY_UNIT))));
+        control.setAttribute("transparentColorIndex", "0");
+
+        IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+        descriptor.setAttribute("imageLeftPosition", Integer.toString(pendingX));
+        descriptor.setAttribute("imageTopPosition", Integer.toString(pendingY));
+        descriptor.setAttribute("imageWidth", Integer.toString(image.getWidth()));
+        descriptor.setAttribute("imageHeight", Integer.toString(image.getHeight()));
+        descriptor.setAttribute("interlaceFlag", "FALSE");
+
+        if (first) {
+            IIOMetadataNode extensions = child(root, "ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});
+            extensions.appendChild(loop);
+            first = false;
+        }
+        metadata.setFromTree(FORMAT, root);
+        writer.writeToSequence(new IIOImage(image, null, metadata), param);
+        pending = null;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+        for (int i = 0; i < root.getLength(); i++) {
+            if (root.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) root.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+
+    /**
+     * Writes the last frame and completes the file, or deletes the file if
+     * no frame was written, as a GIF without images is not valid.
+     *
+     * @throws IOException
+     *             When the file could not be written or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            if (!first) {
+                writer.endWriteSequence();
+            }
+        } finally {
+            writer.dispose();
+            output.close();
+            if (first) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+
+/**
+ * Renders a level into memory instead of onto the screen, for machines
+ * without a display (<code>java.awt.headless=true</code>), thumbnails and
+ * recordings. Frames are drawn by the same {@link BoardRenderer} as the
+ * user interface, into one ARGB image that is reused for every frame.
+ */
+public class HeadlessRenderer {
+
+    /**
+     * The level to render.
+     */
+    private final Level level;
+
+    /**
+     * The renderer drawing the level.
+     */
+    private final BoardRenderer renderer;
+
+    /**
+     * The image every frame is drawn into.
+     */
+    private final BufferedImage frame;
+
+    /**
+     * The pixels of {@link #frame}.
+     */
+    private final int[] pixels;
+
+    /**
+     * The size of {@link #frame}.
+     */
+    private final Dimension size;
+
+    /**
+     * Creates a renderer whose animations follow the system time.
+     *
+     * @param level
+     *            The level to render.
+     * @param cellSize
+     *            The size of a square of the board in pixels.
+     */
+    public HeadlessRenderer(Level level, int cellSize) {
+        this(level, cellSize, AnimationClock.system());
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param level
+     *            The level to render.
+     * @param cellSize
+     *            The size of a square of the board in pixels.
+     * @param clock
+     *            The clock the animated sprites of the level follow, e.g. a
+     *            manual clock advanced with the simulation.
+     */
+    public HeadlessRenderer(Level level, int cellSize, AnimationClock clock) {
+        assert cellSize > 0;
+        this.level = level;
+        this.renderer = new BoardRenderer(clock);
+        Board board = level.getBoard();
+        this.size = new Dimension(board.getWidth() * cellSize, board.getHeight() * cellSize);
+        this.frame = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        this.pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * @return The width of the frames in pixels.
+     */
+    public int getWidth() {
+        return size.width;
+    }
+
+    /**
+     * @return The height of the frames in pixels.
+     */
+    public int getHeight() {
+        return size.height;
+    }
+
+    /**
+     * Renders the current state of the level.
+     *
+     * @return The frame, which is owned by this renderer and overwritten by
+     *         the next call.
+     */
+    public BufferedImage render() {
+        Graphics graphics = frame.getGraphics();
+        try {
+            renderer.render(level, graphics, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return frame;
+    }
+
+    /**
+     * Renders the current state of the level into an ARGB pixel buffer, one
+     * <code>int</code> per pixel, row by row.
+     *
+     * @param target
+     *            The buffer to fill, of at least <code>width * height</code>
+     *            pixels.
+     * @return The buffer.
+     */
+    public int[] render(int[] target) {
+        assert target.length >= pixels.length;
+        render();
+        System.arraycopy(pixels, 0, target, 0, pixels.length);
+        return target;
+    }
+}
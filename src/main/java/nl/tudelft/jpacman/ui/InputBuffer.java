@@ -0,0 +1,226 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import nl.tudelft.jpacman.profiling.InputEvent;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Decouples key presses from the game. The event dispatch thread only
+ * records the action of a key press as a timestamped intent, which never
+ * blocks; an input thread applies at most one intent per tick.
+ *
+ * Intents are coalesced: a key press replaces an intent that was not
+ * applied yet, so only the most recent one counts. An intent that cannot be
+ * applied, e.g. a turn into a wall, stays buffered and is retried every tick
+ * until it succeeds, is replaced, or is older than {@value #BUFFER_WINDOW}
+ * ms.
+ */
+public final class InputBuffer {
+
+    /**
+     * The default time between two ticks of the input thread in
+     * milliseconds.
+     */
+    public static final int DEFAULT_TICK = 20;
+
+    /**
+     * The time an intent that cannot be applied is retried in milliseconds.
+     */
+    static final int BUFFER_WINDOW = 150;
+
+    /**
+     * The intent waiting to be applied, if any.
+     */
+    private final AtomicReference<@Nullable Intent> pending = new AtomicReference<>();
+
+    /**
+     * The number of intents applied.
+     */
+    private final AtomicLong applied = new AtomicLong();
+
+    /**
+     * The number of intents replaced before they were applied.
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * The number of intents dropped because they could not be applied in
+     * time.
+     */
+    private final AtomicLong expired = new AtomicLong();
+
+    /**
+     * The total latency of the applied intents in nanoseconds.
+     */
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    /**
+     * The largest latency of an applied intent in nanoseconds.
+     */
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * The service running the ticks, if started.
+     */
+    private @Nullable ScheduledExecutorService service;
+
+    /**
+     * Records the action of a key press, to be applied on the next tick.
+     * Safe to call from any thread, and never blocks.
+     *
+     * @param action
+     *            The action to apply.
+     */
+    public void submit(Action action) {
+        Intent previous = pending.getAndSet(new Intent(action, System.nanoTime()));
+        if (previous != null) {
+            coalesced.incrementAndGet();
+        }
+    }
+
+    /**
+     * Applies the pending intent, if any. Called on every tick of the input
+     * thread. An intent whose action throws is dropped, so the input thread
+     * keeps ticking.
+     */
+    void tick() {
+        Intent intent = pending.get();
+        if (intent == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - intent.time > TimeUnit.MILLISECONDS.toNanos(BUFFER_WINDOW)) {
+            if (pending.compareAndSet(intent, null)) {
+                expired.incrementAndGet();
+            }
+            return;
+        }
+        InputEvent event = new InputEvent();
+        event.begin();
+        boolean succeeded;
+        try {
+            succeeded = intent.action.attempt();
+        } catch (RuntimeException e) {
+            pending.compareAndSet(intent, null);
+            return;
+        }
+        if (!succeeded) {
+            intent.retries++;
+            return;
+        }
+        pending.compareAndSet(intent, null);
+        long latency = now - intent.time;
+        applied.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        event.latency = latency;
+        event.retries = intent.retries;
+        event.commit();
+    }
+
+    /**
+     * Starts the input thread.
+     *
+     * @param tick
+     *            The time between two ticks in milliseconds.
+     */
+    synchronized void start(int tick) {
+        assert tick > 0;
+        if (service != null) {
+            return;
+        }
+        ScheduledExecutorService ticks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "input-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticks.scheduleAtFixedRate(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+        service = ticks;
+    }
+
+    /**
+     * Stops the input thread, dropping any pending intent.
+     */
+    synchronized void stop() {
+        ScheduledExecutorService ticks = service;
+        if (ticks != null) {
+            ticks.shutdownNow();
+            service = null;
+        }
+        pending.set(null);
+    }
+
+    /**
+     * @return The number of intents applied.
+     */
+    public long getIntentsApplied() {
+        return applied.get();
+    }
+
+    /**
+     * @return The number of intents replaced by a later key press before
+     *         they were applied.
+     */
+    public long getIntentsCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return The number of intents dropped because they could not be
+     *         applied within {@value #BUFFER_WINDOW} ms.
+     */
+    public long getIntentsExpired() {
+        return expired.get();
+    }
+
+    /**
+     * @return The average time from a key press until its action was
+     *         applied in milliseconds, or <code>0</code> if none were
+     *         applied.
+     */
+    public double getAverageLatency() {
+        long count = applied.get();
+        return count == 0 ? 0 : totalLatency.get() / (double) count / 1_000_000;
+    }
+
+    /**
+     * @return The largest time from a key press until its action was applied
+     *         in milliseconds.
+     */
+    public double getMaxLatency() {
+        return maxLatency.get() / 1_000_000.0;
+    }
+
+    /**
+     * The action of a key press and the time it was pressed.
+     */
+    private static final class Intent {
+
+        /**
+         * The action to apply.
+         */
+        private final Action action;
+
+        /**
+         * The time of the key press, in nanoseconds as given by
+         * {@link System#nanoTime()}.
+         */
+        private final long time;
+
+        /**
+         * The number of ticks on which the action could not be applied. Only
+         * accessed by the input thread.
+         */
+        private int retries;
+
+        Intent(Action action, long time) {
+            this.action = action;
+            this.time = time;
+        }
+    }
+}
@@ -5,7 +5,8 @@ import java.awt.event.KeyListener;
 import java.util.Map;
 
 /**
- * A key listener based on a set of keyCode-action pairs.
+ * A key listener based on a set of keyCode-action pairs. The actions are not
+ * executed on the event dispatch thread, but submitted to an input buffer.
  *
  * @author Jeroen Roosen 
  */
@@ -16,13 +17,21 @@ class PacKeyListener implements KeyListener {
      */
     private final Map<Integer, Action> mappings;
 
+    /**
+     * The buffer the actions of the pressed keys are submitted to.
+     */
+    private final InputBuffer input;
+
     /**
      * Create a new key listener based on a set of keyCode-action pairs.
      * @param keyMappings The mappings of keyCode to action.
+     * @param inputBuffer The buffer the actions are submitted to.
      */
-    PacKeyListener(Map<Integer, Action> keyMappings) {
+    PacKeyListener(Map<Integer, Action> keyMappings, InputBuffer inputBuffer) {
         assert keyMappings != null;
+        assert inputBuffer != null;
         this.mappings = keyMappings;
+        this.input = inputBuffer;
     }
 
     @Override
@@ -30,7 +39,7 @@ class PacKeyListener implements KeyListener {
         assert event != null;
         Action action = mappings.get(event.getKeyCode());
         if (action != null) {
-            action.doAction();
+            input.submit(action);
         }
     }
 
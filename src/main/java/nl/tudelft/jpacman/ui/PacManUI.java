@@ -2,6 +2,7 @@ package nl.tudelft.jpacman.ui;
 
 import java.awt.BorderLayout;
 import java.awt.Container;
+import java.lang.management.ManagementFactory;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -10,6 +11,8 @@ import java.util.concurrent.TimeUnit;
 import javax.swing.*;
 
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.profiling.FirstFrameEvent;
+import nl.tudelft.jpacman.profiling.FrameEvent;
 import nl.tudelft.jpacman.ui.ScorePanel.ScoreFormatter;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -36,6 +39,12 @@ public class PacManUI extends JFrame {
      */
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The size (in pixels) of a square on the board. The board is initially
+     * shown at this size.
+     */
+    public static final int SQUARE_SIZE = 24;
+
     /**
      * The desired frame rate interval for the graphics in milliseconds, 40
      * being 25 fps.
@@ -48,9 +57,41 @@ public class PacManUI extends JFrame {
     private final ScorePanel scorePanel;
 
     /**
-     * The panel displaying the game.
+     * The buffer the key presses are applied from.
+     */
+    private final InputBuffer inputBuffer;
+
+    /**
+     * The panel displaying the game, unless it is rendered actively.
+     */
+    private final @Nullable BoardPanel boardPanel;
+
+    /**
+     * The canvas displaying the game if it is rendered actively.
+     */
+    private final @Nullable ActiveBoardCanvas boardCanvas;
+
+    /**
+     * The number of frames drawn since the UI was started.
+     */
+    private long frameCount;
+
+    /**
+     * The time from the start of the JVM until the first frame in
+     * milliseconds, or <code>-1</code> until it is drawn.
+     */
+    private volatile long timeToFirstFrame = -1;
+
+    /**
+     * The renderer producing the captured frames, if the game is captured.
+     */
+    private volatile @Nullable HeadlessRenderer captureRenderer;
+
+    /**
+     * The recorder the captured frames are offered to, if the game is
+     * captured.
      */
-    private final BoardPanel boardPanel;
+    private volatile @Nullable FrameRecorder captureRecorder;
 
     /**
      * Creates a new UI for a JPac-Man game.
@@ -66,10 +107,34 @@ public class PacManUI extends JFrame {
      * @param scoreFormatter
      *            The formatter used to display the current score.
      */
-    @SuppressWarnings("initialization") // requestFocusInWindow called before initialization ends
     public PacManUI(final Game game, final Map<String, Action> buttons,
                     final Map<Integer, Action> keyMappings,
                     @Nullable ScoreFormatter scoreFormatter) {
+        this(game, buttons, keyMappings, scoreFormatter, 0);
+    }
+
+    /**
+     * Creates a new UI for a JPac-Man game.
+     *
+     * @param game
+     *            The game to play.
+     * @param buttons
+     *            The map of caption-to-action entries that will appear as
+     *            buttons on the interface.
+     * @param keyMappings
+     *            The map of keyCode-to-action entries that will be added as key
+     *            listeners to the interface.
+     * @param scoreFormatter
+     *            The formatter used to display the current score.
+     * @param targetFps
+     *            The frame rate of the active render loop, or <code>0</code>
+     *            to have Swing paint the board every {@value #FRAME_INTERVAL}
+     *            ms.
+     */
+    @SuppressWarnings("initialization") // requestFocusInWindow called before initialization ends
+    public PacManUI(final Game game, final Map<String, Action> buttons,
+                    final Map<Integer, Action> keyMappings,
+                    @Nullable ScoreFormatter scoreFormatter, int targetFps) {
         super("JPac-Man");
         assert game != null;
         assert buttons != null;
@@ -77,7 +142,8 @@ public class PacManUI extends JFrame {
 
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 
-        PacKeyListener keys = new PacKeyListener(keyMappings);
+        inputBuffer = new InputBuffer();
+        PacKeyListener keys = new PacKeyListener(keyMappings, inputBuffer);
         addKeyListener(keys);
 
         JPanel buttonPanel = new ButtonPanel(buttons, this);
@@ -87,13 +153,20 @@ public class PacManUI extends JFrame {
             scorePanel.setScoreFormatter(scoreFormatter);
         }
 
-        boardPanel = new BoardPanel(game);
-
         Container contentPanel = getContentPane();
         contentPanel.setLayout(new BorderLayout());
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
         contentPanel.add(scorePanel, BorderLayout.NORTH);
-        contentPanel.add(boardPanel, BorderLayout.CENTER);
+        if (targetFps > 0) {
+            boardPanel = null;
+            boardCanvas = new ActiveBoardCanvas(game, targetFps);
+            boardCanvas.addKeyListener(keys);
+            contentPanel.add(boardCanvas, BorderLayout.CENTER);
+        } else {
+            boardCanvas = null;
+            boardPanel = new BoardPanel(game);
+            contentPanel.add(boardPanel, BorderLayout.CENTER);
+        }
 
         pack();
     }
@@ -104,16 +177,108 @@ public class PacManUI extends JFrame {
      */
     public void start() {
         setVisible(true);
+        inputBuffer.start(InputBuffer.DEFAULT_TICK);
+        ActiveBoardCanvas canvas = boardCanvas;
+        if (canvas != null) {
+            canvas.start(this::nextFrame);
+            return;
+        }
         ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
         service.scheduleAtFixedRate(this::nextFrame, 0, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
+    @Override
+    public void dispose() {
+        ActiveBoardCanvas canvas = boardCanvas;
+        if (canvas != null) {
+            canvas.stop();
+        }
+        inputBuffer.stop();
+        super.dispose();
+    }
+
     /**
-     * Draws the next frame, i.e. refreshes the scores and game.
+     * Captures every frame: the level is also rendered off-screen and
+     * offered to a recorder, which drops frames rather than slow down the
+     * game.
+     *
+     * @param renderer
+     *            The renderer producing the frames to capture.
+     * @param recorder
+     *            The recorder the frames are offered to.
+     */
+    public void capture(HeadlessRenderer renderer, FrameRecorder recorder) {
+        this.captureRecorder = recorder;
+        this.captureRenderer = renderer;
+    }
+
+    /**
+     * @return The statistics of the frames drawn by the active render loop,
+     *         or <code>null</code> if the board is painted by Swing.
+     */
+    public @Nullable FrameStatistics getFrameStatistics() {
+        ActiveBoardCanvas canvas = boardCanvas;
+        return canvas == null ? null : canvas.getStatistics();
+    }
+
+    /**
+     * @return The time from the start of the JVM until the first frame in
+     *         milliseconds, or <code>-1</code> if it was not drawn yet.
+     */
+    public long getTimeToFirstFrame() {
+        return timeToFirstFrame;
+    }
+
+    /**
+     * @return The buffer the key presses are applied from, with statistics
+     *         of the input latency.
+     */
+    public InputBuffer getInputBuffer() {
+        return inputBuffer;
+    }
+
+    /**
+     * Draws the next frame, i.e. refreshes the scores and the parts of the
+     * game that changed. When the board is rendered actively, it has already
+     * been drawn and only the scores are refreshed.
      */
     private void nextFrame() {
-        boardPanel.repaint();
-        scorePanel.refresh();
+        FrameEvent event = new FrameEvent();
+        event.begin();
+
+        BoardPanel panel = boardPanel;
+        if (panel != null) {
+            panel.repaintChanged();
+        }
+        HeadlessRenderer renderer = captureRenderer;
+        FrameRecorder recorder = captureRecorder;
+        if (renderer != null && recorder != null) {
+            recorder.offer(renderer.render());
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = frameCount;
+            event.commit();
+        }
+        if (frameCount == 0) {
+            reportFirstFrame();
+        }
+        frameCount++;
+    }
+
+    /**
+     * Records the time it took from the start of the JVM until the first
+     * frame, so startup regressions show up.
+     */
+    private void reportFirstFrame() {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        timeToFirstFrame = uptime;
+        FirstFrameEvent event = new FirstFrameEvent();
+        if (event.shouldCommit()) {
+            event.uptime = uptime;
+            event.commit();
+        }
     }
 
     /**
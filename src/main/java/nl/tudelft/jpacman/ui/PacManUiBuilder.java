@@ -50,6 +50,12 @@ public class PacManUiBuilder {
      */
     private @Nullable ScoreFormatter scoreFormatter = null;
 
+    /**
+     * The frame rate of the active render loop, or <code>0</code> to paint
+     * the board passively.
+     */
+    private int targetFps;
+
     /**
      * Creates a new Pac-Man UI builder without any mapped keys or buttons.
      */
@@ -74,7 +80,7 @@ public class PacManUiBuilder {
             addStopButton(game);
             addExitButton(game);
         }
-        return new PacManUI(game, buttons, keyMappings, scoreFormatter);
+        return new PacManUI(game, buttons, keyMappings, scoreFormatter, targetFps);
     }
 
     /**
@@ -165,6 +171,21 @@ public class PacManUiBuilder {
         return this;
     }
 
+    /**
+     * Renders the board actively on a dedicated thread at the given frame
+     * rate, instead of having Swing paint it on request.
+     *
+     * @param fps
+     *            The number of frames to draw per second, or <code>0</code>
+     *            to paint the board passively.
+     * @return The builder.
+     */
+    public PacManUiBuilder withActiveRendering(int fps) {
+        assert fps >= 0;
+        this.targetFps = fps;
+        return this;
+    }
+
     /**
      * Provide formatter for the score.
      *
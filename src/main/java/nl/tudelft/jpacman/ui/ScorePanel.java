@@ -1,18 +1,21 @@
 package nl.tudelft.jpacman.ui;
 
 import java.awt.GridLayout;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.Player.PlayerObserver;
 
 /**
  * A panel consisting of a column for each player, with the numbered players on
- * top and their respective scores underneath.
+ * top and their respective scores underneath. The scores are updated on the
+ * event dispatch thread when a player's score or life changes.
  *
  * @author Jeroen Roosen 
  *
@@ -25,9 +28,10 @@ public class ScorePanel extends JPanel {
     private static final long serialVersionUID = 1L;
 
     /**
-     * The map of players and the labels their scores are on.
+     * The labels the scores of the players are on, in the order of the
+     * players.
      */
-    private final Map<Player, JLabel> scoreLabels;
+    private final List<ScoreLabel> scoreLabels;
 
     /**
      * The default way in which the score is shown.
@@ -35,11 +39,6 @@ public class ScorePanel extends JPanel {
     public static final ScoreFormatter DEFAULT_SCORE_FORMATTER =
         (Player player) -> String.format("Score: %3d", player.getScore());
 
-    /**
-     * The way to format the score information.
-     */
-    private ScoreFormatter scoreFormatter = DEFAULT_SCORE_FORMATTER;
-
     /**
      * Creates a new score panel with a column for each player.
      *
@@ -55,26 +54,22 @@ public class ScorePanel extends JPanel {
         for (int i = 1; i <= players.size(); i++) {
             add(new JLabel("Player " + i +": " + players.get(i - 1).getID(), JLabel.CENTER));
         }
-        scoreLabels = new LinkedHashMap<>();
+        scoreLabels = new ArrayList<>();
         for (Player player : players) {
-            JLabel scoreLabel = new JLabel("0", JLabel.CENTER);
-            scoreLabels.put(player, scoreLabel);
+            ScoreLabel scoreLabel = new ScoreLabel(player);
+            player.addObserver(scoreLabel);
+            scoreLabels.add(scoreLabel);
             add(scoreLabel);
         }
     }
 
     /**
-     * Refreshes the scores of the players.
+     * Redraws the scores of all players, regardless of whether they changed.
+     * Must be called on the event dispatch thread.
      */
     protected void refresh() {
-        for (Map.Entry<Player, JLabel> entry : scoreLabels.entrySet()) {
-            Player player = entry.getKey();
-            String score = "";
-            if (!player.isAlive()) {
-                score = "You died. ";
-            }
-            score += scoreFormatter.format(player);
-            entry.getValue().setText(score);
+        for (ScoreLabel label : scoreLabels) {
+            label.update();
         }
     }
 
@@ -97,6 +92,92 @@ public class ScorePanel extends JPanel {
      */
     public void setScoreFormatter(ScoreFormatter scoreFormatter) {
         assert scoreFormatter != null;
-        this.scoreFormatter = scoreFormatter;
+        for (ScoreLabel label : scoreLabels) {
+            label.setFormatter(scoreFormatter);
+        }
+    }
+
+    /**
+     * The label showing the score of one player. Changes reported from the
+     * game's threads are coalesced into a single update on the event
+     * dispatch thread, which only touches the label if its text changed.
+     */
+    private static final class ScoreLabel extends JLabel implements PlayerObserver {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The player whose score is shown.
+         */
+        private final transient Player player;
+
+        /**
+         * <code>true</code> iff an update is waiting to run on the event
+         * dispatch thread.
+         */
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        /**
+         * The way to format the score information.
+         */
+        private transient ScoreFormatter formatter = DEFAULT_SCORE_FORMATTER;
+
+        /**
+         * Creates a label showing the current score of a player.
+         *
+         * @param player
+         *            The player whose score is shown.
+         */
+        ScoreLabel(Player player) {
+            super(text(player, DEFAULT_SCORE_FORMATTER), JLabel.CENTER);
+            this.player = player;
+        }
+
+        @Override
+        public void scoreChanged(Player changed, int newScore) {
+            scheduleUpdate();
+        }
+
+        @Override
+        public void aliveChanged(Player changed, boolean isAlive) {
+            scheduleUpdate();
+        }
+
+        /**
+         * Sets the way the score is formatted and redraws the label.
+         *
+         * @param scoreFormatter
+         *            The score formatter to be used.
+         */
+        void setFormatter(ScoreFormatter scoreFormatter) {
+            formatter = scoreFormatter;
+            update();
+        }
+
+        private void scheduleUpdate() {
+            if (pending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(() -> {
+                    pending.set(false);
+                    update();
+                });
+            }
+        }
+
+        /**
+         * Redraws the label if its text changed.
+         */
+        void update() {
+            String score = text(player, formatter);
+            if (!score.equals(getText())) {
+                setText(score);
+            }
+        }
+
+        private static String text(Player player, ScoreFormatter formatter) {
+            if (player.isAlive()) {
+                return formatter.format(player);
+            }
+            return "You died. " + formatter.format(player);
+        }
     }
 }
@@ -0,0 +1,123 @@
+package nl.tudelft.jpacman;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.awt.event.KeyEvent;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PelletLayer;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.ui.Action;
+import nl.tudelft.jpacman.ui.PacManUiBuilder;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests creating levels with the launcher, without launching the UI.
+ */
+class LauncherTest {
+
+    /**
+     * Verifies a map that can be played to the end is loaded.
+     */
+    @Test
+    void makesValidLevel() {
+        Level level = new Launcher().withMapFile("/small_board.txt").makeLevel();
+        assertThat(level.getBoard().getWidth()).isEqualTo(5);
+    }
+
+    /**
+     * Verifies a map with a ghost that cannot reach the player is rejected.
+     */
+    @Test
+    void rejectsIsolatedGhost() {
+        Launcher launcher = new Launcher().withMapFile("/isolated_ghost.txt");
+        assertThatThrownBy(launcher::makeLevel)
+            .isInstanceOf(PacmanConfigurationException.class)
+            .hasMessageContaining("/isolated_ghost.txt");
+    }
+
+    /**
+     * Verifies a map is validated as the configured parser builds it, so
+     * characters only a custom parser knows are accepted.
+     */
+    @Test
+    void validatesCustomParser() {
+        Launcher launcher = new Launcher() {
+            @Override
+            protected MapParser getMapParser() {
+                return new MapParser(getLevelFactory(), getBoardFactory()) {
+                    @Override
+                    protected void addSquare(Square[][] grid, List<NPC> ghosts,
+                                             List<Square> startPositions, PelletLayer pellets,
+                                             int x, int y, char c) {
+                        super.addSquare(grid, ghosts, startPositions, pellets, x, y,
+                            c == 'X' ? '#' : c);
+                    }
+                };
+            }
+        }.withMapFile("/custom_wall.txt");
+
+        Level level = launcher.makeLevel();
+        assertThat(level.getBoard().getWidth()).isEqualTo(5);
+        assertThat(level.remainingPellets()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies a game of several levels is not recorded, as a replay holds
+     * a single level.
+     */
+    @Test
+    void rejectsRecordingSeveralLevels() {
+        Launcher launcher = new Launcher()
+            .withLevels(Arrays.asList("/small_board.txt", "/small_board.txt"))
+            .withRecording(Paths.get("levels.replay"));
+        assertThatThrownBy(() -> launcher.makeGame("p"))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies a buffered move is only applied while the game is in
+     * progress and the player can enter the square it moves to.
+     */
+    @Test
+    void attemptSkipsBlockedMoves() {
+        Launcher launcher = new Launcher().withMapFile("/small_board.txt");
+        Game game = launcher.makeGame("p");
+        game.getLevel().setHeadless(true);
+        Action north = keyAction(launcher, KeyEvent.VK_UP);
+        Action east = keyAction(launcher, KeyEvent.VK_RIGHT);
+        Player player = game.getPlayers().get(0);
+        Square start = player.getSquare();
+
+        assertThat(east.attempt()).isFalse();
+        assertThat(player.getSquare()).isSameAs(start);
+
+        game.start();
+        assertThat(north.attempt()).isFalse();
+        assertThat(player.getSquare()).isSameAs(start);
+        assertThat(east.attempt()).isTrue();
+        assertThat(player.getSquare().getX()).isEqualTo(2);
+    }
+
+    private static Action keyAction(Launcher launcher, int keyCode) {
+        PacManUiBuilder builder = spy(new PacManUiBuilder());
+        launcher.addSinglePlayerKeys(builder);
+        ArgumentCaptor<Action> action = ArgumentCaptor.forClass(Action.class);
+        verify(builder).addKey(eq(keyCode), action.capture());
+        return action.getValue();
+    }
+}
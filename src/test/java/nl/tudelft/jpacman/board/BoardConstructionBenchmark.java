@@ -0,0 +1,62 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compares building boards serially and in parallel at several sizes. Run
+ * it as a plain program, e.g. with a large heap:
+ * <code>java -Xmx4g nl.tudelft.jpacman.board.BoardConstructionBenchmark
+ * 256 1024 2048</code>; the arguments are the sides of the square maps.
+ */
+public final class BoardConstructionBenchmark {
+
+    /**
+     * The number of times every measurement is repeated, the best one
+     * counting.
+     */
+    private static final int RUNS = 5;
+
+    private BoardConstructionBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            The sides of the maps to build, by default 256, 512 and
+     *            1024.
+     */
+    public static void main(String[] args) {
+        String[] sizes = args.length == 0 ? new String[] {"256", "512", "1024"} : args;
+        BoardFactory factory = new BoardFactory(new PacManSprites());
+        IntPredicate wall = cell -> cell % 5 == 0;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("%10s %12s %12s %8s%n", "squares", "serial ms", "parallel ms", "speedup");
+        for (String size : sizes) {
+            int side = Integer.parseInt(size);
+            double serial = measure(factory, side, wall, null);
+            double parallel = measure(factory, side, wall, pool);
+            System.out.printf("%10d %12.1f %12.1f %8.2f%n",
+                (long) side * side, serial, parallel, serial / parallel);
+        }
+    }
+
+    private static double measure(BoardFactory factory, int side, IntPredicate wall,
+                                  @Nullable ForkJoinPool pool) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            Board board = factory.createBoard(factory.createGrid(side, side, wall, pool), pool);
+            long time = System.nanoTime() - start;
+            if (board.getWidth() != side) {
+                throw new IllegalStateException("Board was not built.");
+            }
+            best = Math.min(best, time);
+        }
+        return best / 1_000_000.0;
+    }
+}
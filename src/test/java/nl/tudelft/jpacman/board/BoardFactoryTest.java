@@ -8,6 +8,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
 
 /**
  * Tests the linking of squares done by the board factory.
@@ -86,4 +88,58 @@ class BoardFactoryTest {
         assertThat(s1.getSquareAt(Direction.SOUTH)).isEqualTo(s2);
         assertThat(s2.getSquareAt(Direction.SOUTH)).isEqualTo(s1);
     }
+
+    /**
+     * Verifies a board built in parallel is identical to one built
+     * serially.
+     */
+    @Test
+    void parallelBuildIsIdentical() {
+        int width = 301;
+        int height = 257;
+        IntPredicate wall = cell -> cell % 7 == 0 || cell % 11 == 3;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Board serial = factory.createBoard(
+                factory.createGrid(width, height, wall, null), null);
+            Board parallel = factory.createBoard(
+                factory.createGrid(width, height, wall, pool), pool);
+
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    Square expected = serial.squareAt(x, y);
+                    Square actual = parallel.squareAt(x, y);
+                    assertThat(actual.getClass()).isEqualTo(expected.getClass());
+                    assertThat(actual.getX()).isEqualTo(x);
+                    assertThat(actual.getY()).isEqualTo(y);
+                    for (Direction direction : Direction.values()) {
+                        Square neighbour = actual.getSquareAt(direction);
+                        assertThat(neighbour).isSameAs(parallel.squareAt(
+                            expected.getSquareAt(direction).getX(),
+                            expected.getSquareAt(direction).getY()));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies grids are made of the squares created by the overridable
+     * factory methods.
+     */
+    @Test
+    void gridUsesFactoryMethods() {
+        BoardFactory custom = new BoardFactory(mock(PacManSprites.class)) {
+            @Override
+            public Square createGround() {
+                return new BasicSquare();
+            }
+        };
+        Square[][] grid = custom.createGrid(2, 1, cell -> cell == 0, null);
+
+        assertThat(grid[0][0]).isNotInstanceOf(BasicSquare.class);
+        assertThat(grid[1][0]).isInstanceOf(BasicSquare.class);
+    }
 }
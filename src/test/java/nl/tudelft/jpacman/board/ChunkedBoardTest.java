@@ -0,0 +1,166 @@
+package nl.tudelft.jpacman.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.function.IntPredicate;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the lazily created squares of a chunked board.
+ */
+class ChunkedBoardTest {
+
+    private static final int WIDTH = 100;
+
+    private static final int HEIGHT = 70;
+
+    /**
+     * Every seventh cell is a wall.
+     */
+    private static final IntPredicate WALLS = cell -> cell % 7 == 0;
+
+    private BoardFactory factory;
+
+    private ChunkedBoard board;
+
+    /**
+     * Creates the board under test.
+     */
+    @BeforeEach
+    void setUp() {
+        factory = new BoardFactory(mock(PacManSprites.class));
+        board = factory.createChunkedBoard(WIDTH, HEIGHT, WALLS);
+    }
+
+    /**
+     * Verifies that no squares exist until they are asked for, and that
+     * asking for one only creates that one.
+     */
+    @Test
+    void createsSquaresOnDemand() {
+        assertThat(board.getMaterialisedSquareCount()).isEqualTo(0L);
+        assertThat(board.getMaterialisedSquares()).isEmpty();
+
+        Square square = board.squareAt(40, 50);
+
+        assertThat(board.squareAt(40, 50)).isSameAs(square);
+        assertThat(square.getX()).isEqualTo(40);
+        assertThat(square.getY()).isEqualTo(50);
+        assertThat(board.getMaterialisedSquareCount()).isEqualTo(1L);
+        assertThat(board.getMaterialisedChunks()).isEqualTo(1);
+        assertThat(board.getMaterialisedSquares()).containsExactly(square);
+    }
+
+    /**
+     * Verifies that backgrounds and units can be looked up on every cell
+     * without creating squares, and that units on existing squares are
+     * found.
+     */
+    @Test
+    void lookupsDoNotCreateSquares() {
+        Unit unit = new BasicUnit("u");
+        unit.occupy(board.squareAt(40, 50));
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                board.spriteAt(x, y);
+                if (x != 40 || y != 50) {
+                    assertThat(board.occupantsAt(x, y)).isEmpty();
+                }
+            }
+        }
+
+        assertThat(board.occupantsAt(40, 50)).containsExactly(unit);
+        assertThat(board.getMaterialisedSquareCount()).isEqualTo(1L);
+    }
+
+    /**
+     * Verifies that the cells and their neighbours match those of a fully
+     * built board of the same map, including wrapping around the edges.
+     */
+    @Test
+    void matchesFullBoard() {
+        Board full = factory.createBoard(factory.createGrid(WIDTH, HEIGHT, WALLS));
+        Unit unit = new BasicUnit("u");
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                Square expected = full.squareAt(x, y);
+                Square actual = board.squareAt(x, y);
+                assertThat(board.isWall(x, y)).isEqualTo(WALLS.test(y * WIDTH + x));
+                assertThat(actual.isAccessibleTo(unit))
+                    .isEqualTo(expected.isAccessibleTo(unit));
+                for (Direction direction : Direction.values()) {
+                    Square neighbour = actual.getSquareAt(direction);
+                    assertThat(neighbour.getX())
+                        .isEqualTo(expected.getSquareAt(direction).getX());
+                    assertThat(neighbour.getY())
+                        .isEqualTo(expected.getSquareAt(direction).getY());
+                    assertThat(neighbour.getSquareAt(opposite(direction))).isSameAs(actual);
+                }
+            }
+        }
+        assertThat(board.getMaterialisedSquareCount()).isEqualTo((long) WIDTH * HEIGHT);
+    }
+
+    /**
+     * Verifies that a chunk is only evicted once it has not been asked for
+     * during a whole eviction period, after which its cells get new squares.
+     */
+    @Test
+    void evictsIdleChunks() {
+        Square square = board.squareAt(1, 1);
+
+        assertThat(board.evictIdle()).isEqualTo(0);
+        assertThat(board.evictIdle()).isEqualTo(1);
+
+        assertThat(board.getMaterialisedChunks()).isEqualTo(0);
+        assertThat(board.getMaterialisedSquareCount()).isEqualTo(0L);
+        assertThat(board.squareAt(1, 1)).isNotSameAs(square);
+    }
+
+    /**
+     * Verifies that chunks with an occupied square are kept.
+     */
+    @Test
+    void keepsOccupiedChunks() {
+        Square square = board.squareAt(1, 1);
+        new BasicUnit("u").occupy(square);
+        board.squareAt(WIDTH - 1, HEIGHT - 1);
+
+        board.evictIdle();
+
+        assertThat(board.evictIdle()).isEqualTo(1);
+        assertThat(board.squareAt(1, 1)).isSameAs(square);
+    }
+
+    /**
+     * Verifies that chunks with a retained square are kept.
+     */
+    @Test
+    void keepsRetainedChunks() {
+        Square square = board.squareAt(33, 33);
+        board.retain(square);
+
+        board.evictIdle();
+
+        assertThat(board.evictIdle()).isEqualTo(0);
+        assertThat(board.squareAt(33, 33)).isSameAs(square);
+    }
+
+    private static Direction opposite(Direction direction) {
+        switch (direction) {
+            case NORTH:
+                return Direction.SOUTH;
+            case SOUTH:
+                return Direction.NORTH;
+            case EAST:
+                return Direction.WEST;
+            default:
+                return Direction.EAST;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package nl.tudelft.jpacman.board;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Measures the heap taken by the squares of a linked board, per square. Run
+ * it as a plain program, e.g.
+ * <code>java -Xmx2g nl.tudelft.jpacman.board.SquareFootprintBenchmark
+ * 1000</code>; the argument is the side of the square map.
+ */
+public final class SquareFootprintBenchmark {
+
+    private SquareFootprintBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            The side of the map to build, by default 1000.
+     */
+    public static void main(String[] args) {
+        int side = args.length == 0 ? 1000 : Integer.parseInt(args[0]);
+        BoardFactory factory = new BoardFactory(new PacManSprites());
+        factory.createGround();
+
+        long before = usedMemory();
+        Board board = factory.createBoard(factory.createGrid(side, side, cell -> cell % 5 == 0));
+        long after = usedMemory();
+
+        long squares = (long) board.getWidth() * board.getHeight();
+        long grid = 16L + 4L * side + (long) side * (16L + 4L * side);
+        System.out.printf("%d squares, %.1f bytes per square (grid arrays excluded)%n",
+            squares, (after - before - grid) / (double) squares);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -62,4 +62,39 @@ class SquareTest {
 
         assertThat(square.getOccupants()).containsSequence(o1, o2);
     }
+
+    /**
+     * Assert that the order is preserved when the square shrinks back to a
+     * single occupant and grows again.
+     */
+    @Test
+    void testOrderAfterShrinking() {
+        Unit o1 = mock(Unit.class);
+        Unit o2 = mock(Unit.class);
+        Unit o3 = mock(Unit.class);
+        square.put(o1);
+        square.put(o2);
+        square.remove(o1);
+
+        assertThat(square.getOccupants()).containsExactly(o2);
+
+        square.put(o3);
+        square.put(o1);
+
+        assertThat(square.getOccupants()).containsExactly(o2, o3, o1);
+    }
+
+    /**
+     * Assert that neighbours are kept per direction.
+     */
+    @Test
+    void testLink() {
+        Square north = new BasicSquare();
+        Square west = new BasicSquare();
+        square.link(north, Direction.NORTH);
+        square.link(west, Direction.WEST);
+
+        assertThat(square.getSquareAt(Direction.NORTH)).isSameAs(north);
+        assertThat(square.getSquareAt(Direction.WEST)).isSameAs(west);
+    }
 }
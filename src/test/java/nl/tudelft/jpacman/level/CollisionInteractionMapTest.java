@@ -0,0 +1,81 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.ghost.Ghost;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests a collision map built from handlers eating the pellets of the
+ * pellet layer.
+ */
+@SuppressWarnings("magicnumber")
+class CollisionInteractionMapTest {
+
+    /**
+     * The map under test.
+     */
+    private CollisionInteractionMap collisions;
+
+    /**
+     * A layer with a single pellet.
+     */
+    private PelletLayer pellets;
+
+    /**
+     * The square of the pellet.
+     */
+    private final Square square = mock(Square.class);
+
+    /**
+     * The player eating the pellet.
+     */
+    private Player player;
+
+    /**
+     * Creates a map letting players eat pellets, and a pellet to eat.
+     */
+    @BeforeEach
+    void setUp() {
+        collisions = new CollisionInteractionMap();
+        collisions.onCollision(Player.class, Pellet.class,
+            (eater, pellet) -> eater.addPoints(pellet.getValue()));
+        pellets = new PelletLayer(3, 1, mock(Sprite.class));
+        pellets.add(1, 0, 10);
+        when(square.getX()).thenReturn(1);
+        when(square.getY()).thenReturn(0);
+        player = new PlayerFactory(new PacManSprites(AnimationClock.manual()))
+            .createPacMan("p");
+    }
+
+    /**
+     * Verifies a player eats a pellet of the layer through the handler for
+     * pellet units.
+     */
+    @Test
+    void playerEatsLayerPellet() {
+        collisions.collide(player, square, pellets);
+
+        assertThat(player.getScore()).isEqualTo(10);
+        assertThat(pellets.remaining()).isZero();
+    }
+
+    /**
+     * Verifies a pellet of the layer stays when no handler is listed for the
+     * unit moving onto it.
+     */
+    @Test
+    void ghostLeavesLayerPellet() {
+        collisions.collide(mock(Ghost.class), square, pellets);
+
+        assertThat(pellets.remaining()).isEqualTo(1);
+    }
+}
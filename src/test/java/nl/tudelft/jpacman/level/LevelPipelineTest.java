@@ -0,0 +1,116 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.game.MultiLevelGame;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests preparing levels in the background and handing them over to a game.
+ */
+class LevelPipelineTest {
+
+    /**
+     * A board with a single pellet, right of the player.
+     */
+    private static final String SINGLE_PELLET = "/single_pellet.txt";
+
+    private PacManSprites sprites;
+
+    private MapParser parser;
+
+    /**
+     * The threads the levels were created on.
+     */
+    private List<String> loadThreads;
+
+    /**
+     * Creates the parser with the real factories.
+     */
+    @BeforeEach
+    void setUp() {
+        sprites = new PacManSprites(AnimationClock.manual());
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        loadThreads = new CopyOnWriteArrayList<>();
+    }
+
+    private LevelPipeline pipeline(String... maps) {
+        return new LevelPipeline(Arrays.asList(maps), mapName -> {
+            loadThreads.add(Thread.currentThread().getName());
+            Level level = parser.parseMap(mapName);
+            level.setHeadless(true);
+            return level;
+        });
+    }
+
+    /**
+     * Verifies the first level is created on the spot, and the next one in
+     * the background.
+     */
+    @Test
+    void preparesNextLevel() {
+        try (LevelPipeline pipeline = pipeline(SINGLE_PELLET, "/small_board.txt")) {
+            Level first = pipeline.take(0);
+            Level second = pipeline.take(1);
+
+            assertThat(first.getBoard().getWidth()).isEqualTo(4);
+            assertThat(second.getBoard().getWidth()).isEqualTo(5);
+            assertThat(pipeline.getPreloaded()).isEqualTo(1);
+            assertThat(loadThreads).containsExactly(
+                Thread.currentThread().getName(), "level-preload");
+        }
+    }
+
+    /**
+     * Verifies a level that was not prepared is created on the spot.
+     */
+    @Test
+    void takesUnpreparedLevel() {
+        try (LevelPipeline pipeline = pipeline(SINGLE_PELLET, SINGLE_PELLET, SINGLE_PELLET)) {
+            pipeline.take(2);
+
+            assertThat(pipeline.getPreloaded()).isEqualTo(0);
+        }
+    }
+
+    /**
+     * Verifies winning a level starts the next one, and winning the last
+     * one ends the game.
+     */
+    @Test
+    void gameAdvancesToNextLevel() {
+        GameFactory factory = new GameFactory(new PlayerFactory(sprites));
+        MultiLevelGame game = factory.createMultiLevelGame(
+            pipeline(SINGLE_PELLET, SINGLE_PELLET), "p");
+        Player player = game.getPlayers().get(0);
+        Level first = game.getLevel();
+        game.start();
+
+        game.move(player, Direction.EAST);
+
+        assertThat(game.getLevelIndex()).isEqualTo(1);
+        assertThat(game.getLevel()).isNotSameAs(first);
+        assertThat(game.isInProgress()).isTrue();
+        assertThat(player.getSquare().getX()).isEqualTo(1);
+
+        game.move(player, Direction.EAST);
+
+        assertThat(game.isInProgress()).isFalse();
+        assertThat(game.getLevelIndex()).isEqualTo(1);
+        assertThat(player.getScore()).isEqualTo(2 * new LevelFactory(sprites,
+            new GhostFactory(sprites)).getPelletValue());
+    }
+}
@@ -0,0 +1,112 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests taking and restoring snapshots of a level.
+ */
+class LevelSnapshotTest {
+
+    /**
+     * The game on the level under test.
+     */
+    private Game game;
+
+    /**
+     * The level under test.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private Player player;
+
+    /**
+     * Creates a small headless level with one player and a row of pellets.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList(
+            "######",
+            "#P...#",
+            "######"));
+        level.setHeadless(true);
+        game = new GameFactory(new PlayerFactory(sprites)).createSinglePlayerGame(level, "p");
+        player = game.getPlayers().get(0);
+        game.start();
+    }
+
+    /**
+     * Verifies restoring a snapshot puts back the player and the pellets it
+     * ate.
+     */
+    @Test
+    void restoreUndoesMoves() {
+        Square start = player.getSquare();
+        LevelSnapshot snapshot = level.snapshot();
+
+        game.move(player, Direction.EAST);
+        game.move(player, Direction.EAST);
+        assertThat(player.getScore()).isPositive();
+        assertThat(level.remainingPellets()).isEqualTo(1);
+
+        level.restore(snapshot);
+        assertThat(player.getSquare()).isEqualTo(start);
+        assertThat(player.getScore()).isZero();
+        assertThat(player.getDirection()).isEqualTo(Direction.EAST);
+        assertThat(level.remainingPellets()).isEqualTo(3);
+        assertThat(snapshot.getRemainingPellets()).isEqualTo(3);
+    }
+
+    /**
+     * Verifies a later snapshot can be restored after an earlier one.
+     */
+    @Test
+    void restoreForward() {
+        game.move(player, Direction.EAST);
+        LevelSnapshot snapshot = level.snapshot();
+        Square square = player.getSquare();
+
+        level.restore(level.snapshot());
+        game.move(player, Direction.EAST);
+        level.restore(snapshot);
+
+        assertThat(player.getSquare()).isEqualTo(square);
+        assertThat(level.remainingPellets()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies successive snapshots share the pellet chunks that did not
+     * change.
+     */
+    @Test
+    void unchangedPelletsAreShared() {
+        LevelSnapshot first = level.snapshot();
+        LevelSnapshot second = level.snapshot();
+        assertThat(second.getLayerPellets()[0]).isSameAs(first.getLayerPellets()[0]);
+
+        game.move(player, Direction.EAST);
+        LevelSnapshot third = level.snapshot();
+        assertThat(third.getLayerPellets()[0]).isNotSameAs(second.getLayerPellets()[0]);
+    }
+}
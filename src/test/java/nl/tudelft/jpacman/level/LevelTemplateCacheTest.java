@@ -0,0 +1,113 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests creating levels from cached map templates.
+ */
+@SuppressWarnings("magicnumber")
+class LevelTemplateCacheTest {
+
+    /**
+     * The default board.
+     */
+    private static final String BOARD = "/board.txt";
+
+    /**
+     * A small test board.
+     */
+    private static final String SMALL_BOARD = "/small_board.txt";
+
+    /**
+     * The loader stamping the levels.
+     */
+    private CompiledMapLoader loader;
+
+    /**
+     * Creates the loader with the real factories.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        loader = new CompiledMapLoader(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies a map is read once, and every level gets its own squares and
+     * pellets.
+     *
+     * @throws IOException
+     *             When the map could not be read.
+     */
+    @Test
+    void levelsAreStampedFromTemplate() throws IOException {
+        LevelTemplateCache cache = new LevelTemplateCache(loader, 2);
+        Level first = cache.makeLevel(BOARD);
+        Level second = cache.makeLevel(BOARD);
+
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(second.getBoard().squareAt(1, 1)).isNotSameAs(first.getBoard().squareAt(1, 1));
+        assertThat(second.getNpcs().get(0)).isNotSameAs(first.getNpcs().get(0));
+
+        int pellets = second.remainingPellets();
+        first.getPellets().eat(1, 1);
+        assertThat(first.remainingPellets()).isEqualTo(pellets - 1);
+        assertThat(second.remainingPellets()).isEqualTo(pellets);
+    }
+
+    /**
+     * Verifies the least recently used template is evicted when the cache
+     * is full.
+     *
+     * @throws IOException
+     *             When a map could not be read.
+     */
+    @Test
+    void leastRecentlyUsedIsEvicted() throws IOException {
+        LevelTemplateCache cache = new LevelTemplateCache(loader, 1);
+        cache.makeLevel(BOARD);
+        Level small = cache.makeLevel(SMALL_BOARD);
+        cache.makeLevel(SMALL_BOARD);
+        cache.makeLevel(BOARD);
+
+        assertThat(small.getBoard().getWidth()).isEqualTo(5);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(3);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies the analysis of a map is kept with its template, and looking
+     * it up does not count as creating a level.
+     *
+     * @throws IOException
+     *             When the map could not be read.
+     */
+    @Test
+    void analysisIsCached() throws IOException {
+        LevelTemplateCache cache = new LevelTemplateCache(loader, 2);
+        MapAnalysis analysis = cache.getAnalysis(SMALL_BOARD);
+        cache.makeLevel(SMALL_BOARD);
+
+        assertThat(cache.getAnalysis(SMALL_BOARD)).isSameAs(analysis);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isZero();
+        assertThat(analysis.isValid()).isTrue();
+
+        cache.makeLevel(SMALL_BOARD);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,122 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the connectivity analysis of maps.
+ */
+class MapAnalysisTest {
+
+    /**
+     * Verifies a closed corridor is a single component with a dead end at
+     * either side.
+     */
+    @Test
+    void corridor() {
+        MapAnalysis analysis = MapAnalysis.analyse(Arrays.asList(
+            "#####",
+            "#P.G#",
+            "#####"));
+
+        assertThat(analysis.isValid()).isTrue();
+        assertThat(analysis.getComponentCount()).isEqualTo(1);
+        assertThat(analysis.componentAt(0, 0)).isEqualTo(-1);
+        assertThat(analysis.componentAt(2, 1)).isEqualTo(0);
+        assertThat(analysis.getDeadEnds()).isEqualTo(2);
+        assertThat(analysis.getTunnels()).isEmpty();
+    }
+
+    /**
+     * Verifies pellets walled off from the players are reported.
+     */
+    @Test
+    void unreachablePellets() {
+        MapAnalysis analysis = MapAnalysis.analyse(Arrays.asList(
+            "#######",
+            "#P.#..#",
+            "#######"));
+
+        assertThat(analysis.getComponentCount()).isEqualTo(2);
+        assertThat(analysis.getUnreachablePellets()).containsExactly(7 + 4, 7 + 5);
+        assertThat(analysis.isValid()).isFalse();
+        assertThrows(PacmanConfigurationException.class, () -> analysis.validate("test"));
+    }
+
+    /**
+     * Verifies ghosts that cannot reach a player are reported.
+     */
+    @Test
+    void isolatedGhost() {
+        MapAnalysis analysis = MapAnalysis.analyse(Arrays.asList(
+            "#####",
+            "#P#G#",
+            "#####"));
+
+        assertThat(analysis.getIsolatedGhosts()).containsExactly(5 + 3);
+        assertThat(analysis.isValid()).isFalse();
+    }
+
+    /**
+     * Verifies a parsed level is analysed like the text it was parsed from.
+     */
+    @Test
+    void parsedLevel() {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites)).parseMap(Arrays.asList(
+                "#######",
+                "#P.#.G#",
+                "#######"));
+        MapAnalysis analysis = MapAnalysis.analyse(level,
+            new PlayerFactory(sprites).createPacMan("p"));
+
+        assertThat(analysis.getComponentCount()).isEqualTo(2);
+        assertThat(analysis.getUnreachablePellets()).containsExactly(7 + 4);
+        assertThat(analysis.getIsolatedGhosts()).containsExactly(7 + 5);
+    }
+
+    /**
+     * Verifies cells on opposite edges are connected through a tunnel.
+     */
+    @Test
+    void tunnel() {
+        MapAnalysis analysis = MapAnalysis.analyse(Arrays.asList(
+            "#####",
+            " P#. ",
+            "#####"));
+
+        assertThat(analysis.getComponentCount()).isEqualTo(1);
+        assertThat(analysis.getTunnels()).hasSize(1);
+        MapAnalysis.Tunnel tunnel = analysis.getTunnels().get(0);
+        assertThat(tunnel.getFromX()).isEqualTo(0);
+        assertThat(tunnel.getToX()).isEqualTo(4);
+        assertThat(tunnel.getFromY()).isEqualTo(1);
+        assertThat(analysis.isValid()).isTrue();
+    }
+
+    /**
+     * Verifies the default board can be played to the end.
+     *
+     * @throws IOException
+     *             When the board could not be read.
+     */
+    @Test
+    void defaultBoard() throws IOException {
+        MapAnalysis analysis = MapAnalysis.analyseResource("/board.txt");
+
+        analysis.validate("/board.txt");
+        assertThat(analysis.getTunnels()).isNotEmpty();
+    }
+}
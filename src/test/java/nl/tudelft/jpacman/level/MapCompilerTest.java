@@ -0,0 +1,158 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests compiling maps and loading them back.
+ */
+@SuppressWarnings("magicnumber")
+class MapCompilerTest {
+
+    /**
+     * The sprites of the levels.
+     */
+    private final PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+
+    /**
+     * The file the map is compiled to.
+     */
+    private Path file;
+
+    /**
+     * Creates the file.
+     *
+     * @throws IOException
+     *             When the file could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("board", ".jpm");
+    }
+
+    /**
+     * Removes the file.
+     *
+     * @throws IOException
+     *             When the file could not be removed.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies the default board loads into the same level from its
+     * compiled form as from its text.
+     *
+     * @throws IOException
+     *             When the map could not be compiled or loaded.
+     */
+    @Test
+    void roundTrip() throws IOException {
+        MapCompiler.compile(readBoard(), file);
+        Level parsed = parser().parseMap("/board.txt");
+        Level loaded = loader().load(file);
+
+        Board expected = parsed.getBoard();
+        Board actual = loaded.getBoard();
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertThat(actual.squareAt(x, y).getClass())
+                    .isEqualTo(expected.squareAt(x, y).getClass());
+                assertThat(loaded.getPellets().has(x, y))
+                    .isEqualTo(parsed.getPellets().has(x, y));
+            }
+        }
+        assertThat(loaded.remainingPellets()).isEqualTo(parsed.remainingPellets());
+
+        List<NPC> expectedGhosts = parsed.getNpcs();
+        List<NPC> actualGhosts = loaded.getNpcs();
+        assertThat(actualGhosts).hasSameSizeAs(expectedGhosts);
+        for (int i = 0; i < expectedGhosts.size(); i++) {
+            assertThat(actualGhosts.get(i).getClass()).isEqualTo(expectedGhosts.get(i).getClass());
+            assertSamePosition(actualGhosts.get(i).getSquare(), expectedGhosts.get(i).getSquare());
+        }
+
+        Player first = new PlayerFactory(sprites).createPacMan("a");
+        Player second = new PlayerFactory(sprites).createPacMan("b");
+        parsed.registerPlayer(first);
+        loaded.registerPlayer(second);
+        assertSamePosition(second.getSquare(), first.getSquare());
+    }
+
+    /**
+     * Verifies a compiled map that was changed is rejected.
+     *
+     * @throws IOException
+     *             When the map could not be compiled or read.
+     */
+    @Test
+    void corruptionIsDetected() throws IOException {
+        MapCompiler.compile(Lists.newArrayList("#####", "#P.G#", "#####"), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[CompiledMapFormat.HEADER_SIZE] ^= 1;
+        Files.write(file, bytes);
+
+        assertThrows(PacmanConfigurationException.class, () -> loader().load(file));
+    }
+
+    /**
+     * Verifies invalid maps are not compiled.
+     */
+    @Test
+    void invalidMapIsRejected() {
+        assertThrows(PacmanConfigurationException.class,
+            () -> MapCompiler.compile(Lists.newArrayList("#x#"), file));
+    }
+
+    private static void assertSamePosition(Square actual, Square expected) {
+        assertThat(actual.getX()).isEqualTo(expected.getX());
+        assertThat(actual.getY()).isEqualTo(expected.getY());
+    }
+
+    private MapParser parser() {
+        return new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+    }
+
+    private CompiledMapLoader loader() {
+        return new CompiledMapLoader(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+    }
+
+    private static List<String> readBoard() throws IOException {
+        List<String> rows = Lists.newArrayList();
+        try (InputStream in = MapCompilerTest.class.getResourceAsStream("/board.txt");
+             Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name())) {
+            while (scanner.hasNextLine()) {
+                rows.add(scanner.nextLine());
+            }
+        }
+        return rows;
+    }
+}
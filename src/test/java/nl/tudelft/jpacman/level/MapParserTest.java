@@ -0,0 +1,202 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests parsing maps from streams and files.
+ */
+@SuppressWarnings("magicnumber")
+class MapParserTest {
+
+    /**
+     * The parser under test.
+     */
+    private MapParser parser;
+
+    /**
+     * Creates a parser with the real factories.
+     */
+    @BeforeEach
+    void setUp() {
+        parser = newParser();
+    }
+
+    /**
+     * Verifies all common line terminators are accepted, with or without a
+     * terminator after the last row.
+     *
+     * @throws IOException
+     *             When the map could not be read.
+     */
+    @Test
+    void lineTerminators() throws IOException {
+        for (String text : new String[] {"#P.#\n#..#", "#P.#\r\n#..#\r\n", "#P.#\r#..#\r"}) {
+            Level level = parser.parseMap(stream(text));
+            assertThat(level.getBoard().getWidth()).isEqualTo(4);
+            assertThat(level.getBoard().getHeight()).isEqualTo(2);
+            assertThat(level.remainingPellets()).isEqualTo(3);
+        }
+    }
+
+    /**
+     * Verifies a stream delivering its bytes one at a time, and never
+     * reporting any as available, is read completely.
+     *
+     * @throws IOException
+     *             When the map could not be read.
+     */
+    @Test
+    void slowStream() throws IOException {
+        byte[] bytes = "#P #\n#..#\n####\n".getBytes(StandardCharsets.US_ASCII);
+        InputStream trickle = new InputStream() {
+            private int next;
+
+            @Override
+            public int read() {
+                return next < bytes.length ? bytes[next++] : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (next == bytes.length) {
+                    return -1;
+                }
+                if (length == 0) {
+                    return 0;
+                }
+                buffer[offset] = bytes[next++];
+                return 1;
+            }
+        };
+        Level level = parser.parseMap(trickle);
+        assertThat(level.getBoard().getHeight()).isEqualTo(3);
+        assertThat(parser.getStatistics().getBytes()).isEqualTo(bytes.length);
+    }
+
+    /**
+     * Verifies a large map is parsed from a mapped file, with its layout
+     * intact.
+     *
+     * @throws IOException
+     *             When the map could not be written or read.
+     */
+    @Test
+    void largeFile() throws IOException {
+        int width = 400;
+        int height = 300;
+        StringBuilder text = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                text.append(x == 0 || y == 0 || x == width - 1 || y == height - 1 ? '#' : '.');
+            }
+            text.append('\n');
+        }
+        text.setCharAt(width + 2, 'P');
+        Path file = Files.createTempFile("map", ".txt");
+        try {
+            Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+            Level level = parser.parseMap(file);
+
+            Board board = level.getBoard();
+            assertThat(board.getWidth()).isEqualTo(width);
+            assertThat(board.getHeight()).isEqualTo(height);
+            assertThat(board.squareAt(0, 5).isAccessibleTo(null)).isFalse();
+            assertThat(board.squareAt(5, 5).isAccessibleTo(null)).isTrue();
+            assertThat(level.remainingPellets()).isEqualTo((width - 2) * (height - 2) - 1);
+
+            ParseStatistics statistics = parser.getStatistics();
+            assertThat(statistics.getWidth()).isEqualTo(width);
+            assertThat(statistics.getHeight()).isEqualTo(height);
+            assertThat(statistics.getBytes()).isEqualTo(text.length());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Verifies malformed maps are rejected.
+     */
+    @Test
+    void malformedMaps() {
+        assertThrows(PacmanConfigurationException.class, () -> parser.parseMap(stream("")));
+        assertThrows(PacmanConfigurationException.class, () -> parser.parseMap(stream("\n###")));
+        assertThrows(PacmanConfigurationException.class, () -> parser.parseMap(stream("###\n##")));
+        assertThrows(PacmanConfigurationException.class, () -> parser.parseMap(stream("#x#")));
+    }
+
+    /**
+     * Verifies a stream is parsed into the same ghosts, in the same order,
+     * as the rows of text. Ghosts are numbered per level factory, so both
+     * are parsed with a fresh one.
+     *
+     * @throws IOException
+     *             When the map could not be read.
+     */
+    @Test
+    void ghostOrder() throws IOException {
+        List<String> rows = Arrays.asList("#..G#", "#G.P#", "#GP.#");
+        List<NPC> expected = newParser().parseMap(rows).getNpcs();
+        List<NPC> parsed = parser.parseMap(stream(String.join("\n", rows))).getNpcs();
+
+        assertThat(parsed).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(parsed.get(i)).isExactlyInstanceOf(expected.get(i).getClass());
+            assertThat(parsed.get(i).getSquare().getX())
+                .isEqualTo(expected.get(i).getSquare().getX());
+            assertThat(parsed.get(i).getSquare().getY())
+                .isEqualTo(expected.get(i).getSquare().getY());
+        }
+    }
+
+    /**
+     * Verifies the overload without a pellet layer places a pellet unit on
+     * a regular pellet square, as it did before pellets had a layer.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    void addSquareWithoutLayer() {
+        Square[][] grid = new Square[2][1];
+        List<NPC> ghosts = new ArrayList<>();
+        List<Square> startPositions = new ArrayList<>();
+
+        parser.addSquare(grid, ghosts, startPositions, 0, 0, '.');
+        parser.addSquare(grid, ghosts, startPositions, 1, 0, 'P');
+
+        assertThat(grid[0][0].getOccupants()).hasOnlyElementsOfType(Pellet.class).hasSize(1);
+        assertThat(grid[1][0].getOccupants()).isEmpty();
+        assertThat(startPositions).containsExactly(grid[1][0]);
+    }
+
+    private static MapParser newParser() {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        return new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,106 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the mazes generated for scale tests.
+ */
+@SuppressWarnings("magicnumber")
+class MazeGeneratorTest {
+
+    /**
+     * Verifies mazes of various sizes have the requested size, are
+     * symmetric, and connected.
+     *
+     * @param width
+     *            The width of the maze.
+     * @param height
+     *            The height of the maze.
+     */
+    @ParameterizedTest
+    @CsvSource({"11, 9", "12, 10", "28, 31", "21, 23", "97, 161"})
+    void mazesAreValid(int width, int height) {
+        byte[][] rows = new MazeGenerator(42).rows(width, height);
+
+        assertThat(rows).hasSize(height);
+        for (byte[] row : rows) {
+            assertThat(row).hasSize(width);
+            for (int x = 0; x < width; x++) {
+                assertThat(row[x]).isEqualTo(row[width - 1 - x]);
+            }
+        }
+        assertThat(unreachable(rows)).isZero();
+    }
+
+    /**
+     * Verifies a seed always gives the same maze, and another seed another
+     * one.
+     */
+    @Test
+    void seedDeterminesMaze() {
+        List<String> maze = new MazeGenerator(7).generate(101, 141);
+        assertThat(new MazeGenerator(7).generate(101, 141)).isEqualTo(maze);
+        assertThat(new MazeGenerator(8).generate(101, 141)).isNotEqualTo(maze);
+    }
+
+    /**
+     * Verifies a generated maze is a playable level.
+     */
+    @Test
+    void mazeIsLevel() {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        Level level = new MazeGenerator(1).generateLevel(41, 31, parser);
+
+        assertThat(level.getNpcs()).hasSize(4);
+        assertThat(level.remainingPellets()).isGreaterThan(0);
+    }
+
+    /**
+     * Counts the squares that cannot be reached from the top left corridor,
+     * with the board wrapping around at its edges.
+     */
+    private static int unreachable(byte[][] rows) {
+        int height = rows.length;
+        int width = rows[0].length;
+        boolean[][] seen = new boolean[height][width];
+        Deque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[] {1, 1});
+        seen[1][1] = true;
+        int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        while (!queue.isEmpty()) {
+            int[] square = queue.poll();
+            for (int[] step : steps) {
+                int x = (square[0] + step[0] + width) % width;
+                int y = (square[1] + step[1] + height) % height;
+                if (rows[y][x] != '#' && !seen[y][x]) {
+                    seen[y][x] = true;
+                    queue.add(new int[] {x, y});
+                }
+            }
+        }
+        int unreachable = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (rows[y][x] != '#' && !seen[y][x]) {
+                    unreachable++;
+                }
+            }
+        }
+        return unreachable;
+    }
+}
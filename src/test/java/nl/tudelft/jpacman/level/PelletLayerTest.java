@@ -0,0 +1,67 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link PelletLayer}.
+ */
+@SuppressWarnings("magicnumber")
+class PelletLayerTest {
+
+    /**
+     * The layer under test.
+     */
+    private PelletLayer layer;
+
+    /**
+     * Creates a layer with two pellets of different value.
+     */
+    @BeforeEach
+    void setUp() {
+        layer = new PelletLayer(4, 3, mock(Sprite.class));
+        layer.add(1, 1, 10);
+        layer.add(3, 2, 50);
+    }
+
+    /**
+     * Verifies pellets are found on the cells they were added to only.
+     */
+    @Test
+    void hasPellets() {
+        assertThat(layer.has(1, 1)).isTrue();
+        assertThat(layer.has(3, 2)).isTrue();
+        assertThat(layer.has(1, 2)).isFalse();
+        assertThat(layer.remaining()).isEqualTo(2);
+        assertThat(layer.remainingValue()).isEqualTo(60);
+    }
+
+    /**
+     * Verifies eating a pellet yields its value once.
+     */
+    @Test
+    void eatRemovesPellet() {
+        assertThat(layer.eat(3, 2)).isEqualTo(50);
+        assertThat(layer.eat(3, 2)).isZero();
+        assertThat(layer.has(3, 2)).isFalse();
+        assertThat(layer.remaining()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies a frozen layer can be restored after pellets were eaten.
+     */
+    @Test
+    void restoreFrozenLayer() {
+        long[][] frozen = layer.freeze();
+        layer.eat(1, 1);
+        layer.eat(3, 2);
+        layer.restore(frozen);
+        assertThat(layer.remaining()).isEqualTo(2);
+        assertThat(layer.eat(1, 1)).isEqualTo(10);
+    }
+}
@@ -42,6 +42,11 @@ class NavigationTest {
      */
     private MapParser parser;
 
+    /**
+     * Level factory used to create pellet units.
+     */
+    private LevelFactory levelFactory;
+
     /**
      * Set up the map parser.
      */
@@ -51,8 +56,8 @@ class NavigationTest {
         OpenKit openKit = mock(OpenKit.class);
         Session sessionMock = mock(Session.class);
         when(openKit.createSession(anyString())).thenReturn(sessionMock);
-        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(
-            sprites)), new BoardFactory(sprites));
+        levelFactory = new LevelFactory(sprites, new GhostFactory(sprites));
+        parser = new MapParser(levelFactory, new BoardFactory(sprites));
     }
 
     /**
@@ -131,10 +136,12 @@ class NavigationTest {
     @Test
     void testNearestUnit() {
         Board b = parser
-            .parseMap(Lists.newArrayList("#####", "# ..#", "#####"))
+            .parseMap(Lists.newArrayList("#####", "#   #", "#####"))
             .getBoard();
         Square s1 = b.squareAt(1, 1);
         Square s2 = b.squareAt(2, 1);
+        levelFactory.createPellet().occupy(s2);
+        levelFactory.createPellet().occupy(b.squareAt(3, 1));
         Square result = Navigation.findNearest(Pellet.class, s1).getSquare();
         assertThat(result).isEqualTo(s2);
     }
@@ -0,0 +1,111 @@
+package nl.tudelft.jpacman.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.ghost.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the flight recorder events can be committed and end up in a
+ * recording with their fields.
+ */
+class ProfilingEventsTest {
+
+    /**
+     * The event types of the game.
+     */
+    private static final List<Class<? extends Event>> TYPES = Lists.newArrayList(
+        CollisionEvent.class, FirstFrameEvent.class, FrameEvent.class,
+        InputEvent.class, MoveEvent.class, PathSearchEvent.class);
+
+    /**
+     * Verifies an event of every type is recorded.
+     *
+     * @throws IOException
+     *             When the recording could not be written or read.
+     */
+    @Test
+    void eventsAreRecorded() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            new CollisionEvent().commit();
+            new FirstFrameEvent().commit();
+            new FrameEvent().commit();
+            new InputEvent().commit();
+            new MoveEvent().commit();
+            new PathSearchEvent().commit();
+        });
+
+        List<String> names = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            names.add(event.getEventType().getName());
+        }
+        assertThat(names).containsExactlyInAnyOrder(
+            "nl.tudelft.jpacman.Collision", "nl.tudelft.jpacman.FirstFrame",
+            "nl.tudelft.jpacman.Frame", "nl.tudelft.jpacman.Input",
+            "nl.tudelft.jpacman.Move", "nl.tudelft.jpacman.PathSearch");
+    }
+
+    /**
+     * Verifies a search for the nearest unit records the distance to it.
+     *
+     * @throws IOException
+     *             When the recording could not be written or read.
+     */
+    @Test
+    void findNearestRecordsDistance() throws IOException {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+                "######",
+                "#P  G#",
+                "######"));
+
+        List<RecordedEvent> events = record(() ->
+            Navigation.findNearest(Ghost.class, level.getBoard().squareAt(1, 1)));
+
+        assertThat(events).hasSize(1);
+        RecordedEvent search = events.get(0);
+        assertThat(search.getString("search")).isEqualTo("findNearest");
+        assertThat(search.getBoolean("found")).isTrue();
+        assertThat(search.getInt("pathLength")).isEqualTo(3);
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws IOException {
+        Path file = Files.createTempFile("events", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                for (Class<? extends Event> type : TYPES) {
+                    recording.enable(type).withoutThreshold();
+                }
+                recording.start();
+                action.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package nl.tudelft.jpacman.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies a recorded game is reproduced exactly by a replay.
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class GameReplayTest {
+
+    /**
+     * The number of ghosts on the map of {@link #manyGhosts()}.
+     */
+    private static final int MANY_GHOSTS = 200;
+
+    /**
+     * The event log.
+     */
+    private Path file;
+
+    /**
+     * Sprites that are never drawn.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * Creates the event log and the sprites.
+     *
+     * @throws IOException
+     *             when the log could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("game", ".rec");
+        sprites = mock(PacManSprites.class);
+        when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+    }
+
+    /**
+     * Removes the event log.
+     *
+     * @throws IOException
+     *             when the log could not be removed.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies the players, NPCs and pellets end up in the same state after
+     * the replay as after the recorded game.
+     *
+     * @throws IOException
+     *             when the log could not be written or read.
+     */
+    @Test
+    void replayReproducesGame() throws IOException {
+        Game recorded = makeGame();
+        Level level = recorded.getLevel();
+        level.setHeadless(true);
+        Player player = recorded.getPlayers().get(0);
+        NPC ghost = level.getNpcs().get(0);
+
+        GameRecorder recorder = GameRecorder.record(level, file);
+        try {
+            recorded.start();
+            recorded.move(player, Direction.EAST);
+            level.move(ghost, Direction.WEST);
+            recorded.move(player, Direction.EAST);
+            recorded.move(player, Direction.NORTH);
+            level.move(ghost, Direction.SOUTH);
+            recorded.stop();
+        } finally {
+            recorder.close();
+        }
+
+        Game replayed = makeGame();
+        try (GameReplayer replayer = GameReplayer.open(file)) {
+            assertThat(replayer.replay(replayed, 0)).isEqualTo(7);
+            assertThat(replayer.getSeed()).isEqualTo(level.getSeed());
+        }
+
+        Player replayedPlayer = replayed.getPlayers().get(0);
+        NPC replayedGhost = replayed.getLevel().getNpcs().get(0);
+        assertThat(replayedPlayer.getScore()).isEqualTo(player.getScore()).isPositive();
+        assertThat(replayedPlayer.getDirection()).isEqualTo(player.getDirection());
+        assertThat(position(replayed.getLevel(), replayedPlayer))
+            .isEqualTo(position(level, player));
+        assertThat(position(replayed.getLevel(), replayedGhost))
+            .isEqualTo(position(level, ghost));
+        assertThat(replayed.getLevel().remainingPellets()).isEqualTo(level.remainingPellets());
+    }
+
+    /**
+     * Verifies units beyond the range of a signed byte are replayed.
+     *
+     * @throws IOException
+     *             when the log could not be written or read.
+     */
+    @Test
+    void replaysManyUnits() throws IOException {
+        List<String> rows = manyGhosts();
+        Game recorded = makeGame(rows);
+        Level level = recorded.getLevel();
+        level.setHeadless(true);
+        NPC ghost = level.getNpcs().get(MANY_GHOSTS - 1);
+
+        GameRecorder recorder = GameRecorder.record(level, file);
+        try {
+            recorded.start();
+            level.move(ghost, Direction.SOUTH);
+            recorded.stop();
+        } finally {
+            recorder.close();
+        }
+
+        Game replayed = makeGame(rows);
+        try (GameReplayer replayer = GameReplayer.open(file)) {
+            replayer.replay(replayed, 0);
+        }
+        NPC replayedGhost = replayed.getLevel().getNpcs().get(MANY_GHOSTS - 1);
+        assertThat(position(replayed.getLevel(), replayedGhost))
+            .isEqualTo(position(level, ghost));
+    }
+
+    /**
+     * Verifies a recording spanning several write buffers is replayed in
+     * full.
+     *
+     * @throws IOException
+     *             when the log could not be written or read.
+     */
+    @Test
+    void replaysSeveralBuffers() throws IOException {
+        final int moves = 20_000;
+        Game recorded = makeGame();
+        Level level = recorded.getLevel();
+        level.setHeadless(true);
+        NPC ghost = level.getNpcs().get(0);
+
+        GameRecorder recorder = GameRecorder.record(level, file);
+        try {
+            recorded.start();
+            for (int i = 0; i < moves; i++) {
+                level.move(ghost, i % 2 == 0 ? Direction.SOUTH : Direction.NORTH);
+            }
+            recorded.stop();
+        } finally {
+            recorder.close();
+        }
+
+        Game replayed = makeGame();
+        try (GameReplayer replayer = GameReplayer.open(file)) {
+            assertThat(replayer.replay(replayed, 0)).isEqualTo(moves + 2);
+        }
+    }
+
+    /**
+     * Verifies a failure to write the log is thrown when the recording is
+     * closed.
+     *
+     * @throws IOException
+     *             when the log could not be opened.
+     */
+    @Test
+    void writeFailureIsThrown() throws IOException {
+        Path full = Paths.get("/dev/full");
+        assumeTrue(Files.isWritable(full));
+        Game recorded = makeGame();
+        Level level = recorded.getLevel();
+        level.setHeadless(true);
+
+        GameRecorder recorder = GameRecorder.record(level, full);
+        recorded.start();
+        recorded.stop();
+
+        assertThatThrownBy(recorder::close).isInstanceOf(IOException.class);
+    }
+
+    private static List<String> manyGhosts() {
+        StringBuilder wall = new StringBuilder();
+        StringBuilder ghosts = new StringBuilder("#P");
+        StringBuilder floor = new StringBuilder("#.");
+        for (int i = 0; i < MANY_GHOSTS; i++) {
+            ghosts.append('G');
+            floor.append('.');
+        }
+        ghosts.append('#');
+        floor.append('#');
+        for (int i = 0; i < ghosts.length(); i++) {
+            wall.append('#');
+        }
+        return Lists.newArrayList(wall.toString(), ghosts.toString(), floor.toString(),
+            wall.toString());
+    }
+
+    private Game makeGame() {
+        return makeGame(Lists.newArrayList(
+            "#######",
+            "#P...G#",
+            "#.....#",
+            "#######"));
+    }
+
+    private Game makeGame(List<String> rows) {
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        Level level = parser.parseMap(rows);
+        return new GameFactory(new PlayerFactory(sprites)).createSinglePlayerGame(level, "p");
+    }
+
+    private static String position(Level level, Unit unit) {
+        Board board = level.getBoard();
+        Square square = unit.getSquare();
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                if (board.squareAt(x, y) == square) {
+                    return x + "," + y;
+                }
+            }
+        }
+        return "none";
+    }
+}
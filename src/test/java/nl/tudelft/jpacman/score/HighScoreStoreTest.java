@@ -0,0 +1,212 @@
+package nl.tudelft.jpacman.score;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the queries and the persistence of the {@link HighScoreStore}.
+ */
+@SuppressWarnings({"magicnumber", "PMD.AvoidDuplicateLiterals"})
+class HighScoreStoreTest {
+
+    /**
+     * The log file backing the store.
+     */
+    private Path file;
+
+    /**
+     * The store under test.
+     */
+    private HighScoreStore store;
+
+    /**
+     * Opens a store on a fresh log file.
+     *
+     * @throws IOException
+     *             when the log could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("highscores", ".log");
+        store = HighScoreStore.open(file);
+    }
+
+    /**
+     * Closes the store and removes its log.
+     *
+     * @throws IOException
+     *             when the log could not be removed.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies the best results are returned highest first, with the earlier
+     * of two equal scores first.
+     */
+    @Test
+    void topResults() {
+        store.submit("alice", 30);
+        store.submit("bob", 50);
+        store.submit("carol", 30);
+        store.submit("dave", 10);
+
+        assertThat(store.top(3)).extracting(HighScore::getPlayer)
+            .containsExactly("bob", "alice", "carol");
+        assertThat(store.highestScore()).isEqualTo(50);
+    }
+
+    /**
+     * Verifies only the best result of a player is kept as personal best.
+     */
+    @Test
+    void personalBest() {
+        store.submit("alice", 30);
+        store.submit("alice", 70);
+        store.submit("alice", 20);
+
+        HighScore best = store.personalBest("alice");
+        assertThat(best).isNotNull();
+        assertThat(best.getScore()).isEqualTo(70);
+        assertThat(store.personalBest("bob")).isNull();
+    }
+
+    /**
+     * Verifies the percentile rank counts the results strictly below a score.
+     */
+    @Test
+    void percentileRank() {
+        for (int score = 0; score < 100; score++) {
+            store.submit("player", score);
+        }
+
+        assertThat(store.percentileRank(50)).isEqualTo(50.0);
+        assertThat(store.percentileRank(1000)).isEqualTo(100.0);
+        assertThat(store.percentileRank(-1)).isEqualTo(0.0);
+    }
+
+    /**
+     * Verifies results survive reopening the store.
+     *
+     * @throws Exception
+     *             when the log could not be written or read.
+     */
+    @Test
+    void reopen() throws Exception {
+        store.submit("alice", 30);
+        store.submit("bob", 50).get();
+        store.close();
+
+        store = HighScoreStore.open(file);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.top(1)).extracting(HighScore::getPlayer).containsExactly("bob");
+    }
+
+    /**
+     * Verifies a torn record at the end of the log is discarded, while the
+     * records before it are kept.
+     *
+     * @throws IOException
+     *             when the log could not be written or read.
+     * @throws InterruptedException
+     *             when interrupted while waiting for the write.
+     * @throws ExecutionException
+     *             when the write failed.
+     */
+    @Test
+    void tornRecord() throws IOException, InterruptedException, ExecutionException {
+        store.submit("alice", 30).get();
+        store.close();
+        long intact = Files.size(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 5, 'b', 'o'}));
+        }
+
+        store = HighScoreStore.open(file);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(Files.size(file)).isEqualTo(intact);
+
+        store.submit("bob", 50).get();
+        store.close();
+        store = HighScoreStore.open(file);
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies a damaged record in the middle of the log is skipped, while
+     * the records after it are kept.
+     *
+     * @throws IOException
+     *             when the log could not be written or read.
+     * @throws InterruptedException
+     *             when interrupted while waiting for the write.
+     * @throws ExecutionException
+     *             when the write failed.
+     */
+    @Test
+    void damagedRecord() throws IOException, InterruptedException, ExecutionException {
+        store.submit("alice", 30).get();
+        store.submit("bob", 40).get();
+        store.submit("carol", 50).get();
+        store.close();
+        long intact = Files.size(file);
+
+        // header, alice's record and the name length of bob's record.
+        final int bobsName = 8 + 18 + 5 + 2;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'B'}), bobsName);
+        }
+
+        store = HighScoreStore.open(file);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.personalBest("bob")).isNull();
+        assertThat(store.personalBest("carol")).isNotNull();
+        assertThat(Files.size(file)).isEqualTo(intact);
+    }
+
+    /**
+     * Verifies a name too long for a record is cut on a character boundary,
+     * and found under the same key after the log is reopened.
+     *
+     * @throws IOException
+     *             when the log could not be written or read.
+     * @throws InterruptedException
+     *             when interrupted while waiting for the write.
+     * @throws ExecutionException
+     *             when the write failed.
+     */
+    @Test
+    void longName() throws IOException, InterruptedException, ExecutionException {
+        StringBuilder name = new StringBuilder("a");
+        for (int i = 0; i < 20_000; i++) {
+            name.append('\u00e9');
+        }
+        store.submit(name.toString(), 30).get();
+        HighScore before = store.personalBest(name.toString());
+        store.close();
+
+        store = HighScoreStore.open(file);
+        HighScore after = store.personalBest(name.toString());
+        assertThat(before).isNotNull();
+        assertThat(after).isNotNull();
+        assertThat(after.getPlayer()).isEqualTo(before.getPlayer()).endsWith("\u00e9");
+        assertThat(after.getPlayer().getBytes(StandardCharsets.UTF_8).length)
+            .isLessThanOrEqualTo(Short.MAX_VALUE);
+    }
+}
@@ -0,0 +1,96 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.awt.Graphics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the frames an {@link AnimatedSprite} shows along a manual
+ * {@link AnimationClock}.
+ */
+@SuppressWarnings("magicnumber")
+class AnimatedSpriteTest {
+
+    /**
+     * The delay between frames.
+     */
+    private static final int DELAY = 100;
+
+    /**
+     * The frames of the animation.
+     */
+    private final Sprite[] frames = {mock(Sprite.class), mock(Sprite.class), mock(Sprite.class)};
+
+    /**
+     * The graphics context drawn on.
+     */
+    private final Graphics graphics = mock(Graphics.class);
+
+    /**
+     * The clock driving the animation.
+     */
+    private AnimationClock clock;
+
+    /**
+     * Creates a clock at time 0.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = AnimationClock.manual();
+    }
+
+    /**
+     * Verifies a looping animation shows the frame the elapsed time points
+     * at, even after a very long pause.
+     */
+    @Test
+    void loopingFrames() {
+        AnimatedSprite sprite = new AnimatedSprite(frames, DELAY, true, true, clock);
+        clock.advance(DELAY * 2 + 50);
+        sprite.draw(graphics, 0, 0, 1, 1);
+        verify(frames[2]).draw(graphics, 0, 0, 1, 1);
+
+        clock.advance(DELAY * 3_000_000_001L);
+        sprite.draw(graphics, 0, 0, 2, 2);
+        verify(frames[0]).draw(graphics, 0, 0, 2, 2);
+    }
+
+    /**
+     * Verifies a non-looping animation stops after its last frame.
+     */
+    @Test
+    void nonLoopingEnds() {
+        AnimatedSprite sprite = new AnimatedSprite(frames, DELAY, false, true, clock);
+        assertThat(sprite.isAnimating()).isTrue();
+        clock.advance(DELAY * 3);
+        sprite.draw(graphics, 0, 0, 1, 1);
+        assertThat(sprite.isAnimating()).isFalse();
+        for (Sprite frame : frames) {
+            verify(frame, never()).draw(graphics, 0, 0, 1, 1);
+        }
+    }
+
+    /**
+     * Verifies a paused animation resumes at the frame it was paused at.
+     */
+    @Test
+    void pauseAndResume() {
+        AnimatedSprite sprite = new AnimatedSprite(frames, DELAY, true, true, clock);
+        clock.advance(DELAY);
+        sprite.setAnimating(false);
+        clock.advance(DELAY * 10);
+        sprite.draw(graphics, 0, 0, 1, 1);
+        verify(frames[1]).draw(graphics, 0, 0, 1, 1);
+
+        sprite.setAnimating(true);
+        clock.advance(DELAY);
+        sprite.draw(graphics, 0, 0, 2, 2);
+        verify(frames[2]).draw(graphics, 0, 0, 2, 2);
+    }
+}
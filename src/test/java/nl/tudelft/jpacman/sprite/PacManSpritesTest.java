@@ -0,0 +1,63 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests loading the Pac-Man sprites in the background and from several
+ * threads.
+ */
+class PacManSpritesTest {
+
+    /**
+     * Verifies the sprites handed out after preloading in the background
+     * come from the atlas.
+     *
+     * @throws Exception
+     *             When preloading failed.
+     */
+    @Test
+    void preloadsInBackground() throws Exception {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        CompletableFuture<Void> preload = sprites.preload();
+
+        assertThat(sprites.preload()).isSameAs(preload);
+        preload.get();
+        assertThat(sprites.getWallSprite()).isInstanceOf(AtlasSprite.class);
+    }
+
+    /**
+     * Verifies threads asking for the same sprite at once get the same one.
+     *
+     * @throws InterruptedException
+     *             When the test was interrupted.
+     * @throws ExecutionException
+     *             When loading a sprite failed.
+     */
+    @Test
+    void loadsConcurrently() throws InterruptedException, ExecutionException {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Sprite>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(sprites::getPelletSprite));
+            }
+            Sprite first = results.get(0).get();
+            for (Future<Sprite> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests packing images into a {@link SpriteAtlas} and drawing from it.
+ */
+@SuppressWarnings("magicnumber")
+class SpriteAtlasTest {
+
+    /**
+     * The atlas under test.
+     */
+    private SpriteAtlas atlas;
+
+    /**
+     * The file the atlas image is written to.
+     */
+    private Path imageFile;
+
+    /**
+     * The file the atlas index is written to.
+     */
+    private Path indexFile;
+
+    /**
+     * Packs a red two-frame strip, a green square and a blue square.
+     *
+     * @throws IOException
+     *             when the temporary files could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        BufferedImage strip = image(32, 16, Color.RED);
+        strip.setRGB(16, 0, Color.YELLOW.getRGB());
+        images.put("strip", strip);
+        images.put("green", image(16, 16, Color.GREEN));
+        images.put("blue", image(16, 32, Color.BLUE));
+        atlas = SpriteAtlas.pack(images);
+        imageFile = Files.createTempFile("atlas", ".png");
+        indexFile = Files.createTempFile("atlas", ".idx");
+    }
+
+    /**
+     * Removes the temporary files.
+     *
+     * @throws IOException
+     *             when the files could not be deleted.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(imageFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    /**
+     * Verifies every packed image is drawn with its own pixels, at its own
+     * size and scaled to a board cell.
+     */
+    @Test
+    void drawsPackedImages() {
+        assertThat(atlas.getGrid()).isEqualTo(16);
+        assertThat(centre(atlas.getSprite("green"), 16)).isEqualTo(Color.GREEN.getRGB());
+        assertThat(centre(atlas.getSprite("blue"), 16)).isEqualTo(Color.BLUE.getRGB());
+        assertThat(centre(atlas.getSprite("green"), 24)).isEqualTo(Color.GREEN.getRGB());
+        assertThat(atlas.getSprite("missing")).isNull();
+    }
+
+    /**
+     * Verifies an atlas drawn alternately at two cell sizes keeps a scaled
+     * copy for each.
+     */
+    @Test
+    void keepsTwoScaledCopies() {
+        Graphics graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).getGraphics();
+        Image large = atlas.scaledImage(graphics, 24, 24);
+        Image small = atlas.scaledImage(graphics, 16, 16);
+
+        assertThat(atlas.scaledImage(graphics, 24, 24)).isSameAs(large);
+        assertThat(atlas.scaledImage(graphics, 16, 16)).isSameAs(small);
+        assertThat(large.getWidth(null)).isEqualTo(small.getWidth(null) / 16 * 24);
+        graphics.dispose();
+    }
+
+    /**
+     * Verifies frames split from a packed image are regions of the atlas.
+     */
+    @Test
+    void splitsFrames() {
+        Sprite strip = atlas.getSprite("strip");
+        Sprite second = strip.split(16, 0, 16, 16);
+        assertThat(second).isInstanceOf(AtlasSprite.class);
+        assertThat(second.getWidth()).isEqualTo(16);
+        assertThat(corner(second, 24)).isEqualTo(Color.YELLOW.getRGB());
+        assertThat(corner(strip.split(0, 0, 16, 16), 24)).isEqualTo(Color.RED.getRGB());
+        assertThat(strip.split(24, 0, 16, 16)).isInstanceOf(EmptySprite.class);
+    }
+
+    /**
+     * Verifies an atlas read back from disk draws the same images.
+     *
+     * @throws IOException
+     *             when the atlas could not be written or read.
+     */
+    @Test
+    void roundTrip() throws IOException {
+        atlas.write(imageFile, indexFile);
+        SpriteAtlas read = SpriteAtlas.read(imageFile, indexFile);
+        assertThat(read.getNames()).containsExactlyInAnyOrder("strip", "green", "blue");
+        assertThat(read.getGrid()).isEqualTo(16);
+        assertThat(centre(read.getSprite("blue"), 16)).isEqualTo(Color.BLUE.getRGB());
+    }
+
+    private static BufferedImage image(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = image.getGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage draw(Sprite sprite, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = target.getGraphics();
+        sprite.draw(graphics, 0, 0, size, size);
+        graphics.dispose();
+        return target;
+    }
+
+    private static int centre(Sprite sprite, int size) {
+        return draw(sprite, size).getRGB(size / 2, size / 2);
+    }
+
+    private static int corner(Sprite sprite, int size) {
+        return draw(sprite, size).getRGB(0, 0);
+    }
+}
@@ -3,6 +3,9 @@ package nl.tudelft.jpacman.sprite;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -109,4 +112,30 @@ public class SpriteTest {
         Sprite split = sprite.split(10, 10, 64, 10);
         assertThat(split).isInstanceOf(EmptySprite.class);
     }
+
+    /**
+     * Verifies a sprite drawn alternately at two sizes is scaled once for
+     * each, and that a third size replaces the oldest copy.
+     */
+    @Test
+    public void scaledImageIsCached() {
+        ImageSprite image = (ImageSprite) sprite;
+        Graphics graphics = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB)
+            .getGraphics();
+        image.draw(graphics, 0, 0, 24, 24);
+
+        assertThat(image.scaledImage(graphics, 24, 24))
+            .isSameAs(image.scaledImage(graphics, 24, 24));
+        Image large = image.scaledImage(graphics, 24, 24);
+        assertThat(large.getWidth(null)).isEqualTo(24);
+        Image small = image.scaledImage(graphics, 16, 16);
+        assertThat(small.getWidth(null)).isEqualTo(16);
+
+        assertThat(image.scaledImage(graphics, 24, 24)).isSameAs(large);
+        assertThat(image.scaledImage(graphics, 16, 16)).isSameAs(small);
+
+        assertThat(image.scaledImage(graphics, 32, 32).getWidth(null)).isEqualTo(32);
+        assertThat(image.scaledImage(graphics, 16, 16)).isSameAs(small);
+        assertThat(image.scaledImage(graphics, 24, 24)).isNotSameAs(large);
+    }
 }
@@ -0,0 +1,114 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the board panel following the game from one level to the next.
+ */
+@SuppressWarnings("magicnumber")
+class BoardPanelTest {
+
+    /**
+     * The level the game starts with.
+     */
+    private Level first;
+
+    /**
+     * The level the game moves on to, on a larger board.
+     */
+    private Level second;
+
+    /**
+     * The level the game is currently playing.
+     */
+    private final AtomicReference<Level> current = new AtomicReference<>();
+
+    /**
+     * The panel under test.
+     */
+    private BoardPanel panel;
+
+    /**
+     * Creates the levels and a panel showing a game on the first one.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        first = parser.parseMap(Lists.newArrayList("####", "#P.#", "####"));
+        second = parser.parseMap(Lists.newArrayList("#####", "# P.#", "#####"));
+        current.set(first);
+        Game game = mock(Game.class);
+        when(game.getLevel()).thenAnswer(invocation -> current.get());
+        panel = new BoardPanel(game);
+    }
+
+    /**
+     * Verifies the first frame after the game moved on to the next level
+     * shows the board of that level, at the size of the new board.
+     *
+     * @throws InterruptedException
+     *             When interrupted while waiting for the event queue.
+     * @throws InvocationTargetException
+     *             When the panel failed to update.
+     */
+    @Test
+    void showsNextLevel() throws InterruptedException, InvocationTargetException {
+        panel.setSize(panel.getPreferredSize());
+        paint();
+
+        current.set(second);
+        panel.repaintChanged();
+        SwingUtilities.invokeAndWait(() -> { });
+
+        Dimension size = panel.getPreferredSize();
+        assertThat(size).isEqualTo(new Dimension(5 * PacManUI.SQUARE_SIZE,
+            3 * PacManUI.SQUARE_SIZE));
+        panel.setSize(size);
+        BufferedImage expected = new BufferedImage(size.width, size.height,
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = expected.getGraphics();
+        new BoardRenderer().render(second, graphics, size, null);
+        graphics.dispose();
+
+        BufferedImage frame = paint();
+        for (int y = 0; y < size.height; y++) {
+            for (int x = 0; x < size.width; x++) {
+                assertThat(frame.getRGB(x, y)).isEqualTo(expected.getRGB(x, y));
+            }
+        }
+    }
+
+    private BufferedImage paint() {
+        BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(),
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = image.getGraphics();
+        panel.paint(graphics);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,105 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the caching of the static background by the {@link BoardRenderer}.
+ */
+class BoardRendererTest {
+
+    /**
+     * The sprite of the walls.
+     */
+    private Sprite wall;
+
+    /**
+     * The sprite of the pellets.
+     */
+    private Sprite pellet;
+
+    /**
+     * The level to render.
+     */
+    private Level level;
+
+    /**
+     * The renderer under test.
+     */
+    private BoardRenderer renderer;
+
+    /**
+     * Creates a small level of walls, floor and pellets.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        wall = mock(Sprite.class);
+        pellet = mock(Sprite.class);
+        when(sprites.getWallSprite()).thenReturn(wall);
+        when(sprites.getGroundSprite()).thenReturn(mock(Sprite.class));
+        when(sprites.getPelletSprite()).thenReturn(pellet);
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList("####", "#.P#", "####"));
+        renderer = new BoardRenderer();
+    }
+
+    /**
+     * Verifies the walls are drawn once for many frames of the same size,
+     * while the pellets are drawn every frame.
+     */
+    @Test
+    void backgroundIsCached() {
+        render(new Dimension(40, 30));
+        render(new Dimension(40, 30));
+        render(new Dimension(40, 30));
+
+        assertThat(renderer.getBackgroundRenders()).isEqualTo(1);
+        verify(wall, times(10)).draw(any(Graphics.class), anyInt(), anyInt(), anyInt(), anyInt());
+        verify(pellet, times(3)).draw(any(Graphics.class), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    /**
+     * Verifies the background is redrawn when the window is resized or the
+     * cache is invalidated.
+     */
+    @Test
+    void backgroundIsRegenerated() {
+        render(new Dimension(40, 30));
+        render(new Dimension(80, 60));
+        renderer.invalidate();
+        render(new Dimension(80, 60));
+
+        assertThat(renderer.getBackgroundRenders()).isEqualTo(3);
+    }
+
+    private void render(Dimension size) {
+        BufferedImage frame = new BufferedImage(size.width, size.height,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = frame.getGraphics();
+        renderer.render(level, graphics, size, null);
+        graphics.dispose();
+    }
+}
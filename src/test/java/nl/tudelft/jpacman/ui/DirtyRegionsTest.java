@@ -0,0 +1,62 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Rectangle;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests coalescing changed cells into {@link DirtyRegions}.
+ */
+@SuppressWarnings("magicnumber")
+class DirtyRegionsTest {
+
+    /**
+     * The width of the board in cells.
+     */
+    private static final int WIDTH = 10;
+
+    /**
+     * Verifies nothing is repainted when nothing changed.
+     */
+    @Test
+    void noChanges() {
+        assertThat(DirtyRegions.coalesce(new BitSet(), WIDTH)).isEmpty();
+    }
+
+    /**
+     * Verifies adjacent cells in a row become one run, but runs do not wrap
+     * around to the next row.
+     */
+    @Test
+    void mergesRuns() {
+        BitSet cells = cells(3, 4, 5, 9, 10);
+        assertThat(DirtyRegions.coalesce(cells, WIDTH)).containsExactlyInAnyOrder(
+            new Rectangle(3, 0, 3, 1),
+            new Rectangle(9, 0, 1, 1),
+            new Rectangle(0, 1, 1, 1));
+    }
+
+    /**
+     * Verifies equal runs in consecutive rows become one rectangle, while
+     * distant cells stay separate.
+     */
+    @Test
+    void mergesRows() {
+        BitSet cells = cells(12, 13, 22, 23, 32, 33, 58, 88);
+        assertThat(DirtyRegions.coalesce(cells, WIDTH)).containsExactlyInAnyOrder(
+            new Rectangle(2, 1, 2, 3),
+            new Rectangle(8, 5, 1, 1),
+            new Rectangle(8, 8, 1, 1));
+    }
+
+    private static BitSet cells(int... indices) {
+        BitSet cells = new BitSet();
+        for (int index : indices) {
+            cells.set(index);
+        }
+        return cells;
+    }
+}
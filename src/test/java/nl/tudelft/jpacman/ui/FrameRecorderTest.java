@@ -0,0 +1,132 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests recording frames to an animated GIF.
+ */
+@SuppressWarnings("magicnumber")
+class FrameRecorderTest {
+
+    /**
+     * The width of the frames.
+     */
+    private static final int WIDTH = 32;
+
+    /**
+     * The height of the frames.
+     */
+    private static final int HEIGHT = 24;
+
+    /**
+     * The GIF file the frames are written to.
+     */
+    private Path file;
+
+    /**
+     * Creates the file.
+     *
+     * @throws IOException
+     *             When the file could not be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("frames", ".gif");
+    }
+
+    /**
+     * Removes the file.
+     *
+     * @throws IOException
+     *             When the file could not be removed.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies the recorded frames can be read back, with unchanged frames
+     * merged into the previous one and changed frames cropped to the area
+     * that changed.
+     *
+     * @throws IOException
+     *             When the GIF could not be written or read.
+     */
+    @Test
+    void framesAreReadBack() throws IOException {
+        FrameRecorder recorder = FrameRecorder.open(file, WIDTH, HEIGHT, 40, 4);
+        try {
+            recorder.record(frame(0));
+            recorder.record(frame(8));
+            recorder.record(frame(8));
+        } finally {
+            recorder.close();
+        }
+        assertThat(recorder.getFramesEncoded()).isEqualTo(3);
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            assertThat(readers.hasNext()).isTrue();
+            ImageReader reader = readers.next();
+            reader.setInput(in);
+            assertThat(reader.getNumImages(true)).isEqualTo(2);
+            assertThat(reader.getWidth(0)).isEqualTo(WIDTH);
+            assertThat(reader.getHeight(0)).isEqualTo(HEIGHT);
+            assertThat(reader.getWidth(1)).isLessThan(WIDTH);
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Verifies a recording without frames leaves no file behind.
+     *
+     * @throws IOException
+     *             When the GIF could not be written.
+     */
+    @Test
+    void emptyRecordingIsDeleted() throws IOException {
+        FrameRecorder.open(file, WIDTH, HEIGHT, 40, 4).close();
+        assertThat(file).doesNotExist();
+    }
+
+    /**
+     * Verifies a closed recorder refuses further frames.
+     *
+     * @throws IOException
+     *             When the GIF could not be written.
+     */
+    @Test
+    void closedRecorderDropsFrames() throws IOException {
+        FrameRecorder recorder = FrameRecorder.open(file, WIDTH, HEIGHT, 40, 4);
+        recorder.close();
+        assertThat(recorder.offer(frame(0))).isFalse();
+    }
+
+    private static BufferedImage frame(int x) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = image.getGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.setColor(Color.YELLOW);
+        graphics.fillRect(x, 4, 8, 8);
+        graphics.dispose();
+        return image;
+    }
+}
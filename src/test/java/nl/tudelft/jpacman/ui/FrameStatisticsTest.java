@@ -0,0 +1,63 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link FrameStatistics} of a render loop.
+ */
+@SuppressWarnings("magicnumber")
+class FrameStatisticsTest {
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final long MS = 1_000_000L;
+
+    /**
+     * Verifies empty statistics report no frame time.
+     */
+    @Test
+    void noFrames() {
+        FrameStatistics statistics = new FrameStatistics();
+        assertThat(statistics.getFramesRendered()).isZero();
+        assertThat(statistics.getAverageFrameTime()).isZero();
+        assertThat(statistics.getFrameTimePercentile(99)).isZero();
+    }
+
+    /**
+     * Verifies the average and percentiles of the frame times.
+     */
+    @Test
+    void frameTimes() {
+        FrameStatistics statistics = new FrameStatistics();
+        for (int i = 1; i <= 100; i++) {
+            statistics.frameRendered(i * MS);
+        }
+        statistics.framesSkipped(3);
+
+        assertThat(statistics.getFramesRendered()).isEqualTo(100);
+        assertThat(statistics.getFramesSkipped()).isEqualTo(3);
+        assertThat(statistics.getAverageFrameTime()).isCloseTo(50.5, within(1e-9));
+        assertThat(statistics.getFrameTimePercentile(50)).isEqualTo(50.0);
+        assertThat(statistics.getFrameTimePercentile(99)).isEqualTo(99.0);
+    }
+
+    /**
+     * Verifies only the most recent frames count towards the frame times.
+     */
+    @Test
+    void recentFramesOnly() {
+        FrameStatistics statistics = new FrameStatistics();
+        for (int i = 0; i < FrameStatistics.WINDOW; i++) {
+            statistics.frameRendered(100 * MS);
+        }
+        for (int i = 0; i < FrameStatistics.WINDOW; i++) {
+            statistics.frameRendered(2 * MS);
+        }
+        assertThat(statistics.getFramesRendered()).isEqualTo(2 * FrameStatistics.WINDOW);
+        assertThat(statistics.getFrameTimePercentile(100)).isEqualTo(2.0);
+    }
+}
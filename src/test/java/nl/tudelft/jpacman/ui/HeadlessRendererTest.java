@@ -0,0 +1,91 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests rendering a level with the real sprites without a display.
+ */
+@SuppressWarnings("magicnumber")
+class HeadlessRendererTest {
+
+    /**
+     * The size of a cell in pixels.
+     */
+    private static final int CELL = 16;
+
+    /**
+     * The game on the level.
+     */
+    private Game game;
+
+    /**
+     * The renderer under test.
+     */
+    private HeadlessRenderer renderer;
+
+    /**
+     * Creates a level with a player next to a pellet.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites(AnimationClock.manual());
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        Level level = parser.parseMap(Lists.newArrayList("#####", "#P. #", "#####"));
+        level.setHeadless(true);
+        game = new GameFactory(new PlayerFactory(sprites)).createSinglePlayerGame(level, "p");
+        renderer = new HeadlessRenderer(level, CELL, sprites.getAnimationClock());
+    }
+
+    /**
+     * Verifies frames have the size of the board.
+     */
+    @Test
+    void frameSize() {
+        BufferedImage frame = renderer.render();
+        assertThat(frame.getWidth()).isEqualTo(5 * CELL);
+        assertThat(frame.getHeight()).isEqualTo(3 * CELL);
+    }
+
+    /**
+     * Verifies an eaten pellet disappears from the next frame, while the
+     * walls stay.
+     */
+    @Test
+    void pelletDisappears() {
+        int[] before = renderer.render(new int[renderer.getWidth() * renderer.getHeight()]);
+        Player player = game.getPlayers().get(0);
+        game.start();
+        game.move(player, Direction.EAST);
+        game.move(player, Direction.EAST);
+        int[] after = renderer.render(new int[renderer.getWidth() * renderer.getHeight()]);
+
+        int pellet = pixel(2, 1);
+        int wall = pixel(0, 0);
+        assertThat(after[pellet]).isNotEqualTo(before[pellet]);
+        assertThat(after[wall]).isEqualTo(before[wall]);
+    }
+
+    private int pixel(int cellX, int cellY) {
+        return (cellY * CELL + CELL / 2) * renderer.getWidth() + cellX * CELL + CELL / 2;
+    }
+}
@@ -0,0 +1,120 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests coalescing and retrying key presses in the input buffer.
+ */
+@SuppressWarnings("magicnumber")
+class InputBufferTest {
+
+    /**
+     * The buffer under test.
+     */
+    private final InputBuffer buffer = new InputBuffer();
+
+    /**
+     * The names of the actions applied, in order.
+     */
+    private final List<String> log = new ArrayList<>();
+
+    /**
+     * Verifies only the most recent key press is applied on a tick.
+     */
+    @Test
+    void latestIntentWins() {
+        buffer.submit(() -> log.add("up"));
+        buffer.submit(() -> log.add("left"));
+        buffer.tick();
+        buffer.tick();
+
+        assertThat(log).containsExactly("left");
+        assertThat(buffer.getIntentsApplied()).isEqualTo(1);
+        assertThat(buffer.getIntentsCoalesced()).isEqualTo(1);
+        assertThat(buffer.getMaxLatency()).isGreaterThanOrEqualTo(buffer.getAverageLatency());
+    }
+
+    /**
+     * Verifies an intent that cannot be applied is retried on later ticks.
+     */
+    @Test
+    void blockedIntentIsRetried() {
+        buffer.submit(new BlockedAction(2));
+        buffer.tick();
+        buffer.tick();
+        assertThat(log).isEmpty();
+
+        buffer.tick();
+        assertThat(log).containsExactly("turn");
+        assertThat(buffer.getIntentsApplied()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies an intent that cannot be applied is dropped eventually.
+     *
+     * @throws InterruptedException
+     *             When interrupted while waiting.
+     */
+    @Test
+    void blockedIntentExpires() throws InterruptedException {
+        buffer.submit(new BlockedAction(Integer.MAX_VALUE));
+        buffer.tick();
+        Thread.sleep(InputBuffer.BUFFER_WINDOW + 50);
+        buffer.tick();
+
+        assertThat(buffer.getIntentsExpired()).isEqualTo(1);
+        assertThat(buffer.getIntentsApplied()).isEqualTo(0);
+    }
+
+    /**
+     * Verifies an action that throws is dropped, and later intents are
+     * still applied.
+     */
+    @Test
+    void failingIntentIsDropped() {
+        buffer.submit(() -> {
+            throw new IllegalStateException("no level");
+        });
+        buffer.tick();
+        buffer.submit(() -> log.add("up"));
+        buffer.tick();
+
+        assertThat(log).containsExactly("up");
+        assertThat(buffer.getIntentsApplied()).isEqualTo(1);
+    }
+
+    /**
+     * An action that can only be applied after a number of attempts.
+     */
+    private final class BlockedAction implements Action {
+
+        /**
+         * The number of attempts that still fail.
+         */
+        private int blocked;
+
+        BlockedAction(int attempts) {
+            this.blocked = attempts;
+        }
+
+        @Override
+        public void doAction() {
+            log.add("turn");
+        }
+
+        @Override
+        public boolean attempt() {
+            if (blocked > 0) {
+                blocked--;
+                return false;
+            }
+            doAction();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the score panel following the changes of its players.
+ */
+@SuppressWarnings("magicnumber")
+class ScorePanelTest {
+
+    /**
+     * The player whose score is shown.
+     */
+    private Player player;
+
+    /**
+     * The panel under test.
+     */
+    private ScorePanel panel;
+
+    /**
+     * Creates a panel for a single player.
+     */
+    @BeforeEach
+    void setUp() {
+        player = new PlayerFactory(new PacManSprites(AnimationClock.manual()))
+            .createPacMan("p");
+        panel = new ScorePanel(Lists.newArrayList(player));
+    }
+
+    /**
+     * Verifies changes to the score and life of the player are shown.
+     *
+     * @throws Exception
+     *             When the event dispatch thread could not be flushed.
+     */
+    @Test
+    void showsChanges() throws Exception {
+        assertThat(scoreText()).isEqualTo("Score:   0");
+
+        player.addPoints(10);
+        flush();
+        assertThat(scoreText()).isEqualTo("Score:  10");
+
+        player.setAlive(false);
+        flush();
+        assertThat(scoreText()).isEqualTo("You died. Score:  10");
+    }
+
+    /**
+     * Verifies the score is only formatted when it actually changes.
+     *
+     * @throws Exception
+     *             When the event dispatch thread could not be flushed.
+     */
+    @Test
+    void formatsOnlyOnChange() throws Exception {
+        AtomicInteger formatted = new AtomicInteger();
+        panel.setScoreFormatter(p -> formatted.incrementAndGet() + ":" + p.getScore());
+        assertThat(formatted.get()).isEqualTo(1);
+
+        player.addPoints(0);
+        player.setAlive(true);
+        flush();
+        assertThat(formatted.get()).isEqualTo(1);
+
+        player.addPoints(5);
+        flush();
+        assertThat(formatted.get()).isEqualTo(2);
+        assertThat(scoreText()).isEqualTo("2:5");
+    }
+
+    private String scoreText() {
+        return ((JLabel) panel.getComponent(1)).getText();
+    }
+
+    private static void flush() throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+}